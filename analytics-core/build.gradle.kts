@@ -0,0 +1,13 @@
+plugins {
+    `java-library`
+}
+
+// Plain JVM code shared by the app's statistics screens; no Android or Firebase types
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
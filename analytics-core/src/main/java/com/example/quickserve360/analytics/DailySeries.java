@@ -0,0 +1,119 @@
+package com.example.quickserve360.analytics;
+
+/**
+ * A count and an amount per day, in primitive arrays indexed by epoch day
+ * (see {@link DayKeys}).
+ *
+ * Adding to a day is an array increment, and walking the days is a scan in
+ * date order, so a multi-year history needs no map entries, boxing or
+ * sorting. The arrays cover the range of days added so far and grow in
+ * either direction, within DayKeys.MIN_DAY to DayKeys.MAX_DAY. Not thread-safe.
+ */
+public final class DailySeries {
+    private static final int INITIAL_DAYS = 64;
+
+    // Epoch day of index 0
+    private long baseDay;
+    private long[] counts = new long[0];
+    private double[] amounts = new double[0];
+    // Range of days added so far, inclusive
+    private long firstDay = Long.MAX_VALUE;
+    private long lastDay = Long.MIN_VALUE;
+    private long totalCount;
+    private double totalAmount;
+
+    /**
+     * @throws IllegalArgumentException if the day is outside the years DayKeys accepts
+     */
+    public void add(long epochDay, long count, double amount) {
+        if (epochDay < DayKeys.MIN_DAY || epochDay > DayKeys.MAX_DAY) {
+            throw new IllegalArgumentException("Day out of range: " + epochDay);
+        }
+        int index = indexFor(epochDay);
+        counts[index] += count;
+        amounts[index] += amount;
+        totalCount += count;
+        totalAmount += amount;
+    }
+
+    public boolean isEmpty() {
+        return firstDay > lastDay;
+    }
+
+    public long firstDay() {
+        return firstDay;
+    }
+
+    public long lastDay() {
+        return lastDay;
+    }
+
+    public long count(long epochDay) {
+        return contains(epochDay) ? counts[(int) (epochDay - baseDay)] : 0;
+    }
+
+    public double amount(long epochDay) {
+        return contains(epochDay) ? amounts[(int) (epochDay - baseDay)] : 0;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public double totalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Visits the days that have a count or an amount, in date order.
+     */
+    public void forEachDay(DayVisitor visitor) {
+        if (isEmpty()) return;
+        int end = (int) (lastDay - baseDay);
+        for (int i = (int) (firstDay - baseDay); i <= end; i++) {
+            if (counts[i] != 0 || amounts[i] != 0) {
+                visitor.visit(baseDay + i, counts[i], amounts[i]);
+            }
+        }
+    }
+
+    private boolean contains(long epochDay) {
+        return epochDay >= firstDay && epochDay <= lastDay;
+    }
+
+    // Makes room for the day and returns its index
+    private int indexFor(long epochDay) {
+        if (counts.length == 0) {
+            baseDay = epochDay - INITIAL_DAYS / 2;
+            counts = new long[INITIAL_DAYS];
+            amounts = new double[INITIAL_DAYS];
+        }
+
+        long index = epochDay - baseDay;
+        if (index < 0 || index >= counts.length) {
+            long low = Math.min(epochDay, baseDay);
+            long high = Math.max(epochDay, baseDay + counts.length - 1);
+            // At least double, with headroom on the side that grew
+            long size = Math.max(high - low + 1, 2L * counts.length);
+            long newBase = index < 0 ? high - size + 1 : low;
+
+            long[] newCounts = new long[(int) size];
+            double[] newAmounts = new double[(int) size];
+            int offset = (int) (baseDay - newBase);
+            System.arraycopy(counts, 0, newCounts, offset, counts.length);
+            System.arraycopy(amounts, 0, newAmounts, offset, amounts.length);
+            counts = newCounts;
+            amounts = newAmounts;
+            baseDay = newBase;
+            index = epochDay - baseDay;
+        }
+
+        firstDay = Math.min(firstDay, epochDay);
+        lastDay = Math.max(lastDay, epochDay);
+        return (int) index;
+    }
+
+    public interface DayVisitor {
+        void visit(long epochDay, long count, double amount);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.quickserve360.analytics;
+
+import java.util.TimeZone;
+
+/**
+ * Day arithmetic for the statistics, on epoch days (days since 1970-01-01).
+ *
+ * Orders store "dd-MM-yyyy HH:mm" and the database buckets by "yyyy-MM-dd";
+ * both are converted to an epoch day once, after which sorting, ranges and
+ * week numbers are plain integer math. Calendar conversion is done by hand
+ * because java.time needs API 26 and the app supports 24.
+ *
+ * Only years MIN_YEAR to MAX_YEAR are accepted; anything else is a malformed
+ * date, and would otherwise stretch a {@link DailySeries} over centuries.
+ */
+public final class DayKeys {
+    // Returned when a date can't be read
+    public static final long NO_DAY = Long.MIN_VALUE;
+    public static final int MIN_YEAR = 1970;
+    public static final int MAX_YEAR = 2100;
+    // First and last accepted days
+    public static final long MIN_DAY = epochDay(MIN_YEAR, 1, 1);
+    public static final long MAX_DAY = epochDay(MAX_YEAR, 12, 31);
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private DayKeys() {}
+
+    /**
+     * Reads the day of an order date ("dd-MM-yyyy", optionally followed by a
+     * space and the time).
+     */
+    public static long epochDay(String orderDate) {
+        if (orderDate == null || orderDate.length() < 10) return NO_DAY;
+        if (orderDate.length() > 10 && orderDate.charAt(10) != ' ') return NO_DAY;
+        if (orderDate.charAt(2) != '-' || orderDate.charAt(5) != '-') return NO_DAY;
+        return epochDay(digits(orderDate, 6, 4), digits(orderDate, 3, 2), digits(orderDate, 0, 2));
+    }
+
+    /**
+     * Reads a day key ("yyyy-MM-dd").
+     */
+    public static long epochDayOfKey(String dayKey) {
+        if (dayKey == null || dayKey.length() != 10) return NO_DAY;
+        if (dayKey.charAt(4) != '-' || dayKey.charAt(7) != '-') return NO_DAY;
+        return epochDay(digits(dayKey, 0, 4), digits(dayKey, 5, 2), digits(dayKey, 8, 2));
+    }
+
+    /**
+     * The day an instant falls on in the given time zone, or NO_DAY if that is
+     * outside the accepted years.
+     */
+    public static long epochDayOfMillis(long millis, TimeZone zone) {
+        long epochDay = Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+        return epochDay >= MIN_DAY && epochDay <= MAX_DAY ? epochDay : NO_DAY;
+    }
+
+    // Days from civil date, for the proleptic Gregorian calendar
+    public static long epochDay(int year, int month, int day) {
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) return NO_DAY;
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * The day key ("yyyy-MM-dd"), which sorts chronologically as a database key.
+     */
+    public static String dayKey(long epochDay) {
+        int[] date = civil(epochDay);
+        return pad(date[0], 4) + "-" + pad(date[1], 2) + "-" + pad(date[2], 2);
+    }
+
+    /**
+     * The "dd-MM-yyyy" label used on the charts.
+     */
+    public static String dayLabel(long epochDay) {
+        int[] date = civil(epochDay);
+        return pad(date[2], 2) + "-" + pad(date[1], 2) + "-" + pad(date[0], 4);
+    }
+
+    /**
+     * The ISO week key ("yyyy-Www"), which sorts chronologically as a database key.
+     */
+    public static String weekKey(long epochDay) {
+        // ISO weeks run Monday to Sunday and belong to the year of their Thursday
+        long mondayOffset = Math.floorMod(epochDay + 3, 7);
+        long thursday = epochDay - mondayOffset + 3;
+        int weekYear = civil(thursday)[0];
+        long week = (thursday - epochDay(weekYear, 1, 1)) / 7 + 1;
+        return pad(weekYear, 4) + "-W" + pad((int) week, 2);
+    }
+
+    // Civil date {year, month, day} from days
+    private static int[] civil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return new int[]{year, month, day};
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Parses length decimal digits at start, or -1 if any isn't a digit
+    private static int digits(String text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static String pad(int value, int width) {
+        String digits = Integer.toString(value);
+        StringBuilder sb = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) sb.append('0');
+        return sb.append(digits).toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.quickserve360.analytics;
+
+/**
+ * One placed order, as the statistics see it. Built by the app from whatever
+ * it read the order from; nothing here knows about the database.
+ */
+public final class OrderEvent {
+    // See DayKeys; DayKeys.NO_DAY if the order has no usable date
+    public final long epochDay;
+    public final double totalAmount;
+    public final String paymentMethod;
+    public final String status;
+
+    public OrderEvent(long epochDay, double totalAmount, String paymentMethod, String status) {
+        this.epochDay = epochDay;
+        this.totalAmount = totalAmount;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.quickserve360.analytics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregates orders into per-day order counts and revenue, and payment and
+ * status counts. Dish counts are kept by the app's DishPopularityTracker. Fed either order by order ({@link #add(OrderEvent)})
+ * or with already rolled-up days ({@link #addDay}), so the same totals back
+ * both the rollup rebuild and the charts.
+ *
+ * Orders and revenue per day live in a {@link DailySeries}, so they come out
+ * in date order without any sorting. Not thread-safe.
+ */
+public final class OrderStats {
+    // Count is orders, amount is revenue
+    private final DailySeries daily = new DailySeries();
+    // Per-day payment and status counts, needed only to write rollups back. Kept in a map:
+    // their keys are free-form strings, and the charts never walk them day by day
+    private final Map<Long, DayCounts> dayCounts = new HashMap<>();
+    private final Map<String, Long> paymentTotals = new HashMap<>();
+    private final Map<String, Long> statusTotals = new HashMap<>();
+
+    /**
+     * Counts one order. Returns false, counting nothing, if it has no day.
+     */
+    public boolean add(OrderEvent order) {
+        if (order.epochDay == DayKeys.NO_DAY) return false;
+
+        daily.add(order.epochDay, 1, order.totalAmount);
+        DayCounts counts = dayCounts(order.epochDay);
+        if (order.paymentMethod != null) {
+            increment(counts.paymentMethods, order.paymentMethod, 1);
+            increment(paymentTotals, order.paymentMethod, 1);
+        }
+        if (order.status != null) {
+            increment(counts.statuses, order.status, 1);
+            increment(statusTotals, order.status, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a day that was already totalled elsewhere, e.g. a stored rollup.
+     */
+    public void addDay(long epochDay, long orderCount, double revenue,
+                       Map<String, Long> paymentMethods, Map<String, Long> statuses) {
+        daily.add(epochDay, orderCount, revenue);
+        DayCounts counts = dayCounts(epochDay);
+        mergeCounts(paymentMethods, counts.paymentMethods, paymentTotals);
+        mergeCounts(statuses, counts.statuses, statusTotals);
+    }
+
+    /**
+     * Orders (count) and revenue (amount) per day.
+     */
+    public DailySeries daily() {
+        return daily;
+    }
+
+    // Payment and status counts for one day
+    public DayCounts countsFor(long epochDay) {
+        DayCounts counts = dayCounts.get(epochDay);
+        return counts != null ? counts : new DayCounts();
+    }
+
+    // Totals over all days
+    public Map<String, Long> paymentCounts() {
+        return Collections.unmodifiableMap(paymentTotals);
+    }
+
+    public Map<String, Long> statusCounts() {
+        return Collections.unmodifiableMap(statusTotals);
+    }
+
+    public long totalOrders() {
+        return daily.totalCount();
+    }
+
+    public double totalRevenue() {
+        return daily.totalAmount();
+    }
+
+    private DayCounts dayCounts(long epochDay) {
+        DayCounts counts = dayCounts.get(epochDay);
+        if (counts == null) {
+            counts = new DayCounts();
+            dayCounts.put(epochDay, counts);
+        }
+        return counts;
+    }
+
+    // Skips null and non-positive counts, which a partly written rollup can hold
+    private static void mergeCounts(Map<String, Long> counts, Map<String, Long> day, Map<String, Long> totals) {
+        if (counts == null) return;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            Long count = entry.getValue();
+            if (count == null || count <= 0) continue;
+            increment(day, entry.getKey(), count);
+            increment(totals, entry.getKey(), count);
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long delta) {
+        Long current = counts.get(key);
+        counts.put(key, (current == null ? 0 : current) + delta);
+    }
+
+    // One day's payment and status counts
+    public static final class DayCounts {
+        public final Map<String, Long> paymentMethods = new HashMap<>();
+        public final Map<String, Long> statuses = new HashMap<>();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.quickserve360.analytics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Rankings {
+
+    private Rankings() {}
+
+    /**
+     * The limit entries with the highest values, highest first.
+     */
+    public static <T extends Number> Map<String, T> top(Map<String, T> map, int limit) {
+        List<Map.Entry<String, T>> entries = new ArrayList<>(map.entrySet());
+        entries.sort((o1, o2) -> Double.compare(o2.getValue().doubleValue(), o1.getValue().doubleValue()));
+
+        Map<String, T> topEntries = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limit, entries.size()); i++) {
+            topEntries.put(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        return topEntries;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.quickserve360.analytics;
+
+/**
+ * One analysed review, as the rating statistics see it.
+ */
+public final class ReviewEvent {
+    public static final String POSITIVE = "POSITIVE";
+    public static final String NEUTRAL = "NEUTRAL";
+    public static final String NEGATIVE = "NEGATIVE";
+
+    public final String restaurantId;
+    // Sentiment model output in [0, 1]
+    public final float sentimentScore;
+    public final String sentimentLabel;
+
+    public ReviewEvent(String restaurantId, float sentimentScore, String sentimentLabel) {
+        this.restaurantId = restaurantId;
+        this.sentimentScore = sentimentScore;
+        this.sentimentLabel = sentimentLabel;
+    }
+
+    public double rating() {
+        return ratingFor(sentimentScore);
+    }
+
+    /**
+     * Converts a sentiment score (0-1) to a star rating (1-5):
+     * 0.0 -> 1 star, 0.5 -> 3 stars, 1.0 -> 5 stars.
+     */
+    public static double ratingFor(float sentimentScore) {
+        // Linear mapping: sentiment [0,1] -> rating [1,5]
+        double rating = 1 + (sentimentScore * 4);
+        return Math.max(1.0, Math.min(5.0, rating)); // Clamp between 1 and 5
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.quickserve360.analytics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregates reviews into per-restaurant rating totals. Not thread-safe.
+ */
+public final class ReviewStats {
+    private final Map<String, RatingTotals> restaurants = new HashMap<>();
+
+    /**
+     * Counts one review. Returns false, counting nothing, if it has no restaurant.
+     */
+    public boolean add(ReviewEvent review) {
+        if (review.restaurantId == null) return false;
+
+        RatingTotals totals = restaurants.get(review.restaurantId);
+        if (totals == null) {
+            totals = new RatingTotals();
+            restaurants.put(review.restaurantId, totals);
+        }
+        totals.add(review.rating(), review.sentimentLabel);
+        return true;
+    }
+
+    public Map<String, RatingTotals> restaurants() {
+        return Collections.unmodifiableMap(restaurants);
+    }
+
+    // One restaurant's totals. The app stores these as-is under RatingAggregates/{restaurantId},
+    // so they keep public fields and the implicit no-arg constructor
+    public static final class RatingTotals {
+        public double ratingSum;
+        public long reviewCount;
+        public long positiveCount;
+        public long neutralCount;
+        public long negativeCount;
+
+        public void add(double rating, String sentimentLabel) {
+            ratingSum += rating;
+            reviewCount++;
+
+            // Count by sentiment
+            if (ReviewEvent.POSITIVE.equals(sentimentLabel)) {
+                positiveCount++;
+            } else if (ReviewEvent.NEGATIVE.equals(sentimentLabel)) {
+                negativeCount++;
+            } else {
+                neutralCount++;
+            }
+        }
+
+        // Rounded to 1 decimal place, as shown and stored on restaurants
+        public double averageRating() {
+            if (reviewCount == 0) return 0.0;
+            return Math.round((ratingSum / reviewCount) * 10.0) / 10.0;
+        }
+    }
+}
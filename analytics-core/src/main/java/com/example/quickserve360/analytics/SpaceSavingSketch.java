@@ -0,0 +1,178 @@
+package com.example.quickserve360.analytics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy-hitters sketch: approximate top-K counts over a stream
+ * in at most {@code capacity} counters, however many distinct items it sees.
+ *
+ * Tracked items keep exact increments from the moment they are tracked. When
+ * the sketch is full, a new item takes over the smallest counter and inherits
+ * its count, which is then recorded as the item's possible overcount
+ * ({@link Entry#error}). Any item counted more than total / capacity times is
+ * guaranteed to be tracked.
+ *
+ * Sketches merge, so per-day sketches can be combined into a range. The
+ * {@link #toMap()} form is what gets stored in the database.
+ *
+ * Not thread-safe.
+ */
+public class SpaceSavingSketch {
+    private static final String COUNT = "c";
+    private static final String ERROR = "e";
+
+    private final int capacity;
+    private final Map<String, Entry> counters;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String item) {
+        offer(item, 1);
+    }
+
+    public void offer(String item, long weight) {
+        if (item == null || weight <= 0) return;
+
+        Entry entry = counters.get(item);
+        if (entry != null) {
+            entry.count += weight;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Entry(item, weight, 0));
+        } else {
+            Entry smallest = smallest();
+            counters.remove(smallest.item);
+            counters.put(item, new Entry(item, smallest.count + weight, smallest.count));
+        }
+    }
+
+    /**
+     * Combines another sketch into this one. An item missing from a full
+     * sketch may still have been counted up to that sketch's smallest count,
+     * so that much is added to both its count and its error.
+     */
+    public void merge(SpaceSavingSketch other) {
+        long thisFloor = isFull() ? smallest().count : 0;
+        long otherFloor = other.isFull() ? other.smallest().count : 0;
+
+        Set<String> items = new HashSet<>(counters.keySet());
+        items.addAll(other.counters.keySet());
+
+        List<Entry> merged = new ArrayList<>(items.size());
+        for (String item : items) {
+            Entry mine = counters.get(item);
+            Entry theirs = other.counters.get(item);
+            long count = (mine != null ? mine.count : thisFloor) + (theirs != null ? theirs.count : otherFloor);
+            long error = (mine != null ? mine.error : thisFloor) + (theirs != null ? theirs.error : otherFloor);
+            merged.add(new Entry(item, count, error));
+        }
+
+        Collections.sort(merged);
+        counters.clear();
+        for (int i = 0; i < Math.min(capacity, merged.size()); i++) {
+            Entry entry = merged.get(i);
+            counters.put(entry.item, entry);
+        }
+    }
+
+    /**
+     * The n items with the highest counts, highest first. Costs O(capacity)
+     * however much the sketch has seen.
+     */
+    public List<Entry> top(int n) {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Entry entry : counters.values()) {
+            entries.add(new Entry(entry.item, entry.count, entry.error));
+        }
+        Collections.sort(entries);
+        return entries.size() > n ? entries.subList(0, n) : entries;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    /**
+     * Stored form: item to {"c": count, "e": error}.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        for (Entry entry : counters.values()) {
+            Map<String, Object> value = new HashMap<>();
+            value.put(COUNT, entry.count);
+            value.put(ERROR, entry.error);
+            map.put(entry.item, value);
+        }
+        return map;
+    }
+
+    /**
+     * Reads the {@link #toMap()} form back; anything unreadable is skipped.
+     * Keeps the largest counters if the stored sketch has more than capacity.
+     */
+    public static SpaceSavingSketch fromMap(Object stored, int capacity) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        if (!(stored instanceof Map)) return sketch;
+
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<?, ?> item : ((Map<?, ?>) stored).entrySet()) {
+            if (!(item.getValue() instanceof Map)) continue;
+            Map<?, ?> value = (Map<?, ?>) item.getValue();
+            long count = asLong(value.get(COUNT));
+            if (count <= 0) continue;
+            entries.add(new Entry(String.valueOf(item.getKey()), count, asLong(value.get(ERROR))));
+        }
+
+        Collections.sort(entries);
+        for (int i = 0; i < Math.min(capacity, entries.size()); i++) {
+            Entry entry = entries.get(i);
+            sketch.counters.put(entry.item, entry);
+        }
+        return sketch;
+    }
+
+    private Entry smallest() {
+        Entry smallest = null;
+        for (Entry entry : counters.values()) {
+            if (smallest == null || entry.count < smallest.count) smallest = entry;
+        }
+        return smallest;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    // Ordered by count, highest first; ties by item so the order is stable
+    public static class Entry implements Comparable<Entry> {
+        public final String item;
+        public long count;
+        // How much of count may have been inherited from evicted items
+        public long error;
+
+        Entry(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byCount = Long.compare(other.count, count);
+            return byCount != 0 ? byCount : item.compareTo(other.item);
+        }
+    }
+}
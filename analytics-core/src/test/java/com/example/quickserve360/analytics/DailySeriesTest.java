@@ -0,0 +1,67 @@
+package com.example.quickserve360.analytics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DailySeriesTest {
+
+    @Test
+    public void add_sumsPerDayAndInTotal() {
+        DailySeries series = new DailySeries();
+        series.add(100, 1, 250.0);
+        series.add(100, 2, 50.0);
+        series.add(101, 1, 10.0);
+
+        assertEquals(3, series.count(100));
+        assertEquals(300.0, series.amount(100), 0.0);
+        assertEquals(4, series.totalCount());
+        assertEquals(310.0, series.totalAmount(), 0.0);
+        assertEquals(0, series.count(99));
+    }
+
+    @Test
+    public void add_growsInBothDirections() {
+        DailySeries series = new DailySeries();
+        series.add(1000, 1, 1.0);
+        series.add(10, 1, 1.0);
+        series.add(5000, 1, 1.0);
+
+        assertEquals(10, series.firstDay());
+        assertEquals(5000, series.lastDay());
+        assertEquals(1, series.count(10));
+        assertEquals(1, series.count(1000));
+        assertEquals(1, series.count(5000));
+    }
+
+    @Test
+    public void forEachDay_visitsNonEmptyDaysInOrder() {
+        DailySeries series = new DailySeries();
+        series.add(20, 1, 5.0);
+        series.add(3, 2, 7.0);
+        series.add(12, 1, 1.0);
+
+        List<Long> days = new ArrayList<>();
+        series.forEachDay((epochDay, count, amount) -> days.add(epochDay));
+        assertEquals(Arrays.asList(3L, 12L, 20L), days);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_rejectsDaysOutsideTheAcceptedYears() {
+        new DailySeries().add(DayKeys.MIN_DAY - 1, 1, 1.0);
+    }
+
+    @Test
+    public void newSeries_isEmpty() {
+        DailySeries series = new DailySeries();
+        assertTrue(series.isEmpty());
+        series.forEachDay((epochDay, count, amount) -> {
+            throw new AssertionError("Visited " + epochDay);
+        });
+    }
+}
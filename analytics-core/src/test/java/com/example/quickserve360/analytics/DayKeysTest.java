@@ -0,0 +1,68 @@
+package com.example.quickserve360.analytics;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class DayKeysTest {
+
+    @Test
+    public void epochDay_countsFromUnixEpoch() {
+        assertEquals(0, DayKeys.epochDay(1970, 1, 1));
+        assertEquals(19782, DayKeys.epochDay(2024, 2, 29));
+    }
+
+    @Test
+    public void epochDay_rejectsImplausibleYears() {
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(1969, 12, 31));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(2101, 1, 1));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay("01-01-0001"));
+        assertEquals(DayKeys.MAX_DAY, DayKeys.epochDayOfKey("2100-12-31"));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDayOfMillis(-1, TimeZone.getTimeZone("UTC")));
+    }
+
+    @Test
+    public void epochDay_rejectsInvalidDates() {
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(2023, 2, 29));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(2024, 4, 31));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(2024, 13, 1));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(2024, 1, 0));
+    }
+
+    @Test
+    public void epochDay_readsOrderDates() {
+        assertEquals(19782, DayKeys.epochDay("29-02-2024"));
+        assertEquals(19782, DayKeys.epochDay("29-02-2024 18:45"));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay("2024-02-29"));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay("29-02-2024T18:45"));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay("29/02/2024"));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDay(null));
+    }
+
+    @Test
+    public void dayKey_roundTrips() {
+        assertEquals("2024-02-29", DayKeys.dayKey(19782));
+        assertEquals(19782, DayKeys.epochDayOfKey("2024-02-29"));
+        assertEquals("29-02-2024", DayKeys.dayLabel(19782));
+        assertEquals(DayKeys.NO_DAY, DayKeys.epochDayOfKey("29-02-2024"));
+    }
+
+    @Test
+    public void epochDayOfMillis_usesTheZone() {
+        // 2024-02-29 20:00 UTC is already 1 March in Kolkata
+        long millis = 19782L * 24 * 60 * 60 * 1000 + 20L * 60 * 60 * 1000;
+        assertEquals(19782, DayKeys.epochDayOfMillis(millis, TimeZone.getTimeZone("UTC")));
+        assertEquals(19783, DayKeys.epochDayOfMillis(millis, TimeZone.getTimeZone("Asia/Kolkata")));
+    }
+
+    @Test
+    public void weekKey_followsIsoWeeks() {
+        assertEquals("2024-W09", DayKeys.weekKey(DayKeys.epochDay(2024, 2, 29)));
+        // Belongs to the next year's first week
+        assertEquals("2025-W01", DayKeys.weekKey(DayKeys.epochDay(2024, 12, 30)));
+        // Belongs to the previous year's last week
+        assertEquals("2020-W53", DayKeys.weekKey(DayKeys.epochDay(2021, 1, 3)));
+    }
+}
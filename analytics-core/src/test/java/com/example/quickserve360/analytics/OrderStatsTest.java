@@ -0,0 +1,58 @@
+package com.example.quickserve360.analytics;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderStatsTest {
+
+    @Test
+    public void add_countsOrdersByDay() {
+        OrderStats stats = new OrderStats();
+        assertTrue(stats.add(new OrderEvent(100, 200.0, "UPI", "Pending")));
+        assertTrue(stats.add(new OrderEvent(100, 300.0, "Card", "Delivered")));
+        assertTrue(stats.add(new OrderEvent(102, 50.0, "UPI", null)));
+
+        assertEquals(3, stats.totalOrders());
+        assertEquals(550.0, stats.totalRevenue(), 0.0);
+        assertEquals(2, stats.daily().count(100));
+        assertEquals(500.0, stats.daily().amount(100), 0.0);
+        assertEquals(Long.valueOf(2), stats.paymentCounts().get("UPI"));
+        assertEquals(Long.valueOf(1), stats.countsFor(100).paymentMethods.get("UPI"));
+        assertEquals(Long.valueOf(1), stats.countsFor(100).statuses.get("Delivered"));
+        assertTrue(stats.countsFor(102).statuses.isEmpty());
+    }
+
+    @Test
+    public void add_skipsOrdersWithoutADay() {
+        OrderStats stats = new OrderStats();
+        assertFalse(stats.add(new OrderEvent(DayKeys.NO_DAY, 200.0, "UPI", "Pending")));
+        assertEquals(0, stats.totalOrders());
+        assertTrue(stats.paymentCounts().isEmpty());
+    }
+
+    @Test
+    public void addDay_mergesRollupsAndSkipsBadCounts() {
+        Map<String, Long> payments = new HashMap<>();
+        payments.put("UPI", 3L);
+        payments.put("Card", 0L);
+        payments.put("Cash on Delivery", null);
+
+        OrderStats stats = new OrderStats();
+        stats.addDay(100, 3, 900.0, payments, Collections.singletonMap("Delivered", 3L));
+        stats.add(new OrderEvent(100, 100.0, "UPI", "Pending"));
+
+        assertEquals(4, stats.daily().count(100));
+        assertEquals(1000.0, stats.totalRevenue(), 0.0);
+        assertEquals(Long.valueOf(4), stats.countsFor(100).paymentMethods.get("UPI"));
+        assertFalse(stats.paymentCounts().containsKey("Card"));
+        assertFalse(stats.paymentCounts().containsKey("Cash on Delivery"));
+        assertEquals(Long.valueOf(3), stats.statusCounts().get("Delivered"));
+    }
+}
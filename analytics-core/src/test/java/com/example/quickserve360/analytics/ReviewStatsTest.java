@@ -0,0 +1,55 @@
+package com.example.quickserve360.analytics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class ReviewStatsTest {
+
+    @Test
+    public void ratingFor_mapsSentimentToStars() {
+        assertEquals(1.0, ReviewEvent.ratingFor(0f), 0.0);
+        assertEquals(3.0, ReviewEvent.ratingFor(0.5f), 0.0);
+        assertEquals(5.0, ReviewEvent.ratingFor(1f), 0.0);
+        assertEquals(5.0, ReviewEvent.ratingFor(1.5f), 0.0);
+    }
+
+    @Test
+    public void add_totalsPerRestaurant() {
+        ReviewStats stats = new ReviewStats();
+        stats.add(new ReviewEvent("r1", 1f, ReviewEvent.POSITIVE));
+        stats.add(new ReviewEvent("r1", 0.5f, ReviewEvent.NEUTRAL));
+        stats.add(new ReviewEvent("r1", 0f, ReviewEvent.NEGATIVE));
+        stats.add(new ReviewEvent("r2", 0.75f, null));
+
+        ReviewStats.RatingTotals r1 = stats.restaurants().get("r1");
+        assertEquals(3, r1.reviewCount);
+        assertEquals(9.0, r1.ratingSum, 0.0);
+        assertEquals(1, r1.positiveCount);
+        assertEquals(1, r1.neutralCount);
+        assertEquals(1, r1.negativeCount);
+        assertEquals(3.0, r1.averageRating(), 0.0);
+
+        // No label counts as neutral
+        assertEquals(1, stats.restaurants().get("r2").neutralCount);
+    }
+
+    @Test
+    public void add_skipsReviewsWithoutARestaurant() {
+        ReviewStats stats = new ReviewStats();
+        assertFalse(stats.add(new ReviewEvent(null, 1f, ReviewEvent.POSITIVE)));
+        assertNull(stats.restaurants().get(null));
+    }
+
+    @Test
+    public void averageRating_roundsToOneDecimal() {
+        ReviewStats.RatingTotals totals = new ReviewStats.RatingTotals();
+        assertEquals(0.0, totals.averageRating(), 0.0);
+        totals.add(5.0, ReviewEvent.POSITIVE);
+        totals.add(4.0, ReviewEvent.POSITIVE);
+        totals.add(4.0, ReviewEvent.POSITIVE);
+        assertEquals(4.3, totals.averageRating(), 0.0);
+    }
+}
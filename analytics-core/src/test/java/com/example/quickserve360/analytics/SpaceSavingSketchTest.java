@@ -0,0 +1,138 @@
+package com.example.quickserve360.analytics;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpaceSavingSketchTest {
+
+    @Test
+    public void offer_countsExactlyUntilFull() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.offer("a", 3);
+        sketch.offer("b");
+        sketch.offer("b");
+        sketch.offer("c");
+        sketch.offer("a");
+
+        List<SpaceSavingSketch.Entry> top = sketch.top(3);
+        assertEntry(top.get(0), "a", 4, 0);
+        assertEntry(top.get(1), "b", 2, 0);
+        assertEntry(top.get(2), "c", 1, 0);
+        assertTrue(sketch.isFull());
+    }
+
+    @Test
+    public void offer_evictsSmallestAndInheritsItsCountAsError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("a", 3);
+        sketch.offer("b", 1);
+        sketch.offer("c", 1);
+
+        List<SpaceSavingSketch.Entry> top = sketch.top(5);
+        assertEquals(2, top.size());
+        assertEntry(top.get(0), "a", 3, 0);
+        assertEntry(top.get(1), "c", 2, 1);
+
+        // Counted exactly from here on
+        sketch.offer("c", 2);
+        assertEntry(sketch.top(1).get(0), "c", 4, 1);
+    }
+
+    @Test
+    public void offer_ignoresNullItemsAndNonPositiveWeights() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(null);
+        sketch.offer("a", 0);
+        sketch.offer("a", -1);
+        assertEquals(0, sketch.size());
+    }
+
+    @Test
+    public void merge_twoFullSketchesAddsEachFloorForMissingItems() {
+        SpaceSavingSketch first = new SpaceSavingSketch(2);
+        first.offer("a", 5);
+        first.offer("b", 3);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        second.offer("a", 4);
+        second.offer("c", 2);
+
+        first.merge(second);
+
+        // b may have had up to 2 in second, c up to 3 in first; ties go by item
+        List<SpaceSavingSketch.Entry> top = first.top(5);
+        assertEquals(2, top.size());
+        assertEntry(top.get(0), "a", 9, 0);
+        assertEntry(top.get(1), "b", 5, 2);
+    }
+
+    @Test
+    public void merge_sketchWithRoomAddsNothingForMissingItems() {
+        SpaceSavingSketch first = new SpaceSavingSketch(3);
+        first.offer("a", 2);
+        SpaceSavingSketch second = new SpaceSavingSketch(3);
+        second.offer("b", 1);
+
+        first.merge(second);
+
+        List<SpaceSavingSketch.Entry> top = first.top(5);
+        assertEntry(top.get(0), "a", 2, 0);
+        assertEntry(top.get(1), "b", 1, 0);
+        assertFalse(first.isFull());
+    }
+
+    @Test
+    public void fromMap_readsBackToMap() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("a", 3);
+        sketch.offer("b", 1);
+        sketch.offer("c", 1);
+
+        List<SpaceSavingSketch.Entry> top = SpaceSavingSketch.fromMap(sketch.toMap(), 2).top(5);
+        assertEntry(top.get(0), "a", 3, 0);
+        assertEntry(top.get(1), "c", 2, 1);
+    }
+
+    @Test
+    public void fromMap_keepsLargestAndSkipsUnreadable() {
+        Map<String, Object> stored = new HashMap<>();
+        stored.put("a", counter(5, 0));
+        stored.put("b", counter(1, 0));
+        stored.put("c", counter(3, 1));
+        stored.put("zero", counter(0, 0));
+        stored.put("junk", "not a counter");
+
+        List<SpaceSavingSketch.Entry> top = SpaceSavingSketch.fromMap(stored, 2).top(5);
+        assertEquals(2, top.size());
+        assertEntry(top.get(0), "a", 5, 0);
+        assertEntry(top.get(1), "c", 3, 1);
+
+        assertEquals(0, SpaceSavingSketch.fromMap(null, 2).size());
+        assertEquals(0, SpaceSavingSketch.fromMap("junk", 2).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsZeroCapacity() {
+        new SpaceSavingSketch(0);
+    }
+
+    // Database numbers come back as Long
+    private static Map<String, Object> counter(long count, long error) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("c", count);
+        value.put("e", error);
+        return value;
+    }
+
+    private static void assertEntry(SpaceSavingSketch.Entry entry, String item, long count, long error) {
+        assertEquals(item, entry.item);
+        assertEquals(count, entry.count);
+        assertEquals(error, entry.error);
+    }
+}
@@ -15,6 +15,13 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Checkout's payment gateway (see PaymentGateway.fromBuildConfig) and its simulated
+        // latency, e.g. ./gradlew assembleDebug -PpaymentGatewayLatencyMs=1500 for load tests
+        val paymentGateway = (project.findProperty("paymentGateway") ?: "local").toString()
+        val paymentGatewayLatencyMs = (project.findProperty("paymentGatewayLatencyMs") ?: "0").toString()
+        buildConfigField("String", "PAYMENT_GATEWAY", "\"$paymentGateway\"")
+        buildConfigField("long", "PAYMENT_GATEWAY_LATENCY_MS", "${paymentGatewayLatencyMs}L")
     }
 
     buildTypes {
@@ -34,10 +41,12 @@ android {
 
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
 dependencies {
+    implementation(project(":analytics-core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -45,13 +54,15 @@ dependencies {
     implementation(libs.firebase.auth)
     implementation(libs.firebase.database)
     implementation(libs.recyclerview)
-    implementation(libs.picasso)
     implementation(libs.credentials)
     implementation(libs.credentials.play.services.auth)
     implementation(libs.googleid)
     testImplementation(libs.junit)
     implementation(libs.glide)
     annotationProcessor(libs.glide.compiler)
+    implementation(libs.glide.recyclerview) {
+        isTransitive = false
+    }
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation(platform("com.google.firebase:firebase-bom:32.7.0"))
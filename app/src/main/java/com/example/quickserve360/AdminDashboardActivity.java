@@ -1,5 +1,6 @@
 package com.example.quickserve360;
 
+import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
@@ -8,27 +9,20 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-import androidx.annotation.NonNull;
 import android.widget.TextView;
+import java.util.Map;
 
 public class AdminDashboardActivity extends AppCompatActivity {
 
     private CardView manageRestaurantsCard, manageOrdersCard, viewReviewsCard;
     private CardView viewStatsCard, logoutCard;
     private TextView totalOrdersText, totalRevenueText, totalRestaurantsText;
-    private DatabaseReference databaseReference;
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         getSupportActionBar().hide();
         setContentView(R.layout.activity_admin_dashboard);
 
-        databaseReference = FirebaseDatabase.getInstance().getReference();
-
         // Initialize views
         manageRestaurantsCard = findViewById(R.id.manage_restaurants_card);
         manageOrdersCard = findViewById(R.id.manage_orders_card);
@@ -75,6 +69,12 @@ public class AdminDashboardActivity extends AppCompatActivity {
             }
         });
 
+        // Long-press Statistics for data maintenance tools
+        viewStatsCard.setOnLongClickListener(v -> {
+            showMaintenanceDialog();
+            return true;
+        });
+
         // Logout
         logoutCard.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -89,21 +89,16 @@ public class AdminDashboardActivity extends AppCompatActivity {
     }
 
     private void loadDashboardStats() {
-        // Count total orders
-        databaseReference.child("orders").addListenerForSingleValueEvent(new ValueEventListener() {
+        // Sum order totals from the daily rollups rather than walking every order
+        new StatsRollupManager().loadDailyRollups(null, null, new StatsRollupManager.RollupCallback() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                int totalOrders = 0;
+            public void onRollupsLoaded(Map<String, StatsRollupManager.DailyRollup> rollupsByDay) {
+                long totalOrders = 0;
                 double totalRevenue = 0;
 
-                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
-                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
-                        totalOrders++;
-                        Double amount = orderSnapshot.child("totalAmount").getValue(Double.class);
-                        if (amount != null) {
-                            totalRevenue += amount;
-                        }
-                    }
+                for (StatsRollupManager.DailyRollup rollup : rollupsByDay.values()) {
+                    totalOrders += rollup.orderCount;
+                    totalRevenue += rollup.revenue;
                 }
 
                 totalOrdersText.setText(String.valueOf(totalOrders));
@@ -111,22 +106,122 @@ public class AdminDashboardActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onError(String message) {
                 Toast.makeText(AdminDashboardActivity.this, "Failed to load stats", Toast.LENGTH_SHORT).show();
             }
         });
 
         // Count total restaurants
-        databaseReference.child("Restaurants").addListenerForSingleValueEvent(new ValueEventListener() {
+        RestaurantRepository.getInstance().getRestaurants(RestaurantRepository.SNAPSHOT_PARSER,
+                new PathCache.Callback<DataSnapshot>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
+            public void onLoaded(DataSnapshot snapshot) {
                 totalRestaurantsText.setText(String.valueOf(snapshot.getChildrenCount()));
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onError(String message) {
                 totalRestaurantsText.setText("0");
             }
         });
     }
+
+    private void showMaintenanceDialog() {
+        String[] tools = {"Rebuild restaurant ratings", "Rebuild statistics rollups",
+                "Rebuild order index", "Re-score reviews with current model",
+                "Rebuild preference counters", "Rebuild dish popularity",
+                "Show active database listeners"};
+
+        new AlertDialog.Builder(this)
+                .setTitle("Data Maintenance")
+                .setItems(tools, (dialog, which) -> {
+                    switch (which) {
+                        case 0:
+                            rebuildRatings();
+                            break;
+                        case 1:
+                            rebuildStatisticsRollups();
+                            break;
+                        case 2:
+                            rebuildOrderIndex();
+                            break;
+                        case 3:
+                            rescoreReviews();
+                            break;
+                        case 4:
+                            rebuildPreferenceCounters();
+                            break;
+                        case 5:
+                            rebuildDishPopularity();
+                            break;
+                        case 6:
+                            showActiveListeners();
+                            break;
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void rebuildRatings() {
+        Toast.makeText(this, "Rebuilding restaurant ratings...", Toast.LENGTH_SHORT).show();
+        new RatingCalculator().rebuildAllAggregates((success, message) ->
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_SHORT).show());
+    }
+
+    private void rebuildStatisticsRollups() {
+        Toast.makeText(this, "Rebuilding statistics rollups...", Toast.LENGTH_SHORT).show();
+        new StatsRollupManager().rebuildFromOrders((success, message) ->
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_SHORT).show());
+    }
+
+    private void rebuildOrderIndex() {
+        Toast.makeText(this, "Rebuilding order index...", Toast.LENGTH_SHORT).show();
+        new OrderIndex().rebuildFromOrders((success, message) ->
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_SHORT).show());
+    }
+
+    private void rebuildPreferenceCounters() {
+        Toast.makeText(this, "Rebuilding preference counters...", Toast.LENGTH_SHORT).show();
+        new PreferenceCounters().rebuildFromPreferences((success, message) ->
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_SHORT).show());
+    }
+
+    private void rebuildDishPopularity() {
+        Toast.makeText(this, "Rebuilding dish popularity...", Toast.LENGTH_SHORT).show();
+        new DishPopularityTracker().rebuildFromOrders((success, message) ->
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_SHORT).show());
+    }
+
+    private void showActiveListeners() {
+        ListenerRegistry registry = ListenerRegistry.getInstance();
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : registry.getActiveCounts().entrySet()) {
+            report.append(entry.getValue()).append(" × ").append(entry.getKey()).append('\n');
+        }
+        if (report.length() == 0) {
+            report.append("No listeners attached");
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Active listeners (" + registry.getTotalCount() + ")")
+                .setMessage(report.toString().trim())
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
+    private void rescoreReviews() {
+        Toast.makeText(this, "Re-scoring reviews...", Toast.LENGTH_SHORT).show();
+        new ReviewRescoringJob(this).start(new ReviewRescoringJob.ProgressCallback() {
+            @Override
+            public void onProgress(long processed, long rescored) {
+                // Progress is logged by the job; only the outcome is shown
+            }
+
+            @Override
+            public void onComplete(boolean success, String message) {
+                Toast.makeText(AdminDashboardActivity.this, message, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
 }
\ No newline at end of file
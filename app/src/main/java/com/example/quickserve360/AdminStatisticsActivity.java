@@ -3,12 +3,19 @@ package com.example.quickserve360;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
 import android.widget.ImageButton;
+import android.widget.Spinner;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.quickserve360.analytics.DailySeries;
+import com.example.quickserve360.analytics.DayKeys;
+import com.example.quickserve360.analytics.OrderStats;
+import com.example.quickserve360.analytics.Rankings;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.charts.LineChart;
 import com.github.mikephil.charting.charts.PieChart;
@@ -25,33 +32,37 @@ import com.github.mikephil.charting.data.PieEntry;
 import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
 import com.github.mikephil.charting.formatter.ValueFormatter;
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
 
 public class AdminStatisticsActivity extends AppCompatActivity {
 
     private LineChart ordersLineChart, revenueLineChart;
     private BarChart topDishesBarChart, reviewRatingsBarChart;
     private PieChart paymentPieChart, userPrefsPieChart, orderStatusPieChart;
-    private DatabaseReference databaseReference;
+    private StatsRollupManager rollupManager;
+    private DishPopularityTracker popularityTracker;
     private ImageButton btnBackArrow;
+    private Spinner spinnerDateRange, spinnerDishRestaurant;
+
+    // Start of the selected date range, null for all time
+    private String startDayKey;
+    // Restaurant filter for the top dishes chart; the first entry is every restaurant
+    private final List<String> dishRestaurantIds = new ArrayList<>();
 
     private static final String TAG = "AdminStatistics";
 
+    // Date range options; 0 days means all time
+    private static final String[] RANGE_LABELS = {"All time", "Last 7 days", "Last 30 days", "Last 90 days"};
+    private static final int[] RANGE_DAYS = {0, 7, 30, 90};
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -66,7 +77,9 @@ public class AdminStatisticsActivity extends AppCompatActivity {
 
         try {
             initializeViews();
-            loadStatistics();
+            loadRestaurantRatings();
+            loadUserPreferences();
+            setupDateRangeSpinner();
         } catch (Exception e) {
             Log.e(TAG, "Error in onCreate: " + e.getMessage());
             Toast.makeText(this, "Error initializing statistics", Toast.LENGTH_SHORT).show();
@@ -78,6 +91,9 @@ public class AdminStatisticsActivity extends AppCompatActivity {
         btnBackArrow = findViewById(R.id.btnBackArrow);
         btnBackArrow.setOnClickListener(v -> finish());
 
+        spinnerDateRange = findViewById(R.id.spinnerDateRange);
+        spinnerDishRestaurant = findViewById(R.id.spinnerDishRestaurant);
+
         // Initialize charts
         ordersLineChart = findViewById(R.id.orders_line_chart);
         revenueLineChart = findViewById(R.id.revenue_line_chart);
@@ -87,234 +103,177 @@ public class AdminStatisticsActivity extends AppCompatActivity {
         userPrefsPieChart = findViewById(R.id.user_prefs_pie_chart);
         orderStatusPieChart = findViewById(R.id.order_status_pie_chart);
 
-        databaseReference = FirebaseDatabase.getInstance().getReference();
+        rollupManager = new StatsRollupManager();
+        popularityTracker = new DishPopularityTracker();
     }
 
-    private void loadStatistics() {
-        databaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
+    private void setupDateRangeSpinner() {
+        ArrayAdapter<String> rangeAdapter = new ArrayAdapter<>(this,
+                android.R.layout.simple_spinner_item, RANGE_LABELS);
+        rangeAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerDateRange.setAdapter(rangeAdapter);
+
+        // Fires once for the initial selection as well
+        spinnerDateRange.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                try {
-                    processStatisticsData(snapshot);
-                } catch (Exception e) {
-                    Log.e(TAG, "Error processing statistics: " + e.getMessage(), e);
-                    Toast.makeText(AdminStatisticsActivity.this,
-                            "Error processing data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                }
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                loadOrderStatistics(RANGE_DAYS[position]);
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Database error: " + error.getMessage());
-                Toast.makeText(AdminStatisticsActivity.this,
-                        "Failed to load statistics: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            public void onNothingSelected(AdapterView<?> parent) {
+                // Not needed
             }
         });
     }
 
-    private void processStatisticsData(DataSnapshot snapshot) {
-        Log.d(TAG, "Starting data processing...");
-
-        // Data structures for analytics
-        Map<String, Integer> ordersByDate = new HashMap<>();
-        Map<String, Double> revenueByDate = new HashMap<>();
-        Map<String, Integer> ordersByPayment = new HashMap<>();
-        Map<String, Integer> dishOrderCount = new HashMap<>();
-        Map<String, Integer> cuisinePrefs = new HashMap<>();
-        Map<String, Float> restaurantRatings = new HashMap<>();
-        Map<String, Integer> ordersByStatus = new HashMap<>();
-
-        // Build dish-to-restaurant mapping FIRST
-        Map<String, String> dishToRestaurantMap = new HashMap<>();
-        Map<String, String> restaurantNames = new HashMap<>();
+    // Per-restaurant sketches cover all time, so only "All restaurants" follows the date range
+    private void setupDishRestaurantSpinner(List<String> restaurantNames) {
+        List<String> labels = new ArrayList<>();
+        labels.add("All restaurants");
+        for (String name : restaurantNames) {
+            labels.add(name + " (all time)");
+        }
 
-        Log.d(TAG, "Building dish-to-restaurant mapping...");
+        ArrayAdapter<String> restaurantAdapter = new ArrayAdapter<>(this,
+                android.R.layout.simple_spinner_item, labels);
+        restaurantAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spinnerDishRestaurant.setAdapter(restaurantAdapter);
 
-        try {
-            // Build mapping from Dishes
-            DataSnapshot dishesSnapshot = snapshot.child("Dishes");
-            for (DataSnapshot restaurantSnap : dishesSnapshot.getChildren()) {
-                String restaurantId = restaurantSnap.getKey();
-                for (DataSnapshot dishSnap : restaurantSnap.getChildren()) {
-                    String dishId = dishSnap.getKey();
-                    dishToRestaurantMap.put(dishId, restaurantId);
-                }
+        spinnerDishRestaurant.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                loadTopDishes();
             }
 
-            // Build restaurant info mapping
-            DataSnapshot restaurantsSnapshot = snapshot.child("Restaurants");
-            for (DataSnapshot restaurantSnap : restaurantsSnapshot.getChildren()) {
-                String restaurantId = restaurantSnap.getKey();
-                String name = restaurantSnap.child("name").getValue(String.class);
-                Float rating = restaurantSnap.child("rating").getValue(Float.class);
-
-                if (name != null) restaurantNames.put(restaurantId, name);
-                if (name != null && rating != null) restaurantRatings.put(name, rating);
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+                // Not needed
             }
+        });
+    }
 
-            // Process orders
-            DataSnapshot ordersSnapshot = snapshot.child("orders");
-            int totalOrdersProcessed = 0;
-
-            if (ordersSnapshot.exists()) {
-                for (DataSnapshot userSnapshot : ordersSnapshot.getChildren()) {
-                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
-                        try {
-                            totalOrdersProcessed++;
-                            processOrder(orderSnapshot, ordersByDate, revenueByDate, ordersByStatus,
-                                    ordersByPayment, dishOrderCount);
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error processing order: " + e.getMessage());
-                        }
-                    }
-                }
-            }
+    private void loadOrderStatistics(int rangeDays) {
+        startDayKey = null;
+        if (rangeDays > 0) {
+            long today = DayKeys.epochDayOfMillis(System.currentTimeMillis(), TimeZone.getDefault());
+            startDayKey = DayKeys.dayKey(today - (rangeDays - 1));
+        }
 
-            Log.d(TAG, "Total orders processed: " + totalOrdersProcessed);
-
-            // Process user preferences
-            DataSnapshot prefsSnapshot = snapshot.child("UserPreferences");
-            if (prefsSnapshot.exists()) {
-                for (DataSnapshot pref : prefsSnapshot.getChildren()) {
-                    try {
-                        String cuisine = pref.child("cuisine").getValue(String.class);
-                        if (cuisine != null) {
-                            cuisinePrefs.put(cuisine, cuisinePrefs.getOrDefault(cuisine, 0) + 1);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error processing preference: " + e.getMessage());
-                    }
+        rollupManager.loadDailyRollups(startDayKey, null, new StatsRollupManager.RollupCallback() {
+            @Override
+            public void onRollupsLoaded(Map<String, StatsRollupManager.DailyRollup> rollupsByDay) {
+                try {
+                    processRollups(rollupsByDay);
+                } catch (Exception e) {
+                    Log.e(TAG, "Error processing statistics: " + e.getMessage(), e);
+                    Toast.makeText(AdminStatisticsActivity.this,
+                            "Error processing data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                 }
             }
 
-            // Setup all charts
-            setupOrdersChart(sortIntegerMapByDate(ordersByDate));
-            setupRevenueChart(sortDoubleMapByDate(revenueByDate));
-            setupPaymentChart(ordersByPayment);
-            setupTopDishesChart(getTopEntries(dishOrderCount, 10));
-            setupUserPrefsChart(cuisinePrefs);
-            setupReviewRatingsChart(getTopEntries(restaurantRatings, 8));
-            setupOrderStatusChart(ordersByStatus);
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "Database error: " + message);
+                Toast.makeText(AdminStatisticsActivity.this,
+                        "Failed to load statistics: " + message, Toast.LENGTH_SHORT).show();
+            }
+        });
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error in data processing: " + e.getMessage(), e);
-            throw e;
-        }
+        loadTopDishes();
     }
 
-    private void processOrder(DataSnapshot orderSnapshot, Map<String, Integer> ordersByDate,
-                              Map<String, Double> revenueByDate, Map<String, Integer> ordersByStatus,
-                              Map<String, Integer> ordersByPayment, Map<String, Integer> dishOrderCount) {
-
-        String orderDate = orderSnapshot.child("orderDate").getValue(String.class);
-        String status = orderSnapshot.child("status").getValue(String.class);
-        String paymentMethod = orderSnapshot.child("paymentMethod").getValue(String.class);
-
-        // Process total amount
-        Object amountObj = orderSnapshot.child("totalAmount").getValue();
-        double totalAmount = 0.0;
-        if (amountObj instanceof Long) {
-            totalAmount = ((Long) amountObj).doubleValue();
-        } else if (amountObj instanceof Double) {
-            totalAmount = (Double) amountObj;
-        } else if (amountObj instanceof Integer) {
-            totalAmount = ((Integer) amountObj).doubleValue();
-        }
+    // Top dishes come from the fixed-size popularity sketches, already in rank order
+    private void loadTopDishes() {
+        DishPopularityTracker.TopDishesCallback callback = new DishPopularityTracker.TopDishesCallback() {
+            @Override
+            public void onTopDishesLoaded(Map<String, Integer> topDishes) {
+                setupTopDishesChart(topDishes);
+            }
 
-        // Process date
-        if (orderDate != null) {
-            String dateKey = orderDate.split(" ")[0];
-            ordersByDate.put(dateKey, ordersByDate.getOrDefault(dateKey, 0) + 1);
-            revenueByDate.put(dateKey, revenueByDate.getOrDefault(dateKey, 0.0) + totalAmount);
-        }
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "Failed to load top dishes: " + message);
+            }
+        };
 
-        // Process status
-        if (status != null) {
-            ordersByStatus.put(status, ordersByStatus.getOrDefault(status, 0) + 1);
+        int position = spinnerDishRestaurant.getSelectedItemPosition();
+        if (position > 0 && position < dishRestaurantIds.size()) {
+            popularityTracker.loadTopDishesForRestaurant(dishRestaurantIds.get(position), 10, callback);
+        } else {
+            popularityTracker.loadTopDishes(startDayKey, 10, callback);
         }
+    }
 
-        // Process payment method
-        if (paymentMethod != null) {
-            ordersByPayment.put(paymentMethod, ordersByPayment.getOrDefault(paymentMethod, 0) + 1);
-        }
+    private void processRollups(Map<String, StatsRollupManager.DailyRollup> rollupsByDay) {
+        Log.d(TAG, "Processing " + rollupsByDay.size() + " daily rollups...");
 
-        // Process order items
-        DataSnapshot itemsSnapshot = orderSnapshot.child("items");
+        // Each bucket key is parsed once; after that days are array slots, already in date order
+        OrderStats stats = new OrderStats();
+        for (Map.Entry<String, StatsRollupManager.DailyRollup> entry : rollupsByDay.entrySet()) {
+            long epochDay = DayKeys.epochDayOfKey(entry.getKey());
+            if (epochDay == DayKeys.NO_DAY) continue;
+            entry.getValue().addTo(stats, epochDay);
+        }
 
-        if (itemsSnapshot.exists()) {
-            for (DataSnapshot itemSnapshot : itemsSnapshot.getChildren()) {
-                try {
-                    String dishName = itemSnapshot.child("name").getValue(String.class);
-                    Integer quantity = itemSnapshot.child("quantity").getValue(Integer.class);
-                    if (quantity == null) quantity = 1;
+        setupOrdersChart(stats.daily());
+        setupRevenueChart(stats.daily());
+        setupPaymentChart(stats.paymentCounts());
+        setupOrderStatusChart(stats.statusCounts());
+    }
 
-                    // Track dish popularity
-                    if (dishName != null) {
-                        dishOrderCount.put(dishName, dishOrderCount.getOrDefault(dishName, 0) + quantity);
+    private void loadRestaurantRatings() {
+        RestaurantRepository.getInstance().getRestaurants(RestaurantRepository.SNAPSHOT_PARSER,
+                new PathCache.Callback<DataSnapshot>() {
+            @Override
+            public void onLoaded(DataSnapshot snapshot) {
+                Map<String, Float> restaurantRatings = new HashMap<>();
+                List<String> restaurantNames = new ArrayList<>();
+                dishRestaurantIds.clear();
+                dishRestaurantIds.add(null);
+
+                for (DataSnapshot restaurantSnap : snapshot.getChildren()) {
+                    String name = restaurantSnap.child("name").getValue(String.class);
+                    Float rating = restaurantSnap.child("rating").getValue(Float.class);
+
+                    if (name != null && rating != null) restaurantRatings.put(name, rating);
+                    if (name != null) {
+                        dishRestaurantIds.add(restaurantSnap.getKey());
+                        restaurantNames.add(name);
                     }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error processing item: " + e.getMessage());
                 }
-            }
-        }
-    }
 
-    // Helper methods for sorting and filtering
-    private Map<String, Integer> sortIntegerMapByDate(Map<String, Integer> map) {
-        List<Map.Entry<String, Integer>> entries = new ArrayList<>(map.entrySet());
-        Collections.sort(entries, (o1, o2) -> {
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy", Locale.getDefault());
-                Date date1 = sdf.parse(o1.getKey());
-                Date date2 = sdf.parse(o2.getKey());
-                return date1.compareTo(date2);
-            } catch (Exception e) {
-                return o1.getKey().compareTo(o2.getKey());
+                setupReviewRatingsChart(Rankings.top(restaurantRatings, 8));
+                setupDishRestaurantSpinner(restaurantNames);
             }
-        });
 
-        Map<String, Integer> sortedMap = new LinkedHashMap<>();
-        for (Map.Entry<String, Integer> entry : entries) {
-            sortedMap.put(entry.getKey(), entry.getValue());
-        }
-        return sortedMap;
-    }
-
-    private Map<String, Double> sortDoubleMapByDate(Map<String, Double> map) {
-        List<Map.Entry<String, Double>> entries = new ArrayList<>(map.entrySet());
-        Collections.sort(entries, (o1, o2) -> {
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy", Locale.getDefault());
-                Date date1 = sdf.parse(o1.getKey());
-                Date date2 = sdf.parse(o2.getKey());
-                return date1.compareTo(date2);
-            } catch (Exception e) {
-                return o1.getKey().compareTo(o2.getKey());
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "Failed to load restaurant ratings: " + message);
             }
         });
-
-        Map<String, Double> sortedMap = new LinkedHashMap<>();
-        for (Map.Entry<String, Double> entry : entries) {
-            sortedMap.put(entry.getKey(), entry.getValue());
-        }
-        return sortedMap;
     }
 
-    private <T extends Number> Map<String, T> getTopEntries(Map<String, T> map, int limit) {
-        List<Map.Entry<String, T>> entries = new ArrayList<>(map.entrySet());
-        entries.sort((o1, o2) -> Double.compare(o2.getValue().doubleValue(), o1.getValue().doubleValue()));
+    private void loadUserPreferences() {
+        // Sharded per-cuisine counters, rather than every user's preferences
+        new PreferenceCounters().loadCounts(PreferenceCounters.CUISINE, new PreferenceCounters.CountsCallback() {
+            @Override
+            public void onCountsLoaded(Map<String, Integer> cuisinePrefs) {
+                setupUserPrefsChart(cuisinePrefs);
+            }
 
-        Map<String, T> topEntries = new LinkedHashMap<>();
-        for (int i = 0; i < Math.min(limit, entries.size()); i++) {
-            topEntries.put(entries.get(i).getKey(), entries.get(i).getValue());
-        }
-        return topEntries;
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "Failed to load user preferences: " + message);
+            }
+        });
     }
 
     // Chart setup methods
-    private void setupOrdersChart(Map<String, Integer> ordersByDate) {
+    private void setupOrdersChart(DailySeries ordersByDay) {
         try {
-            if (ordersByDate.isEmpty()) {
+            if (ordersByDay.isEmpty()) {
+                ordersLineChart.clear();
                 ordersLineChart.setNoDataText("No order data available");
                 ordersLineChart.invalidate();
                 return;
@@ -322,13 +281,10 @@ public class AdminStatisticsActivity extends AppCompatActivity {
 
             List<Entry> entries = new ArrayList<>();
             List<String> labels = new ArrayList<>();
-            int index = 0;
-
-            for (Map.Entry<String, Integer> entry : ordersByDate.entrySet()) {
-                entries.add(new Entry(index, entry.getValue()));
-                labels.add(entry.getKey());
-                index++;
-            }
+            ordersByDay.forEachDay((epochDay, orderCount, revenue) -> {
+                entries.add(new Entry(entries.size(), orderCount));
+                labels.add(DayKeys.dayLabel(epochDay));
+            });
 
             LineDataSet dataSet = new LineDataSet(entries, "Orders");
             dataSet.setColor(Color.parseColor("#673AB7"));
@@ -363,9 +319,10 @@ public class AdminStatisticsActivity extends AppCompatActivity {
         }
     }
 
-    private void setupRevenueChart(Map<String, Double> revenueByDate) {
+    private void setupRevenueChart(DailySeries revenueByDay) {
         try {
-            if (revenueByDate.isEmpty()) {
+            if (revenueByDay.isEmpty()) {
+                revenueLineChart.clear();
                 revenueLineChart.setNoDataText("No revenue data available");
                 revenueLineChart.invalidate();
                 return;
@@ -373,13 +330,10 @@ public class AdminStatisticsActivity extends AppCompatActivity {
 
             List<Entry> entries = new ArrayList<>();
             List<String> labels = new ArrayList<>();
-            int index = 0;
-
-            for (Map.Entry<String, Double> entry : revenueByDate.entrySet()) {
-                entries.add(new Entry(index, entry.getValue().floatValue()));
-                labels.add(entry.getKey());
-                index++;
-            }
+            revenueByDay.forEachDay((epochDay, orderCount, revenue) -> {
+                entries.add(new Entry(entries.size(), (float) revenue));
+                labels.add(DayKeys.dayLabel(epochDay));
+            });
 
             LineDataSet dataSet = new LineDataSet(entries, "Revenue");
             dataSet.setColor(Color.parseColor("#4CAF50"));
@@ -414,16 +368,17 @@ public class AdminStatisticsActivity extends AppCompatActivity {
         }
     }
 
-    private void setupPaymentChart(Map<String, Integer> ordersByPayment) {
+    private void setupPaymentChart(Map<String, Long> ordersByPayment) {
         try {
             if (ordersByPayment.isEmpty()) {
+                paymentPieChart.clear();
                 paymentPieChart.setNoDataText("No payment data available");
                 paymentPieChart.invalidate();
                 return;
             }
 
             List<PieEntry> entries = new ArrayList<>();
-            for (Map.Entry<String, Integer> entry : ordersByPayment.entrySet()) {
+            for (Map.Entry<String, Long> entry : ordersByPayment.entrySet()) {
                 entries.add(new PieEntry(entry.getValue(), entry.getKey()));
             }
 
@@ -468,6 +423,7 @@ public class AdminStatisticsActivity extends AppCompatActivity {
     private void setupTopDishesChart(Map<String, Integer> dishOrderCount) {
         try {
             if (dishOrderCount.isEmpty()) {
+                topDishesBarChart.clear();
                 topDishesBarChart.setNoDataText("No dish order data available");
                 topDishesBarChart.invalidate();
                 return;
@@ -610,16 +566,17 @@ public class AdminStatisticsActivity extends AppCompatActivity {
         }
     }
 
-    private void setupOrderStatusChart(Map<String, Integer> ordersByStatus) {
+    private void setupOrderStatusChart(Map<String, Long> ordersByStatus) {
         try {
             if (ordersByStatus.isEmpty()) {
+                orderStatusPieChart.clear();
                 orderStatusPieChart.setNoDataText("No order status data available");
                 orderStatusPieChart.invalidate();
                 return;
             }
 
             List<PieEntry> entries = new ArrayList<>();
-            for (Map.Entry<String, Integer> entry : ordersByStatus.entrySet()) {
+            for (Map.Entry<String, Long> entry : ordersByStatus.entrySet()) {
                 entries.add(new PieEntry(entry.getValue(), entry.getKey()));
             }
 
@@ -7,26 +7,31 @@ import android.view.View;
 import android.widget.ImageView;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-
-import java.util.ArrayList;
-
 public class AllRestaurantsActivity extends AppCompatActivity {
 
     private RecyclerView recyclerView;
     private RestaurantGridAdapter adapter;
-    private ArrayList<Restaurant> restaurantList = new ArrayList<>();
     private String selectedLocation;
     private ImageView ivBack;
+    private RestaurantCatalog catalog;
+    private final RestaurantCatalog.ChangeListener catalogListener = new RestaurantCatalog.ChangeListener() {
+        @Override
+        public void onCatalogChanged() {
+            loadRestaurants();
+        }
+
+        @Override
+        public void onCatalogError(String message) {
+            // Only matters while there is no stored catalog to show
+            if (!catalog.isReady()) {
+                Toast.makeText(AllRestaurantsActivity.this, "Failed to load restaurants", Toast.LENGTH_SHORT).show();
+            }
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,48 +50,38 @@ public class AllRestaurantsActivity extends AppCompatActivity {
         GridLayoutManager layoutManager = new GridLayoutManager(this, 2);
         recyclerView.setLayoutManager(layoutManager);
 
-        adapter = new RestaurantGridAdapter(restaurantList, restaurant -> {
+        adapter = new RestaurantGridAdapter(restaurant -> {
             Intent intent = new Intent(AllRestaurantsActivity.this, RestaurantDishesActivity.class);
             intent.putExtra("restaurantId", restaurant.getId());
             intent.putExtra("restaurantName", restaurant.getName());
             startActivity(intent);
         });
         recyclerView.setAdapter(adapter);
+        ImageLoader.preload(recyclerView, adapter);
 
+        catalog = RestaurantCatalog.getInstance(this);
+        catalog.addChangeListener(catalogListener);
         loadRestaurants();
     }
 
     private void loadRestaurants() {
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("Restaurants");
-
-        ref.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                restaurantList.clear();
-
-                for (DataSnapshot item : snapshot.getChildren()) {
-                    Restaurant restaurant = item.getValue(Restaurant.class);
-
-                    if (restaurant != null && restaurant.getLocation().equals(selectedLocation)) {
-                        restaurantList.add(restaurant);
-                    }
-                }
+        RestaurantCatalog.RestaurantQuery query = new RestaurantCatalog.RestaurantQuery()
+                .location(selectedLocation);
 
-                adapter.notifyDataSetChanged();
+        catalog.query(query, restaurants -> {
+            adapter.submitList(restaurants);
 
-                if (restaurantList.isEmpty()) {
-                    Toast.makeText(AllRestaurantsActivity.this,
-                            "No restaurants found in " + selectedLocation,
-                            Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            if (restaurants.isEmpty() && catalog.isReady()) {
                 Toast.makeText(AllRestaurantsActivity.this,
-                        "Failed to load restaurants",
+                        "No restaurants found in " + selectedLocation,
                         Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        catalog.removeChangeListener(catalogListener);
+    }
 }
\ No newline at end of file
@@ -8,17 +8,14 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
+public class BestRestaurantsAdapter extends ListAdapter<Restaurant, BestRestaurantsAdapter.ViewHolder>
+        implements ImageLoader.PreloadAdapter {
 
-import java.util.ArrayList;
+    private static final ImageLoader.Thumbnail THUMBNAIL = ImageLoader.thumbnail().rounded(30);
 
-public class BestRestaurantsAdapter extends RecyclerView.Adapter<BestRestaurantsAdapter.ViewHolder> {
-
-    private ArrayList<Restaurant> items;
     private Context context;
     private OnRestaurantClickListener listener;
 
@@ -26,9 +23,11 @@ public class BestRestaurantsAdapter extends RecyclerView.Adapter<BestRestaurants
         void onRestaurantClick(Restaurant restaurant);
     }
 
-    public BestRestaurantsAdapter(ArrayList<Restaurant> items, OnRestaurantClickListener listener) {
-        this.items = items;
+    // Lists are diffed on a background thread; submit a new list to update
+    public BestRestaurantsAdapter(OnRestaurantClickListener listener) {
+        super(new RestaurantDiffCallback());
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -41,16 +40,13 @@ public class BestRestaurantsAdapter extends RecyclerView.Adapter<BestRestaurants
 
     @Override
     public void onBindViewHolder(@NonNull BestRestaurantsAdapter.ViewHolder holder, int position) {
-        Restaurant restaurant = items.get(position);
+        Restaurant restaurant = getItem(position);
 
         holder.titleTxt.setText(restaurant.getName());
         holder.cuisineTxt.setText(restaurant.getCuisine());
         holder.starTxt.setText(String.valueOf(restaurant.getRating()));
 
-        Glide.with(context)
-                .load(restaurant.getImagePath())
-                .transform(new CenterCrop(), new RoundedCorners(30))
-                .into(holder.pic);
+        THUMBNAIL.into(holder.pic, restaurant.getImagePath());
 
         holder.itemView.setOnClickListener(v -> {
             if (listener != null) {
@@ -60,8 +56,23 @@ public class BestRestaurantsAdapter extends RecyclerView.Adapter<BestRestaurants
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    public String getImageUrl(int position) {
+        return getItem(position).getImagePath();
+    }
+
+    @Override
+    public ImageLoader.Thumbnail getThumbnail() {
+        return THUMBNAIL;
+    }
+
+    @Override
+    public int getImageViewId() {
+        return R.id.pic;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
@@ -11,7 +11,6 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.*;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,7 +22,7 @@ public class CartActivity extends AppCompatActivity {
     private List<CartItem> cartList = new ArrayList<>();
     private TextView txtTotal;
     private Button btnGoBack, btnProceedToPayment;
-    private DatabaseReference cartRef;
+    private CartStore cartStore;
     private double totalAmount = 0;
 
     @Override
@@ -39,13 +38,26 @@ public class CartActivity extends AppCompatActivity {
         btnGoBack.setOnClickListener(v -> finish());
 
         cartRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        cartAdapter = new CartAdapter(cartList);
+        cartAdapter = new CartAdapter(new CartAdapter.OnCartActionListener() {
+            @Override
+            public void onIncrease(CartItem item) {
+                cartStore.increaseQuantity(item.getId());
+            }
+
+            @Override
+            public void onDecrease(CartItem item) {
+                cartStore.decreaseQuantity(item.getId());
+            }
+
+            @Override
+            public void onRemove(CartItem item) {
+                cartStore.remove(item.getId());
+            }
+        });
         cartRecyclerView.setAdapter(cartAdapter);
 
         String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        cartRef = FirebaseDatabase.getInstance().getReference("users")
-                .child(userId)
-                .child("cart");
+        cartStore = new CartStore(userId, createCartListener());
 
         btnProceedToPayment.setOnClickListener(v -> {
             if (cartList.isEmpty()) {
@@ -54,24 +66,22 @@ public class CartActivity extends AppCompatActivity {
                 proceedToPayment();
             }
         });
+    }
 
-        loadCart();
+    // Listen only while visible; stop() writes pending changes and start() reloads the cart
+    @Override
+    protected void onStart() {
+        super.onStart();
+        cartStore.start();
     }
 
-    private void loadCart() {
-        cartRef.addValueEventListener(new ValueEventListener() {
+    private CartStore.Listener createCartListener() {
+        return new CartStore.Listener() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                cartList.clear();
-                totalAmount = 0; // Reset total
-                for (DataSnapshot ds : snapshot.getChildren()) {
-                    CartItem item = ds.getValue(CartItem.class);
-                    if (item != null) {
-                        cartList.add(item);
-                        totalAmount += item.getPrice() * item.getQuantity();
-                    }
-                }
-                cartAdapter.notifyDataSetChanged();
+            public void onCartChanged(List<CartItem> items, double total) {
+                cartList = items;
+                totalAmount = total;
+                cartAdapter.submitList(items);
                 txtTotal.setText("Total: ₹" + (int) totalAmount);
 
                 // Enable/disable payment button based on cart items
@@ -79,14 +89,29 @@ public class CartActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(DatabaseError error) {
+            public void onCartError(String message) {
                 Toast.makeText(CartActivity.this,
-                        "Failed to load cart", Toast.LENGTH_SHORT).show();
+                        "Failed to update cart", Toast.LENGTH_SHORT).show();
             }
-        });
+        };
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Don't leave quantity changes waiting in memory while we're in the background
+        cartStore.flush();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        cartStore.stop();
     }
 
     private void proceedToPayment() {
+        // Payment reads the cart from the database, so it must see the latest quantities
+        cartStore.flush();
         Intent intent = new Intent(CartActivity.this, PaymentActivity.class);
         intent.putExtra("TOTAL_AMOUNT", totalAmount);
         intent.putExtra("CART_ITEMS_COUNT", cartList.size());
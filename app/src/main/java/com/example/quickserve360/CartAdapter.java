@@ -8,21 +8,44 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
+import java.util.Objects;
 
-import java.util.List;
+public class CartAdapter extends ListAdapter<CartItem, CartAdapter.CartViewHolder> {
 
-public class CartAdapter extends RecyclerView.Adapter<CartAdapter.CartViewHolder> {
+    private static final ImageLoader.Thumbnail THUMBNAIL =
+            ImageLoader.thumbnail().placeholder(R.drawable.ic_launcher_background);
 
-    private List<CartItem> cartList;
+    private static final DiffUtil.ItemCallback<CartItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<CartItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CartItem oldItem, @NonNull CartItem newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CartItem oldItem, @NonNull CartItem newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getImagePath(), newItem.getImagePath())
+                    && oldItem.getPrice() == newItem.getPrice()
+                    && oldItem.getQuantity() == newItem.getQuantity();
+        }
+    };
+
+    private final OnCartActionListener listener;
 
-    public CartAdapter(List<CartItem> cartList) {
-        this.cartList = cartList;
+    public interface OnCartActionListener {
+        void onIncrease(CartItem item);
+        void onDecrease(CartItem item);
+        void onRemove(CartItem item);
+    }
+
+    public CartAdapter(OnCartActionListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -35,54 +58,24 @@ public class CartAdapter extends RecyclerView.Adapter<CartAdapter.CartViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull CartViewHolder holder, int position) {
-        CartItem item = cartList.get(position);
+        CartItem item = getItem(position);
 
         holder.txtName.setText(item.getName());
         holder.txtPrice.setText("₹" + (int) item.getPrice());
         holder.txtQuantity.setText(String.valueOf(item.getQuantity()));
         holder.txtItemTotal.setText("Total: ₹" + (int) (item.getPrice() * item.getQuantity()));
 
-        Glide.with(holder.itemView.getContext())
-                .load(item.getImagePath())
-                .placeholder(R.drawable.ic_launcher_background)
-                .into(holder.imgDish);
-
-        String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        DatabaseReference itemRef = FirebaseDatabase.getInstance()
-                .getReference("users")
-                .child(userId)
-                .child("cart")
-                .child(item.getId());
-
-        // Increase quantity
-        holder.btnIncrease.setOnClickListener(v -> {
-            int qty = item.getQuantity() + 1;
-            item.setQuantity(qty);
-            holder.txtQuantity.setText(String.valueOf(qty));
-            holder.txtItemTotal.setText("Total: ₹" + (int) (item.getPrice() * qty));
-            itemRef.setValue(item);
-        });
-
-        // Decrease quantity
-        holder.btnDecrease.setOnClickListener(v -> {
-            int qty = item.getQuantity() - 1;
-            if (qty <= 0) {
-                itemRef.removeValue();   // remove item if qty goes to zero
-            } else {
-                item.setQuantity(qty);
-                holder.txtQuantity.setText(String.valueOf(qty));
-                holder.txtItemTotal.setText("Total: ₹" + (int) (item.getPrice() * qty));
-                itemRef.setValue(item);
-            }
-        });
-
-        // Remove item completely
-        holder.btnRemove.setOnClickListener(v -> itemRef.removeValue());
+        THUMBNAIL.into(holder.imgDish, item.getImagePath());
+
+        // The cart store applies changes locally and batches the database writes
+        holder.btnIncrease.setOnClickListener(v -> listener.onIncrease(item));
+        holder.btnDecrease.setOnClickListener(v -> listener.onDecrease(item));   // removes the item at zero
+        holder.btnRemove.setOnClickListener(v -> listener.onRemove(item));
     }
 
     @Override
-    public int getItemCount() {
-        return cartList.size();
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     static class CartViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,108 @@
+package com.example.quickserve360;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.Toast;
+
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adds dishes to a user's cart without reading it first.
+ *
+ * Taps are counted locally and, once they stop for BATCH_WINDOW_MS, written
+ * in one multi-path update: the quantity goes up by the number of taps with
+ * ServerValue.increment, so concurrent adds from fast tapping or a second
+ * device all count, and the dish's descriptive fields are written alongside.
+ * Those fields are the same on every add, so rewriting them is harmless, and
+ * a dish not yet in the cart is created complete by the same write.
+ *
+ * A failed write is reported with a toast on the application context, so no
+ * screen is kept alive waiting for the result. Main thread only.
+ */
+public class CartAdder {
+    private static final String TAG = "CartAdder";
+    private static final long BATCH_WINDOW_MS = 400;
+
+    private static CartAdder instance;
+
+    private final Context appContext;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    // Cart item path to the taps not yet written, in tap order
+    private final Map<String, PendingAdd> pending = new LinkedHashMap<>();
+
+    public static synchronized CartAdder getInstance(Context context) {
+        if (instance == null) {
+            instance = new CartAdder(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private CartAdder(Context appContext) {
+        this.appContext = appContext;
+    }
+
+    /**
+     * Counts one tap on a dish.
+     */
+    public void add(String userId, Dish dish, String restaurantId) {
+        String path = "users/" + userId + "/cart/" + dish.getId();
+        PendingAdd add = pending.get(path);
+        if (add == null) {
+            add = new PendingAdd(dish, restaurantId);
+            pending.put(path, add);
+        }
+        add.quantity++;
+
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, BATCH_WINDOW_MS);
+    }
+
+    /**
+     * Writes all pending adds now, e.g. before showing the cart.
+     */
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (pending.isEmpty()) return;
+
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, PendingAdd> entry : pending.entrySet()) {
+            String path = entry.getKey();
+            PendingAdd add = entry.getValue();
+            updates.put(path + "/id", add.dish.getId());
+            updates.put(path + "/name", add.dish.getName());
+            updates.put(path + "/price", add.dish.getPrice());
+            updates.put(path + "/imagePath", add.dish.getImagePath());
+            updates.put(path + "/description", add.dish.getDescription());
+            updates.put(path + "/restaurantId", add.restaurantId);
+            updates.put(path + "/quantity", ServerValue.increment(add.quantity));
+        }
+        int written = pending.size();
+        pending.clear();
+
+        FirebaseDatabase.getInstance().getReference().updateChildren(updates)
+                .addOnSuccessListener(aVoid -> Log.d(TAG, "✅ Added " + written + " dishes to cart"))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Failed to add to cart: " + e.getMessage());
+                    Toast.makeText(appContext, "Failed to add to cart", Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    private static class PendingAdd {
+        final Dish dish;
+        final String restaurantId;
+        int quantity = 0;
+
+        PendingAdd(Dish dish, String restaurantId) {
+            this.dish = dish;
+            this.restaurantId = restaurantId;
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class CartItem {
     private String imagePath;
     private String description;
     private int quantity;
+    private String restaurantId;
 
     // Default constructor for Firebase
     public CartItem() { }
@@ -27,6 +28,7 @@ public class CartItem {
     public String getImagePath() { return imagePath; }
     public String getDescription() { return description; }
     public int getQuantity() { return quantity; }
+    public String getRestaurantId() { return restaurantId; }
 
     // Setters
     public void setId(String id) { this.id = id; }
@@ -35,4 +37,5 @@ public class CartItem {
     public void setImagePath(String imagePath) { this.imagePath = imagePath; }
     public void setDescription(String description) { this.description = description; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
+    public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.example.quickserve360;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local model of a user's cart that applies quantity changes immediately.
+ *
+ * Taps update the local items and the running total at once; the database
+ * only sees the net change of each touched item, written in a single
+ * multi-path update once the taps stop for WRITE_DEBOUNCE_MS. Quantities are
+ * written as ServerValue.increment of the difference from the last quantity
+ * the database reported, the same way {@link CartAdder} writes, so adds made
+ * elsewhere in the meantime are kept. Remote changes arrive per item through
+ * a child listener, and are ignored for items with a local change still
+ * waiting to be written.
+ *
+ * All methods must be called on the main thread.
+ */
+public class CartStore {
+    private static final String TAG = "CartStore";
+    private static final long WRITE_DEBOUNCE_MS = 600;
+
+    private final DatabaseReference rootRef;
+    private final DatabaseReference cartRef;
+    private final String cartPath;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final Runnable notifyRunnable = this::dispatchChanged;
+
+    // Insertion order matches the order the child listener delivers items in
+    private final LinkedHashMap<String, CartItem> items = new LinkedHashMap<>();
+    // Item ID to the quantity still to be written; 0 removes the item
+    private final Map<String, Integer> pendingQuantities = new HashMap<>();
+    // Item ID to the last quantity read from or written to the database
+    private final Map<String, Integer> confirmedQuantities = new HashMap<>();
+    private final CartTotal total = new CartTotal();
+    private boolean started = false;
+    private boolean notifyPending = false;
+
+    private final ChildEventListener cartListener = new ChildEventListener() {
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+            applyRemote(snapshot);
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+            applyRemote(snapshot);
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            String itemId = snapshot.getKey();
+            confirmedQuantities.remove(itemId);
+            if (pendingQuantities.containsKey(itemId)) return;
+            if (removeLocal(itemId)) notifyChanged();
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            Log.e(TAG, "❌ Cart listener cancelled: " + error.getMessage());
+            listener.onCartError(error.getMessage());
+        }
+    };
+
+    public CartStore(String userId, Listener listener) {
+        this.rootRef = FirebaseDatabase.getInstance().getReference();
+        this.cartPath = "users/" + userId + "/cart";
+        this.cartRef = rootRef.child(cartPath);
+        this.listener = listener;
+    }
+
+    public void start() {
+        if (started) return;
+        started = true;
+        // The first callback arrives even when the cart is empty
+        notifyChanged();
+        cartRef.addChildEventListener(cartListener);
+        ListenerRegistry.getInstance().onAttached(cartPath);
+    }
+
+    /**
+     * Writes any pending changes, detaches from the database and forgets the
+     * cart, since remote changes made while stopped are never delivered. The
+     * next start() reloads it from the database.
+     */
+    public void stop() {
+        if (!started) return;
+        started = false;
+        flush();
+        cartRef.removeEventListener(cartListener);
+        ListenerRegistry.getInstance().onDetached(cartPath);
+        handler.removeCallbacks(notifyRunnable);
+        notifyPending = false;
+
+        items.clear();
+        confirmedQuantities.clear();
+        total.clear();
+    }
+
+    public void increaseQuantity(String itemId) {
+        CartItem item = items.get(itemId);
+        if (item != null) setQuantity(itemId, item.getQuantity() + 1);
+    }
+
+    public void decreaseQuantity(String itemId) {
+        CartItem item = items.get(itemId);
+        if (item != null) setQuantity(itemId, item.getQuantity() - 1);
+    }
+
+    public void remove(String itemId) {
+        setQuantity(itemId, 0);
+    }
+
+    /**
+     * Sets an item's quantity locally; a quantity of zero or less removes it.
+     */
+    public void setQuantity(String itemId, int quantity) {
+        CartItem item = items.get(itemId);
+        if (item == null) return;
+
+        int newQuantity = Math.max(quantity, 0);
+        if (newQuantity == 0) {
+            removeLocal(itemId);
+        } else {
+            // A new object, so list diffing sees the change
+            items.put(itemId, withQuantity(item, newQuantity));
+            total.changeQuantity(item, newQuantity);
+        }
+        pendingQuantities.put(itemId, newQuantity);
+        notifyChanged();
+
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, WRITE_DEBOUNCE_MS);
+    }
+
+    /**
+     * Writes every pending quantity change in one multi-path update.
+     */
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (pendingQuantities.isEmpty()) return;
+
+        Map<String, Object> updates = new HashMap<>();
+        int changed = 0;
+        for (Map.Entry<String, Integer> entry : pendingQuantities.entrySet()) {
+            String itemId = entry.getKey();
+            String path = cartPath + "/" + itemId;
+            int quantity = entry.getValue();
+            if (quantity == 0) {
+                updates.put(path, null);
+                confirmedQuantities.remove(itemId);
+                changed++;
+                continue;
+            }
+
+            Integer confirmed = confirmedQuantities.get(itemId);
+            int delta = quantity - (confirmed != null ? confirmed : 0);
+            if (delta == 0) continue;
+            // Descriptive fields too, so a concurrent remote delete can't leave a partial entry behind
+            CartItem item = items.get(itemId);
+            updates.put(path + "/id", item.getId());
+            updates.put(path + "/name", item.getName());
+            updates.put(path + "/price", item.getPrice());
+            updates.put(path + "/imagePath", item.getImagePath());
+            updates.put(path + "/description", item.getDescription());
+            updates.put(path + "/restaurantId", item.getRestaurantId());
+            updates.put(path + "/quantity", ServerValue.increment(delta));
+            confirmedQuantities.put(itemId, quantity);
+            changed++;
+        }
+        pendingQuantities.clear();
+        if (changed == 0) return;
+        final int written = changed;
+
+        rootRef.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> Log.d(TAG, "✅ Wrote " + written + " cart changes"))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Failed to write cart changes: " + e.getMessage());
+                    listener.onCartError(e.getMessage());
+                });
+    }
+
+    public List<CartItem> getItems() {
+        return new ArrayList<>(items.values());
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    public double getTotal() {
+        return total.get();
+    }
+
+    private void applyRemote(DataSnapshot snapshot) {
+        String itemId = snapshot.getKey();
+        if (pendingQuantities.containsKey(itemId)) return;
+
+        CartItem remote = snapshot.getValue(CartItem.class);
+        if (remote == null) return;
+        if (remote.getId() == null) remote.setId(itemId);
+        if (remote.getQuantity() <= 0) {
+            // A decrement that landed after the item was removed elsewhere
+            cartRef.child(itemId).removeValue();
+            if (removeLocal(itemId)) notifyChanged();
+            return;
+        }
+        confirmedQuantities.put(itemId, remote.getQuantity());
+
+        CartItem previous = items.put(itemId, remote);
+        if (previous != null) {
+            total.remove(previous);
+        }
+        total.add(remote);
+        notifyChanged();
+    }
+
+    private boolean removeLocal(String itemId) {
+        CartItem removed = items.remove(itemId);
+        if (removed == null) return false;
+        total.remove(removed);
+        if (items.isEmpty()) total.clear();
+        return true;
+    }
+
+    // Coalesces a burst of child events, such as the initial load, into one callback
+    private void notifyChanged() {
+        if (notifyPending) return;
+        notifyPending = true;
+        handler.post(notifyRunnable);
+    }
+
+    private void dispatchChanged() {
+        notifyPending = false;
+        listener.onCartChanged(getItems(), total.get());
+    }
+
+    private static CartItem withQuantity(CartItem item, int quantity) {
+        CartItem copy = new CartItem(item.getId(), item.getName(), item.getPrice(),
+                item.getImagePath(), item.getDescription(), quantity);
+        copy.setRestaurantId(item.getRestaurantId());
+        return copy;
+    }
+
+    public interface Listener {
+        void onCartChanged(List<CartItem> items, double total);
+        void onCartError(String message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.quickserve360;
+
+/**
+ * Running total of a cart, moved by each item change instead of being summed
+ * again over every item. Plain Java, so the benchmarks measure this class.
+ */
+public class CartTotal {
+    private double total = 0;
+
+    public double get() {
+        return total;
+    }
+
+    public void add(CartItem item) {
+        total += item.getPrice() * item.getQuantity();
+    }
+
+    public void remove(CartItem item) {
+        total -= item.getPrice() * item.getQuantity();
+    }
+
+    /**
+     * Moves the total for item going from its current quantity to newQuantity.
+     * Does not change the item.
+     */
+    public void changeQuantity(CartItem item, int newQuantity) {
+        total += item.getPrice() * (newQuantity - item.getQuantity());
+    }
+
+    // Also call when the cart empties, so rounding errors don't pile up
+    public void clear() {
+        total = 0;
+    }
+}
@@ -8,17 +8,29 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
+import java.util.Objects;
 
-import java.util.ArrayList;
+public class CategoryAdapter extends ListAdapter<Category, CategoryAdapter.ViewHolder> {
 
-public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHolder> {
+    private static final ImageLoader.Thumbnail THUMBNAIL = ImageLoader.thumbnail().rounded(30);
+
+    private static final DiffUtil.ItemCallback<Category> DIFF_CALLBACK = new DiffUtil.ItemCallback<Category>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Category oldItem, @NonNull Category newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Category oldItem, @NonNull Category newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getImagePath(), newItem.getImagePath());
+        }
+    };
 
-    private ArrayList<Category> items;
     private Context context;
     private OnCategoryClickListener listener;
 
@@ -26,9 +38,10 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
         void onCategoryClick(Category category);
     }
 
-    public CategoryAdapter(ArrayList<Category> items, OnCategoryClickListener listener) {
-        this.items = items;
+    public CategoryAdapter(OnCategoryClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -41,14 +54,11 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
 
     @Override
     public void onBindViewHolder(@NonNull CategoryAdapter.ViewHolder holder, int position) {
-        Category category = items.get(position);
+        Category category = getItem(position);
 
         holder.titleTxt.setText(category.getName());
 
-        Glide.with(context)
-                .load(category.getImagePath())
-                .transform(new CenterCrop(), new RoundedCorners(30))
-                .into(holder.pic);
+        THUMBNAIL.into(holder.pic, category.getImagePath());
 
         holder.itemView.setOnClickListener(v -> {
             if (listener != null) {
@@ -58,8 +68,8 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {
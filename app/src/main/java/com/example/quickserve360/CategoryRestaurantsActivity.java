@@ -7,28 +7,33 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-
-import java.util.ArrayList;
-
 public class CategoryRestaurantsActivity extends AppCompatActivity {
 
     private RecyclerView recyclerView;
     private RestaurantGridAdapter adapter;
-    private ArrayList<Restaurant> restaurantList = new ArrayList<>();
     private String categoryName;
     private String selectedLocation;
     private ImageView ivBack;
     private TextView tvTitle;
+    private RestaurantCatalog catalog;
+    private final RestaurantCatalog.ChangeListener catalogListener = new RestaurantCatalog.ChangeListener() {
+        @Override
+        public void onCatalogChanged() {
+            loadRestaurantsByCategory();
+        }
+
+        @Override
+        public void onCatalogError(String message) {
+            // Only matters while there is no stored catalog to show
+            if (!catalog.isReady()) {
+                Toast.makeText(CategoryRestaurantsActivity.this, "Failed to load restaurants", Toast.LENGTH_SHORT).show();
+            }
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,50 +56,39 @@ public class CategoryRestaurantsActivity extends AppCompatActivity {
         GridLayoutManager layoutManager = new GridLayoutManager(this, 2);
         recyclerView.setLayoutManager(layoutManager);
 
-        adapter = new RestaurantGridAdapter(restaurantList, restaurant -> {
+        adapter = new RestaurantGridAdapter(restaurant -> {
             Intent intent = new Intent(CategoryRestaurantsActivity.this, RestaurantDishesActivity.class);
             intent.putExtra("restaurantId", restaurant.getId());
             intent.putExtra("restaurantName", restaurant.getName());
             startActivity(intent);
         });
         recyclerView.setAdapter(adapter);
+        ImageLoader.preload(recyclerView, adapter);
 
+        catalog = RestaurantCatalog.getInstance(this);
+        catalog.addChangeListener(catalogListener);
         loadRestaurantsByCategory();
     }
 
     private void loadRestaurantsByCategory() {
-        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("Restaurants");
-
-        ref.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                restaurantList.clear();
-
-                for (DataSnapshot item : snapshot.getChildren()) {
-                    Restaurant restaurant = item.getValue(Restaurant.class);
-
-                    if (restaurant != null &&
-                            restaurant.getCategory().equals(categoryName) &&
-                            restaurant.getLocation().equals(selectedLocation)) {
-                        restaurantList.add(restaurant);
-                    }
-                }
-
-                adapter.notifyDataSetChanged();
-
-                if (restaurantList.isEmpty()) {
-                    Toast.makeText(CategoryRestaurantsActivity.this,
-                            "No " + categoryName + " restaurants in " + selectedLocation,
-                            Toast.LENGTH_SHORT).show();
-                }
-            }
+        RestaurantCatalog.RestaurantQuery query = new RestaurantCatalog.RestaurantQuery()
+                .location(selectedLocation)
+                .category(categoryName);
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+        catalog.query(query, restaurants -> {
+            adapter.submitList(restaurants);
+
+            if (restaurants.isEmpty() && catalog.isReady()) {
                 Toast.makeText(CategoryRestaurantsActivity.this,
-                        "Failed to load restaurants",
+                        "No " + categoryName + " restaurants in " + selectedLocation,
                         Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        catalog.removeChangeListener(catalogListener);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Places an order in a single atomic multi-path update: the order itself,
+ * its OrderIndex entries, the daily statistics increments and the deletion
+ * of the user's cart either all land or none do.
+ *
+ * The order ID doubles as the idempotency key. It is fixed for the whole
+ * checkout, so a retry writes to the same order path; and because the order
+ * is only ever written together with everything else, finding it already
+ * stored proves the earlier attempt committed. Retries, and any checkout
+ * resumed with an order ID from a previous instance, check for it first so
+ * the statistics increments are never applied twice.
+ */
+public class CheckoutPipeline {
+    private static final String TAG = "CheckoutPipeline";
+
+    private final DatabaseReference rootRef;
+    private final String userId;
+    private final String orderId;
+    private final long timestamp;
+    private int attempts;
+
+    /**
+     * @param orderId the idempotency key; keep it across retries of the same checkout
+     * @param resumed true if orderId was restored from an earlier instance that
+     *                may already have committed, e.g. after process death
+     */
+    public CheckoutPipeline(String userId, String orderId, boolean resumed) {
+        this.rootRef = FirebaseDatabase.getInstance().getReference();
+        this.userId = userId;
+        this.orderId = orderId;
+        this.attempts = resumed ? 1 : 0;
+        // Taken from the ID so it is the same for every attempt, and the index key with it
+        long idTime = OrderIdGenerator.timestampOf(orderId);
+        this.timestamp = idTime > 0 ? idTime : System.currentTimeMillis();
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * When the order was placed; the same for every attempt of this checkout.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Commits the order. The first attempt of a new checkout writes straight
+     * away; later or resumed attempts first check whether an earlier one
+     * already went through.
+     */
+    public void commit(Order order, CheckoutCallback callback) {
+        order.setOrderId(orderId);
+        order.setUserId(userId);
+        order.setTimestamp(timestamp);
+
+        if (attempts++ == 0) {
+            write(order, callback);
+            return;
+        }
+
+        rootRef.child(orderPath()).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (snapshot.exists()) {
+                    Log.d(TAG, "✅ Order " + orderId + " was already placed; not writing it again");
+                    callback.onCheckoutComplete(orderId);
+                } else {
+                    write(order, callback);
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "❌ Failed to check order " + orderId + ": " + error.getMessage());
+                callback.onCheckoutFailed(error.getMessage());
+            }
+        });
+    }
+
+    private void write(Order order, CheckoutCallback callback) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(orderPath(), order);
+        OrderIndex.addOrderEntries(updates, order);
+        StatsRollupManager.addOrderIncrements(updates, order);
+        updates.put("users/" + userId + "/cart", null);
+
+        rootRef.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "✅ Placed order " + orderId + " (" + updates.size() + " paths)");
+                    OrderRepository.getInstance().invalidateOrders(userId);
+                    new DishPopularityTracker().recordOrder(order);
+                    callback.onCheckoutComplete(orderId);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Failed to place order " + orderId + ": " + e.getMessage());
+                    callback.onCheckoutFailed(e.getMessage());
+                });
+    }
+
+    private String orderPath() {
+        return "orders/" + userId + "/" + orderId;
+    }
+
+    public interface CheckoutCallback {
+        void onCheckoutComplete(String orderId);
+        void onCheckoutFailed(String message);
+    }
+}
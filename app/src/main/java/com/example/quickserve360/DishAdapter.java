@@ -10,22 +10,45 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.*;
 
-import java.util.ArrayList;
+import java.util.Objects;
 
-public class DishAdapter extends RecyclerView.Adapter<DishAdapter.DishViewHolder> {
+public class DishAdapter extends ListAdapter<Dish, DishAdapter.DishViewHolder>
+        implements ImageLoader.PreloadAdapter {
+
+    private static final ImageLoader.Thumbnail THUMBNAIL =
+            ImageLoader.thumbnail().placeholder(R.drawable.ic_launcher_background);
+
+    private static final DiffUtil.ItemCallback<Dish> DIFF_CALLBACK = new DiffUtil.ItemCallback<Dish>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Dish oldItem, @NonNull Dish newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Dish oldItem, @NonNull Dish newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getImagePath(), newItem.getImagePath())
+                    && oldItem.getPrice() == newItem.getPrice();
+        }
+    };
 
     private Context context;
-    private ArrayList<Dish> dishList;
+    private String restaurantId;
+    // Reused so fast taps replace the message instead of queueing one per tap
+    private Toast addedToast;
 
-    public DishAdapter(Context context, ArrayList<Dish> dishList) {
+    public DishAdapter(Context context, String restaurantId) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.dishList = dishList;
+        this.restaurantId = restaurantId;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -37,17 +60,13 @@ public class DishAdapter extends RecyclerView.Adapter<DishAdapter.DishViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull DishViewHolder holder, int position) {
-        Dish dish = dishList.get(position);
+        Dish dish = getItem(position);
 
         holder.txtDishName.setText(dish.getName());
         holder.txtDishDesc.setText(dish.getDescription());
         holder.txtDishPrice.setText("₹" + (int) dish.getPrice());
 
-        Glide.with(context)
-                .load(dish.getImagePath())
-                .placeholder(R.drawable.ic_launcher_background)
-                .error(R.drawable.ic_launcher_background)
-                .into(holder.imgDish);
+        THUMBNAIL.into(holder.imgDish, dish.getImagePath());
 
         holder.btnAddToCart.setOnClickListener(v -> {
             String userId = FirebaseAuth.getInstance().getCurrentUser() != null
@@ -59,50 +78,36 @@ public class DishAdapter extends RecyclerView.Adapter<DishAdapter.DishViewHolder
                 return;
             }
 
-            DatabaseReference cartRef = FirebaseDatabase.getInstance()
-                    .getReference("users")
-                    .child(userId)
-                    .child("cart")
-                    .child(dish.getId());
-
-            cartRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    int quantity = 1;
-                    if (snapshot.exists()) {
-                        CartItem existingItem = snapshot.getValue(CartItem.class);
-                        if (existingItem != null) {
-                            quantity = existingItem.getQuantity() + 1;
-                        }
-                    }
-
-                    CartItem cartItem = new CartItem(
-                            dish.getId(),
-                            dish.getName(),
-                            dish.getPrice(),
-                            dish.getImagePath(),
-                            dish.getDescription(),
-                            quantity
-                    );
-
-                    cartRef.setValue(cartItem)
-                            .addOnSuccessListener(aVoid ->
-                                    Toast.makeText(context, dish.getName() + " added to cart", Toast.LENGTH_SHORT).show())
-                            .addOnFailureListener(e ->
-                                    Toast.makeText(context, "Failed to add to cart", Toast.LENGTH_SHORT).show());
-                }
-
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    Toast.makeText(context, "Failed to access cart", Toast.LENGTH_SHORT).show();
-                }
-            });
+            // Shown at once; the write follows in the next batch
+            CartAdder.getInstance(context).add(userId, dish, restaurantId);
+            showAddedToast(dish.getName() + " added to cart");
         });
     }
 
+    private void showAddedToast(String message) {
+        if (addedToast != null) addedToast.cancel();
+        addedToast = Toast.makeText(context, message, Toast.LENGTH_SHORT);
+        addedToast.show();
+    }
+
+    @Override
+    public String getImageUrl(int position) {
+        return getItem(position).getImagePath();
+    }
+
+    @Override
+    public ImageLoader.Thumbnail getThumbnail() {
+        return THUMBNAIL;
+    }
+
+    @Override
+    public int getImageViewId() {
+        return R.id.imgDish;
+    }
+
     @Override
-    public int getItemCount() {
-        return dishList.size();
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     static class DishViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,377 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.quickserve360.analytics.DayKeys;
+import com.example.quickserve360.analytics.SpaceSavingSketch;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Keeps the most ordered dishes per day, ISO week and restaurant as
+ * {@link SpaceSavingSketch} snapshots under DishPopularity/, so top-dish
+ * queries read a few fixed-size nodes instead of counting every order item.
+ *
+ *   DishPopularity/daily/{yyyy-MM-dd}
+ *   DishPopularity/weekly/{yyyy-Www}
+ *   DishPopularity/restaurants/{restaurantId}
+ *   DishPopularity/allTime/{throughWeek, dishes}
+ *
+ * Each sketch holds at most CAPACITY dishes (keys escaped with encodeKey).
+ * Orders update only their day, week and restaurants, so no node is shared
+ * by every order. Longer ranges are merged from the weekly sketches when
+ * read. All time is a compacted merge of every finished week up to
+ * throughWeek, brought forward by the statistics screen when it reads it,
+ * plus the weeks since.
+ */
+public class DishPopularityTracker {
+    private static final String TAG = "DishPopularityTracker";
+    static final String NODE = "DishPopularity";
+    static final String DAILY = "daily";
+    static final String WEEKLY = "weekly";
+    static final String RESTAURANTS = "restaurants";
+    static final String ALL_TIME = "allTime";
+    private static final String THROUGH_WEEK = "throughWeek";
+    private static final String DISHES = "dishes";
+    // Well above the 10 dishes the charts show, so their counts are close to exact
+    static final int CAPACITY = 50;
+
+    private FirebaseDatabase database;
+
+    public DishPopularityTracker() {
+        this.database = FirebaseDatabase.getInstance();
+    }
+
+    /**
+     * Adds a newly placed order's dishes to every sketch it belongs to. Each
+     * sketch is updated in its own transaction, after the order is committed;
+     * a failed update is logged and repaired by rebuildFromOrders.
+     */
+    public void recordOrder(Order order) {
+        for (Map.Entry<String, Map<String, Long>> bucket : bucketQuantities(order).entrySet()) {
+            String path = NODE + "/" + bucket.getKey();
+            Map<String, Long> quantities = bucket.getValue();
+
+            database.getReference(path).runTransaction(new Transaction.Handler() {
+                @NonNull
+                @Override
+                public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                    SpaceSavingSketch sketch = SpaceSavingSketch.fromMap(currentData.getValue(), CAPACITY);
+                    for (Map.Entry<String, Long> dish : quantities.entrySet()) {
+                        sketch.offer(dish.getKey(), dish.getValue());
+                    }
+                    currentData.setValue(sketch.toMap());
+                    return Transaction.success(currentData);
+                }
+
+                @Override
+                public void onComplete(DatabaseError error, boolean committed, DataSnapshot snapshot) {
+                    if (error != null) {
+                        Log.e(TAG, "❌ Failed to update " + path + ": " + error.getMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads the most ordered dishes from startDayKey (yyyy-MM-dd) to today, or
+     * of all time when startDayKey is null. Whole weeks are read from the weekly
+     * sketches and only the days before the first Monday from the daily ones.
+     */
+    public void loadTopDishes(String startDayKey, int limit, TopDishesCallback callback) {
+        if (startDayKey == null) {
+            loadAllTime(limit, callback);
+            return;
+        }
+        Query weeks = database.getReference(NODE).child(WEEKLY).orderByKey();
+
+        long startDay = DayKeys.epochDayOfKey(startDayKey);
+        if (startDay == DayKeys.NO_DAY) {
+            callback.onError("Invalid start day: " + startDayKey);
+            return;
+        }
+        // Epoch day 0 was a Thursday, so Mondays are the days where (day + 3) % 7 == 0
+        long firstMonday = startDay + Math.floorMod(-(startDay + 3), 7);
+        weeks = weeks.startAt(DayKeys.weekKey(firstMonday));
+        if (firstMonday == startDay) {
+            loadMerged(new Query[]{weeks}, limit, callback);
+        } else {
+            Query days = database.getReference(NODE).child(DAILY).orderByKey()
+                    .startAt(startDayKey).endAt(DayKeys.dayKey(firstMonday - 1));
+            loadMerged(new Query[]{days, weeks}, limit, callback);
+        }
+    }
+
+    /**
+     * Loads the restaurant's most ordered dishes of all time.
+     */
+    public void loadTopDishesForRestaurant(String restaurantId, int limit, TopDishesCallback callback) {
+        database.getReference(NODE).child(RESTAURANTS).child(restaurantId)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        callback.onTopDishesLoaded(topDishes(SpaceSavingSketch.fromMap(snapshot.getValue(), CAPACITY), limit));
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.e(TAG, "Failed to load dish popularity: " + error.getMessage());
+                        callback.onError(error.getMessage());
+                    }
+                });
+    }
+
+    // Reads the compacted snapshot and the weeks after it. Finished weeks found there
+    // are folded into the snapshot, so the next read only sees the weeks since
+    private void loadAllTime(int limit, TopDishesCallback callback) {
+        DatabaseReference allTimeRef = database.getReference(NODE).child(ALL_TIME);
+        allTimeRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot allTime) {
+                String throughWeek = allTime.child(THROUGH_WEEK).getValue(String.class);
+                SpaceSavingSketch compacted = SpaceSavingSketch.fromMap(allTime.child(DISHES).getValue(), CAPACITY);
+
+                Query weeks = database.getReference(NODE).child(WEEKLY).orderByKey();
+                if (throughWeek != null) weeks = weeks.startAfter(throughWeek);
+                weeks.addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        String currentWeek = currentWeekKey();
+                        String newThroughWeek = throughWeek;
+                        SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+                        for (DataSnapshot week : snapshot.getChildren()) {
+                            SpaceSavingSketch weekSketch = SpaceSavingSketch.fromMap(week.getValue(), CAPACITY);
+                            if (week.getKey().compareTo(currentWeek) < 0) {
+                                compacted.merge(weekSketch);
+                                newThroughWeek = week.getKey();
+                            } else {
+                                sketch.merge(weekSketch);
+                            }
+                        }
+
+                        if (newThroughWeek != null && !newThroughWeek.equals(throughWeek)) {
+                            allTimeRef.setValue(allTimeSnapshot(newThroughWeek, compacted))
+                                    .addOnSuccessListener(aVoid -> Log.d(TAG, "✅ Compacted all-time dishes through " + newThroughWeek))
+                                    .addOnFailureListener(e -> Log.e(TAG, "❌ Failed to compact all-time dishes: " + e.getMessage()));
+                        }
+                        sketch.merge(compacted);
+                        callback.onTopDishesLoaded(topDishes(sketch, limit));
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.e(TAG, "Failed to load dish popularity: " + error.getMessage());
+                        callback.onError(error.getMessage());
+                    }
+                });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to load dish popularity: " + error.getMessage());
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    // Merges every sketch under the queries and reports the top dishes once all have loaded
+    private void loadMerged(Query[] queries, int limit, TopDishesCallback callback) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+        int[] pending = {queries.length};
+        boolean[] failed = {false};
+
+        for (Query query : queries) {
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    if (failed[0]) return;
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        sketch.merge(SpaceSavingSketch.fromMap(child.getValue(), CAPACITY));
+                    }
+                    if (--pending[0] > 0) return;
+                    callback.onTopDishesLoaded(topDishes(sketch, limit));
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    if (failed[0]) return;
+                    failed[0] = true;
+                    Log.e(TAG, "Failed to load dish popularity: " + error.getMessage());
+                    callback.onError(error.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Regenerates every sketch from the raw orders tree.
+     * Maintenance tool for backfilling or repairing the sketches; orders placed
+     * while it runs may need another rebuild.
+     */
+    public void rebuildFromOrders(UpdateCallback callback) {
+        database.getReference("orders").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, SpaceSavingSketch> sketches = new HashMap<>();
+                int totalOrdersProcessed = 0;
+
+                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
+                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
+                        try {
+                            Order order = orderSnapshot.getValue(Order.class);
+                            if (order == null) continue;
+                            for (Map.Entry<String, Map<String, Long>> bucket : bucketQuantities(order).entrySet()) {
+                                SpaceSavingSketch sketch = sketches.get(bucket.getKey());
+                                if (sketch == null) {
+                                    sketch = new SpaceSavingSketch(CAPACITY);
+                                    sketches.put(bucket.getKey(), sketch);
+                                }
+                                for (Map.Entry<String, Long> dish : bucket.getValue().entrySet()) {
+                                    sketch.offer(dish.getKey(), dish.getValue());
+                                }
+                            }
+                            totalOrdersProcessed++;
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error processing order: " + e.getMessage());
+                        }
+                    }
+                }
+
+                // One write of the whole tree, so buckets with no orders left are cleared
+                Map<String, Object> tree = new HashMap<>();
+                String weekPrefix = WEEKLY + "/";
+                String currentWeek = currentWeekKey();
+                String throughWeek = null;
+                SpaceSavingSketch allTime = new SpaceSavingSketch(CAPACITY);
+                for (Map.Entry<String, SpaceSavingSketch> entry : sketches.entrySet()) {
+                    putPath(tree, entry.getKey(), entry.getValue().toMap());
+
+                    // Finished weeks make up the all-time snapshot
+                    if (!entry.getKey().startsWith(weekPrefix)) continue;
+                    String week = entry.getKey().substring(weekPrefix.length());
+                    if (week.compareTo(currentWeek) >= 0) continue;
+                    allTime.merge(entry.getValue());
+                    if (throughWeek == null || week.compareTo(throughWeek) > 0) throughWeek = week;
+                }
+                if (throughWeek != null) {
+                    tree.put(ALL_TIME, allTimeSnapshot(throughWeek, allTime));
+                }
+
+                final int processed = totalOrdersProcessed;
+                database.getReference(NODE).setValue(tree)
+                        .addOnSuccessListener(aVoid -> {
+                            Log.d(TAG, "✅ Rebuilt " + sketches.size() + " dish popularity sketches from " + processed + " orders");
+                            callback.onComplete(true, "Rebuilt dish popularity from " + processed + " orders");
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "❌ Failed to write dish popularity: " + e.getMessage());
+                            callback.onComplete(false, e.getMessage());
+                        });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to fetch orders: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * The dish quantities an order adds to each sketch, keyed by the sketch's
+     * path under NODE.
+     */
+    static Map<String, Map<String, Long>> bucketQuantities(Order order) {
+        Map<String, Map<String, Long>> buckets = new HashMap<>();
+        List<CartItem> items = order.getItems();
+        if (items == null) return buckets;
+
+        // Same day as the order's statistics rollup; the week follows from it arithmetically
+        long epochDay = StatsRollupManager.orderDay(order.getOrderDate(), order.getTimestamp());
+        String dayKey = epochDay != DayKeys.NO_DAY ? DayKeys.dayKey(epochDay) : null;
+        String weekKey = epochDay != DayKeys.NO_DAY ? DayKeys.weekKey(epochDay) : null;
+
+        for (CartItem item : items) {
+            if (item == null || item.getName() == null) continue;
+            String dishKey = StatsRollupManager.encodeKey(item.getName());
+            long quantity = Math.max(1, item.getQuantity());
+
+            if (dayKey != null) add(buckets, DAILY + "/" + dayKey, dishKey, quantity);
+            if (weekKey != null) add(buckets, WEEKLY + "/" + weekKey, dishKey, quantity);
+            if (item.getRestaurantId() != null) {
+                add(buckets, RESTAURANTS + "/" + item.getRestaurantId(), dishKey, quantity);
+            }
+        }
+        return buckets;
+    }
+
+    private static Map<String, Integer> topDishes(SpaceSavingSketch sketch, int limit) {
+        Map<String, Integer> topDishes = new LinkedHashMap<>();
+        for (SpaceSavingSketch.Entry entry : sketch.top(limit)) {
+            topDishes.put(StatsRollupManager.decodeKey(entry.item), (int) entry.count);
+        }
+        return topDishes;
+    }
+
+    private static Map<String, Object> allTimeSnapshot(String throughWeek, SpaceSavingSketch dishes) {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put(THROUGH_WEEK, throughWeek);
+        snapshot.put(DISHES, dishes.toMap());
+        return snapshot;
+    }
+
+    // Weeks before this one are finished; it has the same key as the orders being placed now
+    private static String currentWeekKey() {
+        return DayKeys.weekKey(DayKeys.epochDayOfMillis(System.currentTimeMillis(), TimeZone.getDefault()));
+    }
+
+    private static void add(Map<String, Map<String, Long>> buckets, String bucket, String dishKey, long quantity) {
+        Map<String, Long> quantities = buckets.get(bucket);
+        if (quantities == null) {
+            quantities = new HashMap<>();
+            buckets.put(bucket, quantities);
+        }
+        Long current = quantities.get(dishKey);
+        quantities.put(dishKey, (current == null ? 0 : current) + quantity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putPath(Map<String, Object> tree, String path, Object value) {
+        String[] parts = path.split("/");
+        Map<String, Object> node = tree;
+        for (int i = 0; i < parts.length - 1; i++) {
+            Object child = node.get(parts[i]);
+            if (!(child instanceof Map)) {
+                child = new HashMap<String, Object>();
+                node.put(parts[i], child);
+            }
+            node = (Map<String, Object>) child;
+        }
+        node.put(parts[parts.length - 1], value);
+    }
+
+    // Callback interfaces
+    public interface TopDishesCallback {
+        void onTopDishesLoaded(Map<String, Integer> topDishes);
+        void onError(String message);
+    }
+
+    public interface UpdateCallback {
+        void onComplete(boolean success, String message);
+    }
+}
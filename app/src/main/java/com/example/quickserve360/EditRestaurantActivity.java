@@ -6,14 +6,12 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.database.ServerValue;
 
 import java.util.HashMap;
 
@@ -23,6 +21,9 @@ public class EditRestaurantActivity extends AppCompatActivity {
     private Button saveButton;
     private DatabaseReference databaseReference;
     private String restaurantId;
+    // As loaded, to keep the location/rating key in step when the location changes
+    private String originalLocation;
+    private double currentRating;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -56,14 +57,18 @@ public class EditRestaurantActivity extends AppCompatActivity {
     }
 
     private void loadRestaurantData() {
-        databaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
+        RestaurantRepository.getInstance().getRestaurant(restaurantId, new PathCache.Callback<DataSnapshot>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
+            public void onLoaded(DataSnapshot snapshot) {
                 if (snapshot.exists()) {
                     nameEdit.setText(snapshot.child("name").getValue(String.class));
                     categoryEdit.setText(snapshot.child("category").getValue(String.class));
                     cuisineEdit.setText(snapshot.child("cuisine").getValue(String.class));
-                    locationEdit.setText(snapshot.child("location").getValue(String.class));
+                    originalLocation = snapshot.child("location").getValue(String.class);
+                    locationEdit.setText(originalLocation);
+
+                    Double rating = snapshot.child("rating").getValue(Double.class);
+                    currentRating = rating != null ? rating : 0.0;
 
                     Integer budget = snapshot.child("budget").getValue(Integer.class);
                     if (budget != null) {
@@ -76,7 +81,7 @@ public class EditRestaurantActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onError(String message) {
                 Toast.makeText(EditRestaurantActivity.this,
                         "Failed to load restaurant data", Toast.LENGTH_SHORT).show();
             }
@@ -108,9 +113,14 @@ public class EditRestaurantActivity extends AppCompatActivity {
         updates.put("budget", budget);
         updates.put("description", description);
         updates.put("imagePath", image);
+        updates.put("updatedAt", ServerValue.TIMESTAMP);
+        if (!location.equals(originalLocation)) {
+            updates.put(RestaurantIndex.LOCATION_RATING, RestaurantIndex.locationRatingKey(location, currentRating));
+        }
 
         databaseReference.updateChildren(updates)
                 .addOnSuccessListener(aVoid -> {
+                    RestaurantRepository.getInstance().invalidateRestaurant(restaurantId);
                     Toast.makeText(EditRestaurantActivity.this,
                             "Restaurant updated successfully", Toast.LENGTH_SHORT).show();
                     finish();
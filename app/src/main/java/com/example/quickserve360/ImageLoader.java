@@ -0,0 +1,128 @@
+package com.example.quickserve360;
+
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
+import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
+import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads list images through Glide (configured in {@link QuickServeGlideModule}).
+ *
+ * Each list describes its images once as a {@link Thumbnail}; binding and
+ * preloading both build their requests from it, so a preloaded image is the
+ * exact cache entry the row asks for later. Images are decoded at the size
+ * of the ImageView they go into, never at full resolution.
+ */
+public final class ImageLoader {
+    // Rows ahead of the visible ones whose images are fetched and decoded early
+    static final int PRELOAD_ROWS = 6;
+
+    private ImageLoader() {}
+
+    public static Thumbnail thumbnail() {
+        return new Thumbnail(new RequestOptions());
+    }
+
+    /**
+     * Fetches and decodes the images of the next PRELOAD_ROWS rows while the
+     * list scrolls, at the size of the adapter's image view.
+     */
+    public static void preload(RecyclerView recyclerView, PreloadAdapter adapter) {
+        RequestManager glide = Glide.with(recyclerView);
+        ViewPreloadSizeProvider<String> sizeProvider = new ViewPreloadSizeProvider<>();
+
+        // The first row laid out tells us the image size for all of them
+        recyclerView.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(@NonNull View view) {
+                View image = view.findViewById(adapter.getImageViewId());
+                if (image == null) return;
+                sizeProvider.setView(image);
+                recyclerView.removeOnChildAttachStateChangeListener(this);
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(@NonNull View view) {
+            }
+        });
+
+        ListPreloader.PreloadModelProvider<String> models = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                if (position < 0 || position >= adapter.getItemCount()) return Collections.emptyList();
+                String url = adapter.getImageUrl(position);
+                return url == null || url.isEmpty() ? Collections.emptyList() : Collections.singletonList(url);
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                return adapter.getThumbnail().request(glide, url);
+            }
+        };
+
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(glide, models, sizeProvider, PRELOAD_ROWS));
+    }
+
+    /**
+     * How a list draws its images. Immutable; each method returns a copy.
+     */
+    public static final class Thumbnail {
+        private final RequestOptions options;
+
+        private Thumbnail(RequestOptions options) {
+            this.options = options;
+        }
+
+        public Thumbnail centerCrop() {
+            return new Thumbnail(options.clone().centerCrop());
+        }
+
+        public Thumbnail rounded(int radiusPx) {
+            return new Thumbnail(options.clone().transform(new CenterCrop(), new RoundedCorners(radiusPx)));
+        }
+
+        // Shown while loading and when the image can't be loaded
+        public Thumbnail placeholder(@DrawableRes int drawable) {
+            return new Thumbnail(options.clone().placeholder(drawable).error(drawable));
+        }
+
+        public RequestBuilder<Drawable> request(RequestManager glide, String url) {
+            return glide.load(url).apply(options);
+        }
+
+        public void into(ImageView view, String url) {
+            request(Glide.with(view), url).into(view);
+        }
+    }
+
+    /**
+     * An adapter whose rows each show one image, drawn with getThumbnail()
+     * into the view with getImageViewId().
+     */
+    public interface PreloadAdapter {
+        int getItemCount();
+        @Nullable String getImageUrl(int position);
+        Thumbnail getThumbnail();
+        @IdRes int getImageViewId();
+    }
+}
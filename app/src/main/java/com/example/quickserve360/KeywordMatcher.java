@@ -0,0 +1,311 @@
+package com.example.quickserve360;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Weighted sentiment lexicon compiled into an Aho-Corasick automaton.
+ *
+ * A review is scanned once, lower-casing characters on the fly. Terms only
+ * count when they are whole words (so "fast" does not match in "breakfast"),
+ * and a negator such as "not" flips the sign of sentiment terms in the next
+ * few words, up to the end of the clause.
+ *
+ * Lexicon lines are "term&lt;TAB&gt;weight", with positive weights for positive
+ * terms, negative weights for negative ones, or NEGATE to mark a negator.
+ * Blank lines and lines starting with '#' are ignored.
+ */
+public class KeywordMatcher {
+    private static final String NEGATE = "NEGATE";
+    private static final int NEGATION_WINDOW_WORDS = 3;
+
+    private static final String[] DEFAULT_POSITIVE = {"good", "great", "excellent", "amazing", "awesome",
+            "delicious", "love", "best", "perfect", "wonderful", "nice", "friendly", "fast"};
+    private static final String[] DEFAULT_NEGATIVE = {"bad", "terrible", "horrible", "awful", "disgusting",
+            "worst", "hate", "poor", "slow", "dirty", "rude", "overpriced"};
+    private static final String[] DEFAULT_NEGATORS = {"not", "no", "never", "isn't", "wasn't",
+            "don't", "didn't", "hardly"};
+
+    // Automaton nodes; node 0 is the root. Each node's edges are sorted by character.
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Pattern ending at the node, or -1; outputLink chains to the next suffix node with a pattern
+    private final int[] nodePattern;
+    private final int[] outputLink;
+
+    private final int[] patternLength;
+    private final int[] patternWords;
+    private final float[] patternWeight;
+    private final boolean[] patternNegates;
+
+    private KeywordMatcher(Builder builder) {
+        int nodeCount = builder.edgeChars.size();
+        edgeChars = builder.edgeChars.toArray(new char[0][]);
+        edgeTargets = builder.edgeTargets.toArray(new int[0][]);
+        nodePattern = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) nodePattern[i] = builder.nodePattern.get(i);
+        failure = new int[nodeCount];
+        outputLink = new int[nodeCount];
+        Arrays.fill(outputLink, -1);
+
+        int patternCount = builder.terms.size();
+        patternLength = new int[patternCount];
+        patternWords = new int[patternCount];
+        patternWeight = new float[patternCount];
+        patternNegates = new boolean[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            String term = builder.terms.get(i);
+            patternLength[i] = term.length();
+            patternWords[i] = term.split(" ").length;
+            patternWeight[i] = builder.weights.get(i);
+            patternNegates[i] = builder.negators.get(i);
+        }
+
+        buildFailureLinks();
+    }
+
+    /**
+     * The lexicon the fallback originally hard-coded, with every term weighted 1.
+     */
+    public static KeywordMatcher defaultMatcher() {
+        Builder builder = new Builder();
+        for (String word : DEFAULT_POSITIVE) builder.add(word, 1f, false);
+        for (String word : DEFAULT_NEGATIVE) builder.add(word, -1f, false);
+        for (String word : DEFAULT_NEGATORS) builder.add(word, 0f, true);
+        return builder.build();
+    }
+
+    public static KeywordMatcher fromLexicon(Reader lexicon) throws IOException {
+        Builder builder = new Builder();
+        BufferedReader reader = new BufferedReader(lexicon);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split("\t");
+            if (parts.length != 2) {
+                throw new IOException("Bad lexicon line " + lineNumber + ": " + line);
+            }
+            String term = parts[0].trim().toLowerCase(Locale.ROOT);
+            String weight = parts[1].trim();
+            if (NEGATE.equals(weight)) {
+                builder.add(term, 0f, true);
+            } else {
+                try {
+                    builder.add(term, Float.parseFloat(weight), false);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad weight on lexicon line " + lineNumber + ": " + weight);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Scores text in a single pass over its characters.
+     */
+    public Score score(String text) {
+        Score score = new Score();
+        int state = 0;
+        int wordIndex = -1;
+        int negatorWord = -1;
+        boolean previousIsWordChar = false;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            boolean isWordChar = isWordChar(c);
+            if (isWordChar && !previousIsWordChar) {
+                wordIndex++;
+            }
+            previousIsWordChar = isWordChar;
+            if (isClauseBreak(c)) {
+                negatorWord = -1;
+            }
+
+            state = step(state, c);
+
+            // Only whole-word matches count, so the next character must not continue the word
+            boolean atWordEnd = i + 1 == length || !isWordChar(Character.toLowerCase(text.charAt(i + 1)));
+            if (!atWordEnd) continue;
+
+            for (int node = nodePattern[state] >= 0 ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                int pattern = nodePattern[node];
+                int start = i - patternLength[pattern] + 1;
+                if (start > 0 && isWordChar(Character.toLowerCase(text.charAt(start - 1)))) continue;
+
+                int startWord = wordIndex - patternWords[pattern] + 1;
+                if (patternNegates[pattern]) {
+                    negatorWord = wordIndex;
+                    continue;
+                }
+
+                float weight = patternWeight[pattern];
+                if (negatorWord >= 0 && startWord > negatorWord
+                        && startWord <= negatorWord + NEGATION_WINDOW_WORDS) {
+                    weight = -weight;
+                    score.negatedMatches++;
+                }
+                if (weight > 0) {
+                    score.positive += weight;
+                    score.positiveMatches++;
+                } else if (weight < 0) {
+                    score.negative -= weight;
+                    score.negativeMatches++;
+                }
+            }
+        }
+        return score;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = edge(state, c);
+            if (next >= 0) return next;
+            if (state == 0) return 0;
+            state = failure[state];
+        }
+    }
+
+    private int edge(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    private void buildFailureLinks() {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = 0; e < edgeChars[node].length; e++) {
+                char c = edgeChars[node][e];
+                int child = edgeTargets[node][e];
+
+                int fallback = failure[node];
+                while (fallback != 0 && edge(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = edge(fallback, c);
+                failure[child] = target >= 0 && target != child ? target : 0;
+
+                int suffix = failure[child];
+                outputLink[child] = nodePattern[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+    }
+
+    static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '\'';
+    }
+
+    static boolean isClauseBreak(char c) {
+        return c == '.' || c == ',' || c == '!' || c == '?' || c == ';' || c == ':';
+    }
+
+    // Weighted totals for one text; both sums are non-negative
+    public static class Score {
+        public float positive = 0f;
+        public float negative = 0f;
+        public int positiveMatches = 0;
+        public int negativeMatches = 0;
+        public int negatedMatches = 0;
+
+        /**
+         * Share of positive weight in [0, 1], or 0.5 when nothing matched.
+         */
+        public float ratio() {
+            float total = positive + negative;
+            return total == 0f ? 0.5f : positive / total;
+        }
+    }
+
+    private static class Builder {
+        // Mutable trie: per-node sorted edge arrays
+        private final List<char[]> edgeChars = new ArrayList<>();
+        private final List<int[]> edgeTargets = new ArrayList<>();
+        private final List<Integer> nodePattern = new ArrayList<>();
+
+        private final List<String> terms = new ArrayList<>();
+        private final List<Float> weights = new ArrayList<>();
+        private final List<Boolean> negators = new ArrayList<>();
+
+        Builder() {
+            newNode();
+        }
+
+        void add(String term, float weight, boolean negator) {
+            if (term.isEmpty()) return;
+
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                char[] chars = edgeChars.get(node);
+                int index = Arrays.binarySearch(chars, c);
+                if (index >= 0) {
+                    node = edgeTargets.get(node)[index];
+                    continue;
+                }
+
+                int child = newNode();
+                int insertAt = -index - 1;
+                edgeChars.set(node, insert(chars, insertAt, c));
+                edgeTargets.set(node, insert(edgeTargets.get(node), insertAt, child));
+                node = child;
+            }
+
+            int existing = nodePattern.get(node);
+            if (existing >= 0) {
+                // Later lexicon lines override earlier ones
+                weights.set(existing, weight);
+                negators.set(existing, negator);
+                return;
+            }
+            nodePattern.set(node, terms.size());
+            terms.add(term);
+            weights.add(weight);
+            negators.add(negator);
+        }
+
+        KeywordMatcher build() {
+            return new KeywordMatcher(this);
+        }
+
+        private int newNode() {
+            edgeChars.add(new char[0]);
+            edgeTargets.add(new int[0]);
+            nodePattern.add(-1);
+            return edgeChars.size() - 1;
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+
+        private static int[] insert(int[] array, int index, int value) {
+            int[] result = new int[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            return result;
+        }
+    }
+}
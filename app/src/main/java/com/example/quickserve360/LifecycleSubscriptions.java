@@ -0,0 +1,89 @@
+package com.example.quickserve360;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a screen's database subscriptions attached only while it is started.
+ *
+ * Each source is subscribed on start and its subscription removed on stop, so
+ * a screen in the back stack stops syncing, and nothing outlives the screen.
+ * A source added while the screen is already started is subscribed at once.
+ *
+ *   subscriptions = new LifecycleSubscriptions(this);
+ *   subscriptions.add(() -> repository.observeX(PARSER, callback));
+ *
+ * Main thread only.
+ */
+public class LifecycleSubscriptions implements DefaultLifecycleObserver {
+
+    private final Lifecycle lifecycle;
+    private final List<Source> sources = new ArrayList<>();
+    // Parallel to sources; null while a source is detached
+    private final List<PathCache.Subscription> active = new ArrayList<>();
+
+    public LifecycleSubscriptions(LifecycleOwner owner) {
+        this.lifecycle = owner.getLifecycle();
+        lifecycle.addObserver(this);
+    }
+
+    public void add(Source source) {
+        sources.add(source);
+        active.add(lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED)
+                ? source.subscribe() : null);
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        for (int i = 0; i < sources.size(); i++) {
+            if (active.get(i) == null) {
+                active.set(i, sources.get(i).subscribe());
+            }
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        for (int i = 0; i < active.size(); i++) {
+            PathCache.Subscription subscription = active.get(i);
+            if (subscription != null) {
+                subscription.remove();
+                active.set(i, null);
+            }
+        }
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        sources.clear();
+        active.clear();
+        lifecycle.removeObserver(this);
+    }
+
+    /**
+     * A source for a plain value listener on a query, counted in
+     * {@link ListenerRegistry} under the given path label.
+     */
+    public static Source valueListener(String path, Query query, ValueEventListener listener) {
+        return () -> {
+            query.addValueEventListener(listener);
+            ListenerRegistry.getInstance().onAttached(path);
+            return () -> {
+                query.removeEventListener(listener);
+                ListenerRegistry.getInstance().onDetached(path);
+            };
+        };
+    }
+
+    public interface Source {
+        PathCache.Subscription subscribe();
+    }
+}
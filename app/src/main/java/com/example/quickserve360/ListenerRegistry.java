@@ -0,0 +1,77 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the database listeners attached right now, per path.
+ *
+ * Every long-lived listener in the app reports here when it is attached and
+ * removed, so a screen that forgets to detach shows up as a count that keeps
+ * growing. Counts above MAX_PER_PATH for one path, or MAX_TOTAL overall, are
+ * logged as warnings; each attached listener keeps syncing its data in the
+ * background.
+ *
+ * Main thread only, like the listeners themselves.
+ */
+public class ListenerRegistry {
+    private static final String TAG = "ListenerRegistry";
+    static final int MAX_PER_PATH = 2;
+    static final int MAX_TOTAL = 12;
+
+    private static ListenerRegistry instance;
+
+    private final Map<String, Integer> activeCounts = new TreeMap<>();
+    private int total = 0;
+
+    public static synchronized ListenerRegistry getInstance() {
+        if (instance == null) {
+            instance = new ListenerRegistry();
+        }
+        return instance;
+    }
+
+    private ListenerRegistry() {}
+
+    public void onAttached(String path) {
+        Integer count = activeCounts.get(path);
+        int newCount = count == null ? 1 : count + 1;
+        activeCounts.put(path, newCount);
+        total++;
+
+        if (newCount > MAX_PER_PATH) {
+            Log.w(TAG, newCount + " listeners on " + path + "; one is probably never removed");
+        }
+        if (total > MAX_TOTAL) {
+            Log.w(TAG, total + " listeners attached: " + activeCounts);
+        }
+    }
+
+    public void onDetached(String path) {
+        Integer count = activeCounts.get(path);
+        if (count == null) {
+            Log.e(TAG, "❌ Listener on " + path + " removed more often than attached");
+            return;
+        }
+        if (count == 1) {
+            activeCounts.remove(path);
+        } else {
+            activeCounts.put(path, count - 1);
+        }
+        total--;
+    }
+
+    /**
+     * Attached listener count per path, sorted by path. A copy; it does not
+     * update.
+     */
+    public Map<String, Integer> getActiveCounts() {
+        return new TreeMap<>(activeCounts);
+    }
+
+    public int getTotalCount() {
+        return total;
+    }
+}
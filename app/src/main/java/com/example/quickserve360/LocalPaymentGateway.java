@@ -0,0 +1,45 @@
+package com.example.quickserve360;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Stand-in gateway that approves every payment. It answers on the next main
+ * loop pass by default; give it a latency to mimic a real provider in load
+ * tests.
+ */
+public class LocalPaymentGateway implements PaymentGateway {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long latencyMs;
+
+    public LocalPaymentGateway() {
+        this(0);
+    }
+
+    public LocalPaymentGateway(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public void authorize(PaymentRequest request, GatewayCallback callback) {
+        if (request.amount <= 0) {
+            respond(() -> callback.onFailure("Invalid amount", false));
+            return;
+        }
+        // The same key always yields the same authorization, like a real idempotent API
+        respond(() -> callback.onSuccess("AUTH-" + request.idempotencyKey));
+    }
+
+    @Override
+    public void capture(String authorizationId, PaymentRequest request, GatewayCallback callback) {
+        respond(() -> callback.onSuccess("TXN-" + request.idempotencyKey));
+    }
+
+    private void respond(Runnable response) {
+        if (latencyMs > 0) {
+            handler.postDelayed(response, latencyMs);
+        } else {
+            handler.post(response);
+        }
+    }
+}
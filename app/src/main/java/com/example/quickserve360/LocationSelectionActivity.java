@@ -14,24 +14,30 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
 
 public class LocationSelectionActivity extends AppCompatActivity {
 
     private Spinner spinnerLocation;
     private Button btnSubmit;
-    private DatabaseReference db;
     private String userId;
 
     private ArrayList<String> locationsList = new ArrayList<>();
+    private RestaurantCatalog catalog;
+    private final RestaurantCatalog.ChangeListener catalogListener = new RestaurantCatalog.ChangeListener() {
+        @Override
+        public void onCatalogChanged() {
+            loadLocations();
+        }
+
+        @Override
+        public void onCatalogError(String message) {
+            if (!catalog.isReady()) {
+                Toast.makeText(LocationSelectionActivity.this, "Failed to load cities", Toast.LENGTH_SHORT).show();
+            }
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -52,10 +58,6 @@ public class LocationSelectionActivity extends AppCompatActivity {
         spinnerLocation = findViewById(R.id.spinnerLocation);
         btnSubmit = findViewById(R.id.btnSubmit);
 
-        // Firebase references
-        db = FirebaseDatabase.getInstance().getReference();
-        DatabaseReference restaurantsRef = db.child("Restaurants");
-
         // Get current logged-in user's UID
         if (FirebaseAuth.getInstance().getCurrentUser() != null) {
             userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
@@ -64,43 +66,10 @@ public class LocationSelectionActivity extends AppCompatActivity {
             finish(); // close activity if no user
         }
 
-        // Add default "Select City"
-        locationsList.add("Select City");
-
-        // Fetch locations from Firebase
-        restaurantsRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    Set<String> uniqueLocations = new HashSet<>();
-
-                    for (DataSnapshot restSnapshot : snapshot.getChildren()) {
-                        String location = restSnapshot.child("location").getValue(String.class);
-                        if (location != null && !location.isEmpty()) {
-                            uniqueLocations.add(location);
-                        }
-                    }
-
-                    locationsList.addAll(uniqueLocations);
-
-                    // Set adapter to spinner
-                    ArrayAdapter<String> adapter = new ArrayAdapter<>(
-                            LocationSelectionActivity.this,
-                            android.R.layout.simple_spinner_item,
-                            locationsList
-                    );
-                    adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    spinnerLocation.setAdapter(adapter);
-                } else {
-                    Toast.makeText(LocationSelectionActivity.this, "No locations found in database.", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onCancelled(DatabaseError error) {
-                Toast.makeText(LocationSelectionActivity.this, "Failed to load locations.", Toast.LENGTH_SHORT).show();
-            }
-        });
+        // Locations come from the local restaurant catalog; reload once it has synced
+        catalog = RestaurantCatalog.getInstance(this);
+        catalog.addChangeListener(catalogListener);
+        loadLocations();
 
         // Save selected city to Firebase on button click
         btnSubmit.setOnClickListener(v -> {
@@ -111,7 +80,7 @@ public class LocationSelectionActivity extends AppCompatActivity {
                 return;
             }
 
-            db.child("users").child(userId).child("selectedCity").setValue(selectedCity)
+            UserRepository.getInstance().setSelectedCity(userId, selectedCity)
                     .addOnSuccessListener(aVoid -> {
                         Toast.makeText(LocationSelectionActivity.this, "Location saved successfully", Toast.LENGTH_SHORT).show();
 
@@ -125,4 +94,37 @@ public class LocationSelectionActivity extends AppCompatActivity {
                     );
         });
     }
-}
\ No newline at end of file
+
+    private void loadLocations() {
+        catalog.loadLocations(locations -> {
+            // Keep the user's choice when the list refreshes after a catalog change
+            Object previousSelection = spinnerLocation.getSelectedItem();
+
+            locationsList.clear();
+            locationsList.add("Select City");
+            locationsList.addAll(locations);
+
+            // Set adapter to spinner
+            ArrayAdapter<String> adapter = new ArrayAdapter<>(
+                    LocationSelectionActivity.this,
+                    android.R.layout.simple_spinner_item,
+                    locationsList
+            );
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            spinnerLocation.setAdapter(adapter);
+            if (previousSelection != null && locationsList.contains(previousSelection.toString())) {
+                spinnerLocation.setSelection(locationsList.indexOf(previousSelection.toString()));
+            }
+
+            if (locations.isEmpty() && catalog.isReady()) {
+                Toast.makeText(LocationSelectionActivity.this, "No locations found in database.", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        catalog.removeChangeListener(catalogListener);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.quickserve360;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -16,11 +18,19 @@ import com.example.quickserve360.databinding.ActivityMainBinding;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -28,11 +38,44 @@ public class MainActivity extends AppCompatActivity {
     private final FirebaseDatabase database = FirebaseDatabase.getInstance();
 
     private BestRestaurantsAdapter bestRestaurantsAdapter;
-    private ArrayList<Restaurant> bestRestaurantsList = new ArrayList<>();
-    private ArrayList<Restaurant> filteredRestaurantsList = new ArrayList<>();
+    // Replaced, never mutated, so the search thread can read it safely
+    private volatile List<Restaurant> bestRestaurantsList = new ArrayList<>();
+
+    // Live while the screen is started, detached while it is in the back stack
+    private LifecycleSubscriptions subscriptions;
+    private boolean bestRestaurantsShown = false;
+
+    // Home-screen search: debounced queries against an index built off the main thread
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private static final long INDEX_REBUILD_DELAY_MS = 500;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, List<String>> dishNamesByRestaurant = new ConcurrentHashMap<>();
+    private final Set<String> requestedDishRestaurants = new HashSet<>();
+    // Restaurants last indexed, and whether a search has asked for their dish names yet
+    private List<Restaurant> indexedRestaurants = new ArrayList<>();
+    private boolean dishNamesWanted = false;
+    private volatile RestaurantSearchIndex searchIndex;
+    private RestaurantCatalog catalog;
+    private final RestaurantCatalog.ChangeListener catalogListener = new RestaurantCatalog.ChangeListener() {
+        @Override
+        public void onCatalogChanged() {
+            rebuildSearchIndex();
+        }
+
+        @Override
+        public void onCatalogError(String message) {
+            // The top-rated list reports its own errors; search just stays empty until the catalog syncs
+            Log.e("MainActivity", "Restaurant catalog unavailable for search: " + message);
+        }
+    };
+    private String pendingQuery = "";
+    private int searchGeneration = 0;
+    private final Runnable searchRunnable = () -> filterRestaurants(pendingQuery);
+    private final Runnable rebuildIndexRunnable = this::rebuildSearchIndex;
 
     private CategoryAdapter categoryAdapter;
-    private ArrayList<Category> categoryList = new ArrayList<>();
 
     private String selectedLocation = "";
     private String userId = "";
@@ -43,6 +86,7 @@ public class MainActivity extends AppCompatActivity {
 
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        subscriptions = new LifecycleSubscriptions(this);
 
         // Get current user
         if (FirebaseAuth.getInstance().getCurrentUser() != null) {
@@ -59,13 +103,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void loadUserLocation() {
-        DatabaseReference userRef = database.getReference("users").child(userId).child("selectedCity");
-
-        userRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserRepository.getInstance().getSelectedCity(userId, new PathCache.Callback<String>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.exists()) {
-                    selectedLocation = snapshot.getValue(String.class);
+            public void onLoaded(String city) {
+                if (city != null) {
+                    selectedLocation = city;
                     Log.d("MainActivity", "Selected location: '" + selectedLocation + "'");
 
                     if (selectedLocation != null && !selectedLocation.isEmpty()) {
@@ -95,8 +137,8 @@ public class MainActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e("MainActivity", "Error loading location", error.toException());
+            public void onError(String message) {
+                Log.e("MainActivity", "Error loading location: " + message);
                 redirectToLocationSelector();
             }
         });
@@ -117,14 +159,15 @@ public class MainActivity extends AppCompatActivity {
         binding.recyclerBestRestaurants.setNestedScrollingEnabled(false);
         binding.recyclerBestRestaurants.setHasFixedSize(true);
 
-        // Use filteredRestaurantsList for the adapter
-        bestRestaurantsAdapter = new BestRestaurantsAdapter(filteredRestaurantsList, restaurant -> {
+        // Shows search results, or every best restaurant when the search box is empty
+        bestRestaurantsAdapter = new BestRestaurantsAdapter(restaurant -> {
             Intent intent = new Intent(MainActivity.this, RestaurantDishesActivity.class);
             intent.putExtra("restaurantId", restaurant.getId());
             intent.putExtra("restaurantName", restaurant.getName());
             startActivity(intent);
         });
         binding.recyclerBestRestaurants.setAdapter(bestRestaurantsAdapter);
+        ImageLoader.preload(binding.recyclerBestRestaurants, bestRestaurantsAdapter);
 
         Log.d("MainActivity", "RecyclerView initialized with adapter");
     }
@@ -135,7 +178,7 @@ public class MainActivity extends AppCompatActivity {
         binding.recyclerCategory.setNestedScrollingEnabled(false);
         binding.recyclerCategory.setHasFixedSize(true);
 
-        categoryAdapter = new CategoryAdapter(categoryList, category -> {
+        categoryAdapter = new CategoryAdapter(category -> {
             Intent intent = new Intent(MainActivity.this, CategoryRestaurantsActivity.class);
             intent.putExtra("categoryName", category.getName());
             intent.putExtra("selectedLocation", selectedLocation);
@@ -145,75 +188,53 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void initBestRestaurants() {
-        Log.d("MainActivity", "Starting to load restaurants from Firebase");
-        DatabaseReference restaurantsRef = database.getReference("Restaurants");
+        Log.d("MainActivity", "Loading top-rated restaurants in " + selectedLocation);
+
+        // Only this city's restaurants rated 4.0+, via the location/rating key
+        Query bestRestaurantsQuery = database.getReference("Restaurants")
+                .orderByChild(RestaurantIndex.LOCATION_RATING)
+                .startAt(RestaurantIndex.rangeStart(selectedLocation, 4.0))
+                .endAt(RestaurantIndex.rangeEnd(selectedLocation));
 
-        restaurantsRef.addValueEventListener(new ValueEventListener() {
+        subscriptions.add(LifecycleSubscriptions.valueListener("Restaurants (best in " + selectedLocation + ")",
+                bestRestaurantsQuery, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
-                Log.d("MainActivity", "Firebase onDataChange called");
-                bestRestaurantsList.clear();
-
-                if (snapshot.exists()) {
-                    Log.d("MainActivity", "Total restaurants in DB: " + snapshot.getChildrenCount());
-
-                    for (DataSnapshot item : snapshot.getChildren()) {
-                        try {
-                            Restaurant restaurant = item.getValue(Restaurant.class);
-
-                            if (restaurant != null) {
-                                Log.d("MainActivity", "Processing: " + restaurant.getName());
-                                Log.d("MainActivity", "  - Location: '" + restaurant.getLocation() + "'");
-                                Log.d("MainActivity", "  - Rating: " + restaurant.getRating());
-
-                                // Filter by location and rating >= 4.0
-                                boolean locationMatch = restaurant.getLocation().equals(selectedLocation);
-                                boolean hasGoodRating = restaurant.getRating() >= 4.0;
-
-                                Log.d("MainActivity", "  - Location Match: " + locationMatch);
-                                Log.d("MainActivity", "  - Rating >= 4.0: " + hasGoodRating);
-
-                                if (locationMatch && hasGoodRating) {
-                                    bestRestaurantsList.add(restaurant);
-                                    Log.d("MainActivity", "  ✓ ADDED to list! Total now: " + bestRestaurantsList.size());
-                                } else {
-                                    Log.d("MainActivity", "  ✗ NOT ADDED - locationMatch: " + locationMatch + ", hasGoodRating: " + hasGoodRating);
-                                }
-                            } else {
-                                Log.w("MainActivity", "Restaurant object is null for item: " + item.getKey());
-                            }
-                        } catch (Exception e) {
-                            Log.e("MainActivity", "Error parsing restaurant: " + item.getKey(), e);
+                ArrayList<Restaurant> restaurants = new ArrayList<>();
+
+                for (DataSnapshot item : snapshot.getChildren()) {
+                    try {
+                        Restaurant restaurant = item.getValue(Restaurant.class);
+                        if (restaurant != null) {
+                            restaurant.setId(item.getKey());
+                            restaurants.add(restaurant);
                         }
+                    } catch (Exception e) {
+                        Log.e("MainActivity", "Error parsing restaurant: " + item.getKey(), e);
                     }
+                }
 
-                    Log.d("MainActivity", "Final list size: " + bestRestaurantsList.size());
-
-                    // Update filtered list with all restaurants initially
-                    filteredRestaurantsList.clear();
-                    filteredRestaurantsList.addAll(bestRestaurantsList);
-                    bestRestaurantsAdapter.notifyDataSetChanged();
+                // Results arrive in ascending rating order; show the highest rated first
+                Collections.reverse(restaurants);
+                bestRestaurantsList = restaurants;
+                Log.d("MainActivity", "Final list size: " + restaurants.size());
 
-                    // Force RecyclerView to refresh
-                    binding.recyclerBestRestaurants.post(() -> {
-                        binding.recyclerBestRestaurants.requestLayout();
-                        Log.d("MainActivity", "RecyclerView layout requested");
-                    });
+                // Show all restaurants unless search results are on screen; the adapter
+                // diffs against what is shown, and clearing the search shows this list
+                if (pendingQuery.trim().isEmpty()) {
+                    bestRestaurantsAdapter.submitList(restaurants);
+                }
 
-                    if (bestRestaurantsList.isEmpty()) {
-                        Toast.makeText(MainActivity.this,
-                                "No restaurants with 4+ rating in " + selectedLocation,
-                                Toast.LENGTH_LONG).show();
-                        Log.w("MainActivity", "List is empty after filtering!");
-                    } else {
-                        Toast.makeText(MainActivity.this,
-                                "Loaded " + bestRestaurantsList.size() + " top-rated restaurants",
-                                Toast.LENGTH_SHORT).show();
-                    }
+                // Re-attaching after the screen comes back redelivers the list; only announce it once
+                if (bestRestaurantsShown) return;
+                bestRestaurantsShown = true;
+                if (bestRestaurantsList.isEmpty()) {
+                    Toast.makeText(MainActivity.this,
+                            "No restaurants with 4+ rating in " + selectedLocation,
+                            Toast.LENGTH_LONG).show();
                 } else {
-                    Log.w("MainActivity", "No Restaurants data found in Firebase");
                     Toast.makeText(MainActivity.this,
-                            "No restaurants data in database",
+                            "Loaded " + bestRestaurantsList.size() + " top-rated restaurants",
                             Toast.LENGTH_SHORT).show();
                 }
             }
@@ -223,33 +244,33 @@ public class MainActivity extends AppCompatActivity {
                 Log.e("MainActivity", "Error loading restaurants", error.toException());
                 Toast.makeText(MainActivity.this, "Failed to load restaurants: " + error.getMessage(), Toast.LENGTH_SHORT).show();
             }
-        });
+        }));
     }
 
-    private void initCategories() {
-        DatabaseReference categoryRef = database.getReference("Category");
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (catalog != null) {
+            catalog.removeChangeListener(catalogListener);
+        }
+        searchHandler.removeCallbacksAndMessages(null);
+        searchExecutor.shutdownNow();
+    }
 
-        categoryRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                categoryList.clear();
-                if (snapshot.exists()) {
-                    for (DataSnapshot item : snapshot.getChildren()) {
-                        Category category = item.getValue(Category.class);
-                        if (category != null) {
-                            categoryList.add(category);
-                        }
+    private void initCategories() {
+        subscriptions.add(() -> RestaurantRepository.getInstance().observeCategories(
+                new PathCache.Callback<List<Category>>() {
+                    @Override
+                    public void onLoaded(List<Category> categories) {
+                        categoryAdapter.submitList(categories);
+                        Log.d("MainActivity", "Categories loaded: " + categories.size());
                     }
-                    categoryAdapter.notifyDataSetChanged();
-                    Log.d("MainActivity", "Categories loaded: " + categoryList.size());
-                }
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e("MainActivity", "Error loading categories", error.toException());
-            }
-        });
+                    @Override
+                    public void onError(String message) {
+                        Log.e("MainActivity", "Error loading categories: " + message);
+                    }
+                }));
     }
 
     private void setupSearchFilter() {
@@ -261,7 +282,10 @@ public class MainActivity extends AppCompatActivity {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterRestaurants(s.toString());
+                // Wait for a pause in typing before searching
+                pendingQuery = s.toString();
+                searchHandler.removeCallbacks(searchRunnable);
+                searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
             }
 
             @Override
@@ -269,31 +293,95 @@ public class MainActivity extends AppCompatActivity {
                 // Not needed
             }
         });
+
+        // Index every restaurant in the city, not just the top-rated ones
+        catalog = RestaurantCatalog.getInstance(this);
+        catalog.addChangeListener(catalogListener);
+        rebuildSearchIndex();
     }
 
-    private void filterRestaurants(String query) {
-        filteredRestaurantsList.clear();
+    private void rebuildSearchIndex() {
+        if (searchExecutor.isShutdown()) return;
+        catalog.query(new RestaurantCatalog.RestaurantQuery().location(selectedLocation), restaurants -> {
+            if (searchExecutor.isShutdown()) return;
+            indexedRestaurants = restaurants;
+            if (dishNamesWanted) loadDishNames(restaurants);
+            searchExecutor.execute(() -> {
+                searchIndex = new RestaurantSearchIndex(restaurants, dishNamesByRestaurant);
+                Log.d("MainActivity", "Search index built for " + searchIndex.size() + " restaurants");
+            });
+        });
+    }
 
-        if (query.isEmpty()) {
-            // If search is empty, show all restaurants
-            filteredRestaurantsList.addAll(bestRestaurantsList);
-        } else {
-            // Filter restaurants by name (case-insensitive)
-            String lowerCaseQuery = query.toLowerCase().trim();
+    // Dish names are fetched once per restaurant, and only after the first search,
+    // so opening the home screen doesn't read every menu; the index is rebuilt when they arrive
+    private void loadDishNames(List<Restaurant> restaurants) {
+        for (Restaurant restaurant : restaurants) {
+            String restaurantId = restaurant.getId();
+            if (restaurantId == null || !requestedDishRestaurants.add(restaurantId)) continue;
+
+            // Shares the cached dish list with the restaurant's menu screen
+            RestaurantRepository.getInstance().getDishes(restaurantId, new PathCache.Callback<List<Dish>>() {
+                @Override
+                public void onLoaded(List<Dish> dishes) {
+                    List<String> dishNames = new ArrayList<>();
+                    for (Dish dish : dishes) {
+                        if (dish.getName() != null) dishNames.add(dish.getName());
+                    }
+                    dishNamesByRestaurant.put(restaurantId, dishNames);
 
-            for (Restaurant restaurant : bestRestaurantsList) {
-                if (restaurant.getName().toLowerCase().contains(lowerCaseQuery)) {
-                    filteredRestaurantsList.add(restaurant);
+                    searchHandler.removeCallbacks(rebuildIndexRunnable);
+                    searchHandler.postDelayed(rebuildIndexRunnable, INDEX_REBUILD_DELAY_MS);
                 }
-            }
+
+                @Override
+                public void onError(String message) {
+                    requestedDishRestaurants.remove(restaurantId);
+                }
+            });
         }
+    }
+
+    private void filterRestaurants(String query) {
+        if (query.trim().isEmpty()) {
+            // If search is empty, show all restaurants
+            searchGeneration++;
+            showSearchResults(query, bestRestaurantsList);
+            return;
+        }
+        if (searchExecutor.isShutdown()) return;
+        if (!dishNamesWanted) {
+            dishNamesWanted = true;
+            loadDishNames(indexedRestaurants);
+        }
+
+        final int generation = ++searchGeneration;
+        searchExecutor.execute(() -> {
+            List<Restaurant> results;
+            RestaurantSearchIndex index = searchIndex;
+            if (index != null) {
+                results = index.search(query, MAX_SEARCH_RESULTS);
+            } else {
+                // Index not built yet: filter the loaded list by name
+                results = RestaurantSearchIndex.filterByName(bestRestaurantsList, query);
+            }
+
+            // Drop results for a query the user has already typed past
+            searchHandler.post(() -> {
+                if (generation == searchGeneration) {
+                    showSearchResults(query, results);
+                }
+            });
+        });
+    }
 
-        bestRestaurantsAdapter.notifyDataSetChanged();
+    private void showSearchResults(String query, List<Restaurant> results) {
+        bestRestaurantsAdapter.submitList(results);
 
-        Log.d("MainActivity", "Search query: '" + query + "' - Results: " + filteredRestaurantsList.size());
+        Log.d("MainActivity", "Search query: '" + query + "' - Results: " + results.size());
 
         // Optional: Show a message if no results found
-        if (filteredRestaurantsList.isEmpty() && !query.isEmpty()) {
+        if (results.isEmpty() && !query.trim().isEmpty()) {
             Toast.makeText(this, "No restaurants found matching '" + query + "'", Toast.LENGTH_SHORT).show();
         }
     }
@@ -312,7 +400,7 @@ public class MainActivity extends AppCompatActivity {
         });
 
         binding.ivLogout.setOnClickListener(v -> {
-            database.getReference("users").child(userId).child("selectedCity").removeValue();
+            UserRepository.getInstance().clearSelectedCity(userId);
             FirebaseAuth.getInstance().signOut();
             Toast.makeText(this, "Logged out successfully", Toast.LENGTH_SHORT).show();
             finish();
@@ -14,7 +14,9 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -23,11 +25,11 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
-import com.squareup.picasso.Picasso;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 
 public class ManageMenuActivity extends AppCompatActivity {
 
@@ -35,16 +37,30 @@ public class ManageMenuActivity extends AppCompatActivity {
     private FloatingActionButton addDishFab;
     private DatabaseReference databaseReference;
     private MenuAdapter adapter;
-    private List<Dish> dishList;
     private String restaurantId, restaurantName;
     private ImageButton btnBackArrow;
     private TextView menuTitleText;
+    private LifecycleSubscriptions subscriptions;
+
+    private static final ImageLoader.Thumbnail THUMBNAIL = ImageLoader.thumbnail();
+
+    private static final PathCache.Parser<List<Dish>> MENU_PARSER = snapshot -> {
+        List<Dish> dishList = new ArrayList<>();
+        for (DataSnapshot dishSnapshot : snapshot.getChildren()) {
+            Dish dish = dishSnapshot.getValue(Dish.class);
+            if (dish != null) {
+                dishList.add(dish);
+            }
+        }
+        return dishList;
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         getSupportActionBar().hide();
         setContentView(R.layout.activity_manage_menu);
+        subscriptions = new LifecycleSubscriptions(this);
 
         restaurantId = getIntent().getStringExtra("restaurantId");
         restaurantName = getIntent().getStringExtra("restaurantName");
@@ -61,8 +77,7 @@ public class ManageMenuActivity extends AppCompatActivity {
 
         databaseReference = FirebaseDatabase.getInstance().getReference("Dishes").child(restaurantId);
 
-        dishList = new ArrayList<>();
-        adapter = new MenuAdapter(dishList);
+        adapter = new MenuAdapter();
 
         menuRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         menuRecyclerView.setAdapter(adapter);
@@ -73,25 +88,20 @@ public class ManageMenuActivity extends AppCompatActivity {
     }
 
     private void loadMenu() {
-        databaseReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                dishList.clear();
-                for (DataSnapshot dishSnapshot : snapshot.getChildren()) {
-                    Dish dish = dishSnapshot.getValue(Dish.class);
-                    if (dish != null) {
-                        dishList.add(dish);
+        subscriptions.add(() -> RestaurantRepository.getInstance().observeDishes(restaurantId, MENU_PARSER,
+                new PathCache.Callback<List<Dish>>() {
+                    @Override
+                    public void onLoaded(List<Dish> dishList) {
+                        // The parsed list is shared, so hand the adapter its own copy
+                        adapter.submitList(new ArrayList<>(dishList));
                     }
-                }
-                adapter.notifyDataSetChanged();
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(ManageMenuActivity.this,
-                        "Failed to load menu", Toast.LENGTH_SHORT).show();
-            }
-        });
+                    @Override
+                    public void onError(String message) {
+                        Toast.makeText(ManageMenuActivity.this,
+                                "Failed to load menu", Toast.LENGTH_SHORT).show();
+                    }
+                }));
     }
 
     private void showAddDishDialog() {
@@ -183,12 +193,24 @@ public class ManageMenuActivity extends AppCompatActivity {
     }
 
     // Adapter
-    class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.ViewHolder> {
+    class MenuAdapter extends ListAdapter<Dish, MenuAdapter.ViewHolder> {
 
-        private List<Dish> dishes;
+        public MenuAdapter() {
+            super(new DiffUtil.ItemCallback<Dish>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Dish oldItem, @NonNull Dish newItem) {
+                    return Objects.equals(oldItem.id, newItem.id);
+                }
 
-        public MenuAdapter(List<Dish> dishes) {
-            this.dishes = dishes;
+                @Override
+                public boolean areContentsTheSame(@NonNull Dish oldItem, @NonNull Dish newItem) {
+                    return Objects.equals(oldItem.name, newItem.name)
+                            && Objects.equals(oldItem.description, newItem.description)
+                            && Objects.equals(oldItem.imagePath, newItem.imagePath)
+                            && oldItem.price == newItem.price;
+                }
+            });
+            setHasStableIds(true);
         }
 
         @NonNull
@@ -201,13 +223,13 @@ public class ManageMenuActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            Dish dish = dishes.get(position);
+            Dish dish = getItem(position);
 
             holder.nameText.setText(dish.name);
             holder.descText.setText(dish.description);
             holder.priceText.setText("₹" + dish.price);
 
-            Picasso.get().load(dish.imagePath).into(holder.imageView);
+            THUMBNAIL.into(holder.imageView, dish.imagePath);
 
             holder.editButton.setOnClickListener(v -> showEditDishDialog(dish));
 
@@ -228,8 +250,8 @@ public class ManageMenuActivity extends AppCompatActivity {
         }
 
         @Override
-        public int getItemCount() {
-            return dishes.size();
+        public long getItemId(int position) {
+            return StableIds.of(getItem(position).id);
         }
 
         class ViewHolder extends RecyclerView.ViewHolder {
@@ -17,23 +17,17 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-
-import java.util.ArrayList;
-import java.util.List;
-
 public class ManageOrdersActivity extends AppCompatActivity {
 
     private RecyclerView ordersRecyclerView;
-    private DatabaseReference ordersReference;
+    private LinearLayoutManager layoutManager;
     private OrderAdapter adapter;
-    private List<OrderInfo> orderList;
+    private OrderFeed orderFeed;
     private ImageButton btnBackArrow;
 
+    private static final int PAGE_SIZE = 20;
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -45,50 +39,72 @@ public class ManageOrdersActivity extends AppCompatActivity {
         btnBackArrow.setOnClickListener(v -> finish());
 
         ordersRecyclerView = findViewById(R.id.orders_recycler_view);
-        ordersReference = FirebaseDatabase.getInstance().getReference("orders");
 
-        orderList = new ArrayList<>();
-        adapter = new OrderAdapter(orderList);
+        adapter = new OrderAdapter();
+        layoutManager = new LinearLayoutManager(this);
+        orderFeed = new OrderFeed(PAGE_SIZE, createFeedListener());
 
-        ordersRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        ordersRecyclerView.setLayoutManager(layoutManager);
         ordersRecyclerView.setAdapter(adapter);
 
-        loadOrders();
+        setupPaging();
+    }
+
+    // Listen only while visible; stop() empties the feed, so it reloads on return
+    @Override
+    protected void onStart() {
+        super.onStart();
+        orderFeed.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        orderFeed.stop();
     }
 
-    private void loadOrders() {
-        ordersReference.addValueEventListener(new ValueEventListener() {
+    private OrderFeed.Listener createFeedListener() {
+        return new OrderFeed.Listener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                orderList.clear();
-                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
-                    String userId = userSnapshot.getKey();
-                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
-                        OrderInfo orderInfo = new OrderInfo();
-                        orderInfo.userId = userId;
-                        orderInfo.orderId = orderSnapshot.child("orderId").getValue(String.class);
-                        orderInfo.orderDate = orderSnapshot.child("orderDate").getValue(String.class);
-                        orderInfo.status = orderSnapshot.child("status").getValue(String.class);
-                        orderInfo.totalAmount = orderSnapshot.child("totalAmount").getValue(Double.class);
-                        orderInfo.paymentMethod = orderSnapshot.child("paymentMethod").getValue(String.class);
-
-                        int itemCount = 0;
-                        for (DataSnapshot itemSnapshot : orderSnapshot.child("items").getChildren()) {
-                            itemCount++;
-                        }
-                        orderInfo.itemCount = itemCount;
-
-                        orderList.add(orderInfo);
-                    }
-                }
-                adapter.notifyDataSetChanged();
+            public void onOrdersInserted(int position, int count) {
+                adapter.notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onOrderChanged(int position) {
+                adapter.notifyItemChanged(position);
+            }
+
+            @Override
+            public void onOrderRemoved(int position) {
+                adapter.notifyItemRemoved(position);
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onOrdersCleared(int count) {
+                adapter.notifyItemRangeRemoved(0, count);
+            }
+
+            @Override
+            public void onFeedError(String message) {
                 Toast.makeText(ManageOrdersActivity.this,
                         "Failed to load orders", Toast.LENGTH_SHORT).show();
             }
+        };
+    }
+
+    private void setupPaging() {
+        // Fetch the next page as the list nears its end
+        ordersRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || !orderFeed.hasMore()) return;
+
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    recyclerView.post(orderFeed::loadMore);
+                }
+            }
         });
     }
 
@@ -103,19 +119,20 @@ public class ManageOrdersActivity extends AppCompatActivity {
         public String userId;
         public String orderId;
         public String orderDate;
+        public long timestamp;
         public String status;
         public Double totalAmount;
         public String paymentMethod;
         public int itemCount;
+        public String indexKey;
     }
 
     // Adapter Class
+    // OrderFeed reports row-level changes itself, so no diffing is needed here
     class OrderAdapter extends RecyclerView.Adapter<OrderAdapter.ViewHolder> {
 
-        private List<OrderInfo> orders;
-
-        public OrderAdapter(List<OrderInfo> orders) {
-            this.orders = orders;
+        OrderAdapter() {
+            setHasStableIds(true);
         }
 
         @NonNull
@@ -128,7 +145,7 @@ public class ManageOrdersActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            OrderInfo order = orders.get(position);
+            OrderInfo order = orderFeed.get(position);
 
             holder.orderIdText.setText("Order #" + order.orderId);
             holder.orderDateText.setText(order.orderDate);
@@ -157,7 +174,12 @@ public class ManageOrdersActivity extends AppCompatActivity {
 
         @Override
         public int getItemCount() {
-            return orders.size();
+            return orderFeed.size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return StableIds.of(orderFeed.get(position).orderId);
         }
 
         class ViewHolder extends RecyclerView.ViewHolder {
@@ -204,17 +226,17 @@ public class ManageOrdersActivity extends AppCompatActivity {
         updateButton.setOnClickListener(v -> {
             String newStatus = statusSpinner.getSelectedItem().toString();
 
-            ordersReference.child(order.userId).child(order.orderId).child("status")
-                    .setValue(newStatus)
-                    .addOnSuccessListener(aVoid -> {
-                        Toast.makeText(ManageOrdersActivity.this,
-                                "Order status updated to: " + newStatus, Toast.LENGTH_SHORT).show();
-                        dialog.dismiss();
-                    })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(ManageOrdersActivity.this,
-                                "Failed to update status", Toast.LENGTH_SHORT).show();
-                    });
+            // Index and counters move from the status the database held, not the one shown here
+            new OrderStatusUpdater().update(order, newStatus, (success, message) -> {
+                if (success) {
+                    Toast.makeText(ManageOrdersActivity.this,
+                            "Order status updated to: " + newStatus, Toast.LENGTH_SHORT).show();
+                    dialog.dismiss();
+                } else {
+                    Toast.makeText(ManageOrdersActivity.this,
+                            "Failed to update status", Toast.LENGTH_SHORT).show();
+                }
+            });
         });
 
         dialog.show();
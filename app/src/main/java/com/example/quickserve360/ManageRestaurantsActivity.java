@@ -15,20 +15,21 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
-import com.squareup.picasso.Picasso;
+import com.google.firebase.database.ServerValue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 
 public class ManageRestaurantsActivity extends AppCompatActivity {
 
@@ -36,14 +37,28 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
     private FloatingActionButton addRestaurantFab;
     private DatabaseReference databaseReference;
     private RestaurantAdapter adapter;
-    private List<Restaurant> restaurantList;
     private ImageButton btnBackArrow;
+    private LifecycleSubscriptions subscriptions;
+
+    private static final ImageLoader.Thumbnail THUMBNAIL = ImageLoader.thumbnail();
+
+    private static final PathCache.Parser<List<Restaurant>> RESTAURANTS_PARSER = snapshot -> {
+        List<Restaurant> restaurantList = new ArrayList<>();
+        for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
+            Restaurant restaurant = dataSnapshot.getValue(Restaurant.class);
+            if (restaurant != null) {
+                restaurantList.add(restaurant);
+            }
+        }
+        return restaurantList;
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         getSupportActionBar().hide();
         setContentView(R.layout.activity_manage_restaurants);
+        subscriptions = new LifecycleSubscriptions(this);
 
         // Initialize back button
         btnBackArrow = findViewById(R.id.btnBackArrow);
@@ -54,8 +69,7 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
 
         databaseReference = FirebaseDatabase.getInstance().getReference("Restaurants");
 
-        restaurantList = new ArrayList<>();
-        adapter = new RestaurantAdapter(restaurantList);
+        adapter = new RestaurantAdapter();
 
         restaurantsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         restaurantsRecyclerView.setAdapter(adapter);
@@ -65,25 +79,20 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
         addRestaurantFab.setOnClickListener(v -> showAddRestaurantDialog());
     }
     private void loadRestaurants() {
-        databaseReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                restaurantList.clear();
-                for (DataSnapshot dataSnapshot : snapshot.getChildren()) {
-                    Restaurant restaurant = dataSnapshot.getValue(Restaurant.class);
-                    if (restaurant != null) {
-                        restaurantList.add(restaurant);
+        subscriptions.add(() -> RestaurantRepository.getInstance().observeRestaurants(RESTAURANTS_PARSER,
+                new PathCache.Callback<List<Restaurant>>() {
+                    @Override
+                    public void onLoaded(List<Restaurant> restaurantList) {
+                        // The parsed list is shared, so hand the adapter its own copy
+                        adapter.submitList(new ArrayList<>(restaurantList));
                     }
-                }
-                adapter.notifyDataSetChanged();
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(ManageRestaurantsActivity.this,
-                        "Failed to load restaurants", Toast.LENGTH_SHORT).show();
-            }
-        });
+                    @Override
+                    public void onError(String message) {
+                        Toast.makeText(ManageRestaurantsActivity.this,
+                                "Failed to load restaurants", Toast.LENGTH_SHORT).show();
+                    }
+                }));
     }
 
     private void showAddRestaurantDialog() {
@@ -121,9 +130,11 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
             int budget = Integer.parseInt(budgetStr);
 
             // ✅ Find the highest restaurant number and assign next one
-            databaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
+            // (answered from the live list this screen already observes)
+            RestaurantRepository.getInstance().getRestaurants(RestaurantRepository.SNAPSHOT_PARSER,
+                    new PathCache.Callback<DataSnapshot>() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                public void onLoaded(DataSnapshot snapshot) {
                     int maxNum = 0;
 
                     for (DataSnapshot child : snapshot.getChildren()) {
@@ -151,10 +162,17 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
                     restaurantMap.put("description", description);
                     restaurantMap.put("imagePath", image);
                     restaurantMap.put("rating", 0.0);
+                    restaurantMap.put(RestaurantIndex.LOCATION_RATING, RestaurantIndex.locationRatingKey(location, 0.0));
                     restaurantMap.put("isVeg", false);
                     restaurantMap.put("isBestRestaurant", false);
+                    restaurantMap.put("updatedAt", ServerValue.TIMESTAMP);
+
+                    // IDs can be reused, so clear any tombstone left by an earlier delete
+                    HashMap<String, Object> updates = new HashMap<>();
+                    updates.put("Restaurants/" + id, restaurantMap);
+                    updates.put(RestaurantCatalog.TOMBSTONES_NODE + "/" + id, null);
 
-                    databaseReference.child(id).setValue(restaurantMap)
+                    databaseReference.getRoot().updateChildren(updates)
                             .addOnSuccessListener(aVoid -> {
                                 Toast.makeText(ManageRestaurantsActivity.this,
                                         "Restaurant added successfully", Toast.LENGTH_SHORT).show();
@@ -167,7 +185,7 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
+                public void onError(String message) {
                     Toast.makeText(ManageRestaurantsActivity.this,
                             "Error getting restaurant count", Toast.LENGTH_SHORT).show();
                 }
@@ -202,12 +220,27 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
     }
 
     // ✅ Adapter Class
-    class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.ViewHolder> {
+    class RestaurantAdapter extends ListAdapter<Restaurant, RestaurantAdapter.ViewHolder> {
 
-        private final List<Restaurant> restaurants;
+        public RestaurantAdapter() {
+            super(new DiffUtil.ItemCallback<Restaurant>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Restaurant oldItem, @NonNull Restaurant newItem) {
+                    return Objects.equals(oldItem.id, newItem.id);
+                }
 
-        public RestaurantAdapter(List<Restaurant> restaurants) {
-            this.restaurants = restaurants;
+                @Override
+                public boolean areContentsTheSame(@NonNull Restaurant oldItem, @NonNull Restaurant newItem) {
+                    return Objects.equals(oldItem.name, newItem.name)
+                            && Objects.equals(oldItem.category, newItem.category)
+                            && Objects.equals(oldItem.cuisine, newItem.cuisine)
+                            && Objects.equals(oldItem.location, newItem.location)
+                            && Objects.equals(oldItem.imagePath, newItem.imagePath)
+                            && oldItem.budget == newItem.budget
+                            && oldItem.rating == newItem.rating;
+                }
+            });
+            setHasStableIds(true);
         }
 
         @NonNull
@@ -220,7 +253,7 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            Restaurant restaurant = restaurants.get(position);
+            Restaurant restaurant = getItem(position);
 
             holder.nameText.setText(restaurant.name);
             holder.categoryText.setText(restaurant.category + " • " + restaurant.cuisine);
@@ -228,7 +261,7 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
             holder.budgetText.setText("Budget: ₹" + restaurant.budget);
             holder.ratingText.setText(String.format("%.1f", restaurant.rating));
 
-            Picasso.get().load(restaurant.imagePath).into(holder.imageView);
+            THUMBNAIL.into(holder.imageView, restaurant.imagePath);
 
             holder.editButton.setOnClickListener(v -> {
                 Intent intent = new Intent(ManageRestaurantsActivity.this, EditRestaurantActivity.class);
@@ -241,7 +274,12 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
                         .setTitle("Delete Restaurant")
                         .setMessage("Are you sure you want to delete " + restaurant.name + "?")
                         .setPositiveButton("Delete", (dialog, which) -> {
-                            databaseReference.child(restaurant.id).removeValue()
+                            // Leave a tombstone so offline catalogs learn about the delete
+                            HashMap<String, Object> updates = new HashMap<>();
+                            updates.put("Restaurants/" + restaurant.id, null);
+                            updates.put(RestaurantCatalog.TOMBSTONES_NODE + "/" + restaurant.id, ServerValue.TIMESTAMP);
+
+                            databaseReference.getRoot().updateChildren(updates)
                                     .addOnSuccessListener(aVoid -> {
                                         Toast.makeText(ManageRestaurantsActivity.this,
                                                 "Restaurant deleted", Toast.LENGTH_SHORT).show();
@@ -260,8 +298,8 @@ public class ManageRestaurantsActivity extends AppCompatActivity {
         }
 
         @Override
-        public int getItemCount() {
-            return restaurants.size();
+        public long getItemId(int position) {
+            return StableIds.of(getItem(position).id);
         }
 
         class ViewHolder extends RecyclerView.ViewHolder {
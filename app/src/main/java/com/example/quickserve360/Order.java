@@ -11,6 +11,7 @@ public class Order {
     private String status;
     private String orderDate;
     private String deliveryAddress; // JUST ADD THIS LINE
+    private long timestamp; // epoch millis when the order was placed
 
     // Default constructor for Firebase
     public Order() {
@@ -54,4 +55,7 @@ public class Order {
 
     public String getOrderDate() { return orderDate; }
     public void setOrderDate(String orderDate) { this.orderDate = orderDate; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
 }
\ No newline at end of file
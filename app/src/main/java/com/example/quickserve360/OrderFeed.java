@@ -0,0 +1,258 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Newest-first, paged view over all orders for the admin screen, read from
+ * the time-ordered order index.
+ *
+ * The newest page listens to an open-ended key range so new orders stream in;
+ * each older page listens to the fixed key range it was loaded with. Child
+ * events are applied as single-row inserts, changes and removals so the list
+ * never has to be rebuilt from scratch.
+ */
+public class OrderFeed {
+    private static final String TAG = "OrderFeed";
+
+    private final DatabaseReference indexRef;
+    private final int pageSize;
+    private final Listener listener;
+
+    // Loaded orders, newest first
+    private final List<ManageOrdersActivity.OrderInfo> orders = new ArrayList<>();
+    private final List<Query> pageQueries = new ArrayList<>();
+    private final ChildEventListener childListener = createChildListener();
+
+    // Oldest index key covered by an attached page, null before the first page
+    private String oldestLoadedKey;
+    private boolean hasMore = true;
+    private boolean loading = false;
+    private boolean started = false;
+    // Bumped by stop(), so a page requested before it is dropped when it arrives
+    private int generation = 0;
+
+    public OrderFeed(int pageSize, Listener listener) {
+        this.indexRef = FirebaseDatabase.getInstance().getReference(OrderIndex.BY_TIME);
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    public void start() {
+        if (started) return;
+        started = true;
+        loadPage();
+    }
+
+    /**
+     * Detaches every page and forgets what was loaded; the next start()
+     * begins again from the newest page, as events missed while stopped
+     * are never replayed.
+     */
+    public void stop() {
+        started = false;
+        generation++;
+        for (int page = 0; page < pageQueries.size(); page++) {
+            pageQueries.get(page).removeEventListener(childListener);
+            ListenerRegistry.getInstance().onDetached(pagePath(page));
+        }
+        pageQueries.clear();
+
+        oldestLoadedKey = null;
+        hasMore = true;
+        loading = false;
+        int count = orders.size();
+        orders.clear();
+        if (count > 0) {
+            listener.onOrdersCleared(count);
+        }
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public ManageOrdersActivity.OrderInfo get(int position) {
+        return orders.get(position);
+    }
+
+    public boolean hasMore() {
+        return hasMore && !loading;
+    }
+
+    /**
+     * Fetches the next page of older orders.
+     */
+    public void loadMore() {
+        if (started && hasMore()) {
+            loadPage();
+        }
+    }
+
+    private void loadPage() {
+        loading = true;
+        final int pageGeneration = generation;
+
+        Query pageQuery = indexRef.orderByKey();
+        if (oldestLoadedKey != null) {
+            pageQuery = pageQuery.endBefore(oldestLoadedKey);
+        }
+
+        // Learn the page's key range, then keep that range live
+        pageQuery.limitToLast(pageSize).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (pageGeneration != generation) return;
+                loading = false;
+
+                String pageStartKey = null;
+                for (DataSnapshot child : snapshot.getChildren()) {
+                    pageStartKey = child.getKey();
+                    break;
+                }
+                hasMore = snapshot.getChildrenCount() >= pageSize;
+
+                Query liveRange = indexRef.orderByKey();
+                if (pageStartKey != null) {
+                    liveRange = liveRange.startAt(pageStartKey);
+                } else if (oldestLoadedKey == null) {
+                    // Empty index: listen to all of it so the first orders still appear
+                    hasMore = false;
+                } else {
+                    hasMore = false;
+                    return;
+                }
+                if (oldestLoadedKey != null) {
+                    liveRange = liveRange.endBefore(oldestLoadedKey);
+                }
+
+                oldestLoadedKey = pageStartKey;
+                liveRange.addChildEventListener(childListener);
+                ListenerRegistry.getInstance().onAttached(pagePath(pageQueries.size()));
+                pageQueries.add(liveRange);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (pageGeneration != generation) return;
+                loading = false;
+                Log.e(TAG, "Failed to load order page: " + error.getMessage());
+                listener.onFeedError(error.getMessage());
+            }
+        });
+    }
+
+    // Each page listens to its own key range, so count them separately
+    private static String pagePath(int page) {
+        return OrderIndex.BY_TIME + " page " + page;
+    }
+
+    private ChildEventListener createChildListener() {
+        return new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                insert(parse(snapshot));
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                int position = indexOf(snapshot.getKey());
+                if (position < 0) {
+                    insert(parse(snapshot));
+                    return;
+                }
+                orders.set(position, parse(snapshot));
+                listener.onOrderChanged(position);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                int position = indexOf(snapshot.getKey());
+                if (position < 0) return;
+                orders.remove(position);
+                listener.onOrderRemoved(position);
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Keys never change, so neither does the order
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Order feed cancelled: " + error.getMessage());
+                listener.onFeedError(error.getMessage());
+            }
+        };
+    }
+
+    private void insert(ManageOrdersActivity.OrderInfo order) {
+        int position = insertionPoint(order.indexKey);
+        if (position < orders.size() && orders.get(position).indexKey.equals(order.indexKey)) {
+            return;
+        }
+        orders.add(position, order);
+        listener.onOrdersInserted(position, 1);
+    }
+
+    private int indexOf(String indexKey) {
+        int position = insertionPoint(indexKey);
+        if (position < orders.size() && orders.get(position).indexKey.equals(indexKey)) {
+            return position;
+        }
+        return -1;
+    }
+
+    // Index keys sort by time, so newest first is descending key order
+    private int insertionPoint(String indexKey) {
+        int low = 0, high = orders.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orders.get(mid).indexKey.compareTo(indexKey) > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static ManageOrdersActivity.OrderInfo parse(DataSnapshot entrySnapshot) {
+        OrderIndex.IndexEntry entry = entrySnapshot.getValue(OrderIndex.IndexEntry.class);
+
+        ManageOrdersActivity.OrderInfo orderInfo = new ManageOrdersActivity.OrderInfo();
+        orderInfo.indexKey = entrySnapshot.getKey();
+        if (entry != null) {
+            orderInfo.userId = entry.userId;
+            orderInfo.orderId = entry.orderId;
+            orderInfo.orderDate = entry.orderDate;
+            orderInfo.timestamp = entry.timestamp;
+            orderInfo.status = entry.status;
+            orderInfo.totalAmount = entry.totalAmount;
+            orderInfo.paymentMethod = entry.paymentMethod;
+            orderInfo.itemCount = entry.itemCount;
+        }
+        return orderInfo;
+    }
+
+    public interface Listener {
+        void onOrdersInserted(int position, int count);
+        void onOrderChanged(int position);
+        void onOrderRemoved(int position);
+        void onOrdersCleared(int count);
+        void onFeedError(String message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.quickserve360;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique order IDs that sort by creation time.
+ *
+ * An ID is "ORD" followed by 22 Crockford base32 characters:
+ *
+ *   10 chars  milliseconds since the epoch (48 bits)
+ *    4 chars  per-process sequence within the millisecond (16 bits)
+ *    8 chars  random device/process tag, fixed for the process (40 bits)
+ *
+ * The alphabet is in ASCII order, so Firebase's key ordering is time ordering:
+ * orders/{userId} can be range-scanned by time with {@link #lowerBound}, and
+ * {@link #timestampOf} reads the creation time back out of an ID. Legacy
+ * "ORD" + millis IDs (ORD17...) sort after every generated ID (ORD0...),
+ * whatever their time, so a key scan from a lower bound also returns all of
+ * them; filter those by their timestamp.
+ * Time and sequence share one AtomicLong updated by compare-and-set: IDs from
+ * one process are strictly increasing without locks, even when the clock
+ * steps backwards or more than 65536 IDs are needed in a millisecond (the
+ * sequence then carries into the next millisecond). The random tag keeps IDs
+ * from different devices apart when they share a millisecond.
+ */
+public final class OrderIdGenerator {
+    static final String PREFIX = "ORD";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int SEQUENCE_BITS = 16;
+    private static final int TIME_CHARS = 10;
+    private static final int SEQUENCE_CHARS = 4;
+    private static final int NODE_CHARS = 8;
+    private static final int ID_LENGTH = PREFIX.length() + TIME_CHARS + SEQUENCE_CHARS + NODE_CHARS;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private static final AtomicLong lastState = new AtomicLong();
+    private static final char[] nodeChars = newNodeChars();
+
+    private OrderIdGenerator() {}
+
+    public static String next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long previous;
+        long state;
+        do {
+            previous = lastState.get();
+            state = Math.max(now, previous + 1);
+        } while (!lastState.compareAndSet(previous, state));
+
+        char[] id = new char[ID_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), id, 0);
+        int offset = PREFIX.length();
+        encode(state >>> SEQUENCE_BITS, id, offset, TIME_CHARS);
+        encode(state & ((1L << SEQUENCE_BITS) - 1), id, offset + TIME_CHARS, SEQUENCE_CHARS);
+        System.arraycopy(nodeChars, 0, id, offset + TIME_CHARS + SEQUENCE_CHARS, NODE_CHARS);
+        return new String(id);
+    }
+
+    /**
+     * The smallest ID that could be generated at the given time; use with
+     * orderByKey().startAt() to list orders placed from then on (plus every
+     * legacy ID, see the class doc).
+     */
+    public static String lowerBound(long timestampMillis) {
+        char[] bound = new char[PREFIX.length() + TIME_CHARS];
+        PREFIX.getChars(0, PREFIX.length(), bound, 0);
+        encode(timestampMillis, bound, PREFIX.length(), TIME_CHARS);
+        return new String(bound);
+    }
+
+    /**
+     * Creation time encoded in an ID from this generator, or -1 for IDs in
+     * another format such as the older "ORD" + millis.
+     */
+    public static long timestampOf(String orderId) {
+        if (orderId == null || orderId.length() != ID_LENGTH || !orderId.startsWith(PREFIX)) return -1;
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + TIME_CHARS; i++) {
+            int digit = indexOf(orderId.charAt(i));
+            if (digit < 0) return -1;
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    // Writes value as a fixed-width, most-significant-first base32 number
+    private static void encode(long value, char[] out, int offset, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private static char[] newNodeChars() {
+        byte[] bytes = new byte[5];
+        new SecureRandom().nextBytes(bytes);
+        long node = 0;
+        for (byte b : bytes) node = (node << 8) | (b & 0xff);
+        char[] chars = new char[NODE_CHARS];
+        encode(node, chars, 0, NODE_CHARS);
+        return chars;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flat, time-ordered secondary index over the per-user orders tree.
+ *
+ * orderIndex/byTime/{indexKey}                    -> IndexEntry
+ * orderIndex/byStatus/{status}/{indexKey}         -> true
+ * orderIndex/byRestaurant/{restaurantId}/{indexKey} -> true
+ *
+ * Index keys are the zero-padded order timestamp followed by the order ID,
+ * so ordering by key is ordering by time. Entries are always written in the
+ * same multi-path update as the order they describe.
+ */
+public class OrderIndex {
+    private static final String TAG = "OrderIndex";
+    static final String INDEX_ROOT = "orderIndex";
+    static final String BY_TIME = INDEX_ROOT + "/byTime";
+    static final String BY_STATUS = INDEX_ROOT + "/byStatus";
+    static final String BY_RESTAURANT = INDEX_ROOT + "/byRestaurant";
+    private FirebaseDatabase database;
+
+    public OrderIndex() {
+        this.database = FirebaseDatabase.getInstance();
+    }
+
+    static String indexKey(long timestamp, String orderId) {
+        return String.format(Locale.US, "%013d_%s", timestamp, orderId);
+    }
+
+    /**
+     * Adds the index entries for a newly placed order to a multi-path update.
+     */
+    public static void addOrderEntries(Map<String, Object> updates, Order order) {
+        String indexKey = indexKey(order.getTimestamp(), order.getOrderId());
+
+        int itemCount = order.getItems() != null ? order.getItems().size() : 0;
+        updates.put(BY_TIME + "/" + indexKey, new IndexEntry(order.getUserId(), order.getOrderId(),
+                order.getOrderDate(), order.getTimestamp(), order.getStatus(),
+                order.getTotalAmount(), order.getPaymentMethod(), itemCount));
+
+        if (order.getStatus() != null) {
+            updates.put(BY_STATUS + "/" + StatsRollupManager.encodeKey(order.getStatus()) + "/" + indexKey, true);
+        }
+
+        Set<String> restaurantIds = new HashSet<>();
+        if (order.getItems() != null) {
+            for (CartItem item : order.getItems()) {
+                if (item != null && item.getRestaurantId() != null) {
+                    restaurantIds.add(item.getRestaurantId());
+                }
+            }
+        }
+        for (String restaurantId : restaurantIds) {
+            updates.put(BY_RESTAURANT + "/" + restaurantId + "/" + indexKey, true);
+        }
+    }
+
+    /**
+     * Adds the index adjustments for an order moving between statuses.
+     * oldStatus must be the status the database held, as replaced by
+     * OrderStatusUpdater's transaction, not one read earlier.
+     */
+    public static void addStatusChange(Map<String, Object> updates, String indexKey,
+                                       String oldStatus, String newStatus) {
+        updates.put(BY_TIME + "/" + indexKey + "/status", newStatus);
+        if (newStatus.equals(oldStatus)) return;
+
+        if (oldStatus != null) {
+            updates.put(BY_STATUS + "/" + StatsRollupManager.encodeKey(oldStatus) + "/" + indexKey, null);
+        }
+        updates.put(BY_STATUS + "/" + StatsRollupManager.encodeKey(newStatus) + "/" + indexKey, true);
+    }
+
+    /**
+     * Regenerates the whole index from the raw orders tree.
+     * Backfill for orders placed before the index existed; older orders without a
+     * stored timestamp are keyed by their ID or order date.
+     */
+    public void rebuildFromOrders(UpdateCallback callback) {
+        database.getReference("orders").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Object> updates = new HashMap<>();
+                int indexed = 0;
+
+                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
+                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
+                        try {
+                            Order order = orderSnapshot.getValue(Order.class);
+                            if (order == null) continue;
+
+                            order.setOrderId(orderSnapshot.getKey());
+                            order.setUserId(userSnapshot.getKey());
+                            if (order.getTimestamp() == 0) {
+                                order.setTimestamp(inferTimestamp(order));
+                            }
+                            addOrderEntries(updates, order);
+                            indexed++;
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error indexing order: " + e.getMessage());
+                        }
+                    }
+                }
+
+                // Replace the old index wholesale so stale entries disappear
+                Map<String, Object> indexTree = new HashMap<>();
+                for (Map.Entry<String, Object> entry : updates.entrySet()) {
+                    nest(indexTree, entry.getKey().substring(INDEX_ROOT.length() + 1), entry.getValue());
+                }
+
+                final int total = indexed;
+                database.getReference(INDEX_ROOT).setValue(indexTree)
+                        .addOnSuccessListener(aVoid -> {
+                            Log.d(TAG, "✅ Indexed " + total + " orders");
+                            callback.onComplete(true, "Indexed " + total + " orders");
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "❌ Failed to rebuild order index: " + e.getMessage());
+                            callback.onComplete(false, e.getMessage());
+                        });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to fetch orders: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void nest(Map<String, Object> tree, String path, Object value) {
+        String[] segments = path.split("/");
+        Map<String, Object> node = tree;
+        for (int i = 0; i < segments.length - 1; i++) {
+            Object child = node.get(segments[i]);
+            if (!(child instanceof Map)) {
+                child = new HashMap<String, Object>();
+                node.put(segments[i], child);
+            }
+            node = (Map<String, Object>) child;
+        }
+        node.put(segments[segments.length - 1], value);
+    }
+
+    // From the order ID, either generated or legacy "ORD" + creation millis; otherwise the order date
+    private static long inferTimestamp(Order order) {
+        String orderId = order.getOrderId();
+        long idTimestamp = OrderIdGenerator.timestampOf(orderId);
+        if (idTimestamp >= 0) return idTimestamp;
+        if (orderId != null && orderId.startsWith("ORD")) {
+            try {
+                return Long.parseLong(orderId.substring(3));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        if (order.getOrderDate() != null) {
+            try {
+                Date date = new SimpleDateFormat("dd-MM-yyyy HH:mm", Locale.getDefault()).parse(order.getOrderDate());
+                if (date != null) return date.getTime();
+            } catch (Exception ignored) {
+            }
+        }
+        return 0;
+    }
+
+    public interface UpdateCallback {
+        void onComplete(boolean success, String message);
+    }
+
+    // Compact summary of an order, enough to render admin lists without the full order
+    public static class IndexEntry {
+        public String userId;
+        public String orderId;
+        public String orderDate;
+        public long timestamp;
+        public String status;
+        public double totalAmount;
+        public String paymentMethod;
+        public int itemCount;
+
+        public IndexEntry() {} // no-arg constructor for Firebase
+
+        public IndexEntry(String userId, String orderId, String orderDate, long timestamp,
+                          String status, double totalAmount, String paymentMethod, int itemCount) {
+            this.userId = userId;
+            this.orderId = orderId;
+            this.orderDate = orderDate;
+            this.timestamp = timestamp;
+            this.status = status;
+            this.totalAmount = totalAmount;
+            this.paymentMethod = paymentMethod;
+            this.itemCount = itemCount;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.quickserve360;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's cart and orders, read through {@link PathCache}. The cart changes
+ * too often to serve from memory, so cart reads are only merged while in
+ * flight, never cached.
+ */
+public class OrderRepository {
+    private static final long ORDERS_TTL_MS = 60 * 1000;
+
+    private static final PathCache.Parser<List<CartItem>> CART_PARSER = snapshot -> {
+        List<CartItem> items = new ArrayList<>();
+        for (DataSnapshot itemSnapshot : snapshot.getChildren()) {
+            CartItem item = itemSnapshot.getValue(CartItem.class);
+            if (item != null) items.add(item);
+        }
+        return items;
+    };
+
+    private static final PathCache.Parser<List<Order>> ORDERS_PARSER = snapshot -> {
+        List<Order> orders = new ArrayList<>();
+        for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
+            Order order = orderSnapshot.getValue(Order.class);
+            if (order != null) orders.add(order);
+        }
+        return orders;
+    };
+
+    private static OrderRepository instance;
+
+    private final PathCache cache = PathCache.getInstance();
+
+    public static synchronized OrderRepository getInstance() {
+        if (instance == null) {
+            instance = new OrderRepository();
+        }
+        return instance;
+    }
+
+    private OrderRepository() {}
+
+    public void getCart(String userId, PathCache.Callback<List<CartItem>> callback) {
+        cache.get("users/" + userId + "/cart", 0, CART_PARSER, callback);
+    }
+
+    public void getOrders(String userId, PathCache.Callback<List<Order>> callback) {
+        cache.get(ordersPath(userId), ORDERS_TTL_MS, ORDERS_PARSER, callback);
+    }
+
+    /**
+     * Loads the user's orders placed since the given time, in key order, by
+     * scanning order IDs from {@link OrderIdGenerator#lowerBound} instead of
+     * reading the whole history. Not cached, as each range is its own query.
+     */
+    public void getOrdersSince(String userId, long sinceMillis, PathCache.Callback<List<Order>> callback) {
+        FirebaseDatabase.getInstance().getReference(ordersPath(userId))
+                .orderByKey().startAt(OrderIdGenerator.lowerBound(sinceMillis))
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        List<Order> orders = new ArrayList<>();
+                        for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
+                            Order order = orderSnapshot.getValue(Order.class);
+                            if (order == null) continue;
+                            // Legacy "ORD" + millis IDs sort after the range whatever their age
+                            if (OrderIdGenerator.timestampOf(orderSnapshot.getKey()) < 0
+                                    && legacyTimestamp(orderSnapshot.getKey(), order) < sinceMillis) {
+                                continue;
+                            }
+                            orders.add(order);
+                        }
+                        callback.onLoaded(orders);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        callback.onError(error.getMessage());
+                    }
+                });
+    }
+
+    public PathCache.Subscription observeOrders(String userId, PathCache.Callback<List<Order>> callback) {
+        return cache.observe(ordersPath(userId), ORDERS_PARSER, callback);
+    }
+
+    // Call after placing an order
+    public void invalidateOrders(String userId) {
+        cache.invalidate(ordersPath(userId));
+    }
+
+    // Creation time of a legacy order: its stored timestamp, else the millis in "ORD" + millis
+    private static long legacyTimestamp(String orderId, Order order) {
+        if (order.getTimestamp() > 0) return order.getTimestamp();
+        try {
+            return Long.parseLong(orderId.substring(OrderIdGenerator.PREFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static String ordersPath(String userId) {
+        return "orders/" + userId;
+    }
+}
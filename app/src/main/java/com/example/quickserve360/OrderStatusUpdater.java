@@ -0,0 +1,100 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Changes an order's status and moves its index entries and daily status
+ * counters to match.
+ *
+ * The status is swapped in a transaction on orders/{uid}/{orderId}/status,
+ * and the index and counters are adjusted from the status that transaction
+ * actually replaced rather than the one the screen last showed. Two admins
+ * changing the same order at once therefore can't decrement the old status
+ * twice or leave the order listed under two statuses. An update that fails
+ * after the status committed is logged and repaired by the index and rollup
+ * rebuilds.
+ */
+public class OrderStatusUpdater {
+    private static final String TAG = "OrderStatusUpdater";
+
+    private final DatabaseReference rootRef;
+
+    public OrderStatusUpdater() {
+        this.rootRef = FirebaseDatabase.getInstance().getReference();
+    }
+
+    public void update(ManageOrdersActivity.OrderInfo order, String newStatus, UpdateCallback callback) {
+        DatabaseReference statusRef = rootRef.child("orders").child(order.userId)
+                .child(order.orderId).child("status");
+        // Set by each run of the transaction; after it completes, the status the committed run replaced
+        AtomicReference<String> replaced = new AtomicReference<>();
+
+        statusRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                String current = currentData.getValue(String.class);
+                replaced.set(current);
+                // Nothing cached locally, or no such order: write nothing, so the server
+                // either reruns this with its value or confirms the order is gone
+                if (current != null) {
+                    currentData.setValue(newStatus);
+                }
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null || !committed) {
+                    String message = error != null ? error.getMessage() : "Status update not committed";
+                    Log.e(TAG, "❌ Failed to update status of " + order.orderId + ": " + message);
+                    callback.onComplete(false, message);
+                    return;
+                }
+
+                String oldStatus = replaced.get();
+                if (oldStatus == null) {
+                    callback.onComplete(false, "Order not found");
+                    return;
+                }
+                moveIndexAndCounters(order, oldStatus, newStatus, callback);
+            }
+        });
+    }
+
+    private void moveIndexAndCounters(ManageOrdersActivity.OrderInfo order, String oldStatus, String newStatus,
+                              UpdateCallback callback) {
+        Map<String, Object> updates = new HashMap<>();
+        OrderIndex.addStatusChange(updates, order.indexKey, oldStatus, newStatus);
+        StatsRollupManager.addStatusChange(updates, order.orderDate, order.timestamp, oldStatus, newStatus);
+
+        rootRef.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "✅ Order " + order.orderId + " moved from " + oldStatus + " to " + newStatus);
+                    callback.onComplete(true, null);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Status of " + order.orderId + " changed but index and counters not updated: " + e.getMessage());
+                    callback.onComplete(false, e.getMessage());
+                });
+    }
+
+    public interface UpdateCallback {
+        void onComplete(boolean success, String message);
+    }
+}
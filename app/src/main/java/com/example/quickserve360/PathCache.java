@@ -0,0 +1,283 @@
+package com.example.quickserve360;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide read layer shared by the repositories.
+ *
+ * For each database path it:
+ *  - merges concurrent one-off reads into a single request,
+ *  - keeps one live ValueEventListener however many screens observe it,
+ *    detaching it when the last observer goes away,
+ *  - keeps the last snapshot in memory, fresh for the caller's TTL, or for
+ *    as long as a live listener keeps it current,
+ *  - parses each snapshot at most once per parser,
+ *  - forgets a path once its snapshot has outlived the longest TTL asked
+ *    for it and nothing observes or waits on it.
+ *
+ * Parsed values are shared by every caller, so treat them as read-only, and
+ * use long-lived parser instances so the per-parser cache can hit.
+ *
+ * Main thread only; Firebase already delivers its callbacks there.
+ */
+public class PathCache {
+    private static final String TAG = "PathCache";
+
+    private static PathCache instance;
+
+    private final FirebaseDatabase database;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public static synchronized PathCache getInstance() {
+        if (instance == null) {
+            instance = new PathCache(FirebaseDatabase.getInstance());
+        }
+        return instance;
+    }
+
+    private PathCache(FirebaseDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Delivers the value at path once, from memory when it is younger than
+     * ttlMs or kept live by an observer, otherwise from a single shared read.
+     */
+    public <T> void get(String path, long ttlMs, Parser<T> parser, Callback<T> callback) {
+        Entry entry = entry(path);
+        entry.ttlMs = Math.max(entry.ttlMs, ttlMs);
+        if (entry.snapshot != null && (entry.isLive() || entry.ageMs() < ttlMs)) {
+            T value = entry.parsed(parser);
+            // Keep delivery asynchronous, like a database read
+            mainHandler.post(() -> callback.onLoaded(value));
+            return;
+        }
+
+        entry.waiters.add(new Waiter<>(parser, callback));
+        // A live listener that hasn't delivered yet will answer the waiter too
+        if (entry.readInFlight || entry.isLive()) return;
+
+        entry.readInFlight = true;
+        entry.ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                entry.readInFlight = false;
+                entry.update(snapshot);
+                entry.deliverToWaiters();
+                scheduleExpiry(entry);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                entry.readInFlight = false;
+                Log.e(TAG, "❌ Read of " + path + " failed: " + error.getMessage());
+                entry.failWaiters(error.getMessage());
+                scheduleExpiry(entry);
+            }
+        });
+    }
+
+    /**
+     * Delivers the value at path now (if known) and on every change, until the
+     * returned subscription is removed.
+     */
+    public <T> Subscription observe(String path, Parser<T> parser, Callback<T> callback) {
+        Entry entry = entry(path);
+        Waiter<T> observer = new Waiter<>(parser, callback);
+        entry.observers.add(observer);
+
+        if (entry.observers.size() == 1) {
+            entry.attach();
+        } else if (entry.snapshot != null) {
+            T value = entry.parsed(parser);
+            mainHandler.post(() -> {
+                if (entry.observers.contains(observer)) callback.onLoaded(value);
+            });
+        }
+
+        return () -> {
+            if (!entry.observers.remove(observer)) return;
+            if (entry.observers.isEmpty()) {
+                entry.detach();
+                scheduleExpiry(entry);
+            }
+        };
+    }
+
+    /**
+     * Drops the cached value for path, so the next get() reads it again.
+     * Call after writing to a path that is read with a TTL.
+     */
+    public void invalidate(String path) {
+        Entry entry = entries.get(path);
+        if (entry != null && !entry.isLive()) {
+            entry.snapshot = null;
+            entry.parsedValues.clear();
+        }
+    }
+
+    // Checks again once the snapshot would be older than the entry's TTL
+    private void scheduleExpiry(Entry entry) {
+        long delayMs = entry.snapshot != null ? Math.max(0, entry.ttlMs - entry.ageMs()) : 0;
+        mainHandler.postDelayed(() -> expire(entry), delayMs);
+    }
+
+    private void expire(Entry entry) {
+        if (entries.get(entry.path) != entry || entry.isLive() || entry.readInFlight
+                || !entry.waiters.isEmpty()) {
+            return;
+        }
+        if (entry.snapshot != null && entry.ageMs() < entry.ttlMs) {
+            // Refreshed since this check was scheduled
+            scheduleExpiry(entry);
+            return;
+        }
+        entries.remove(entry.path);
+    }
+
+    private Entry entry(String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            entry = new Entry(path, database.getReference(path));
+            entries.put(path, entry);
+        }
+        return entry;
+    }
+
+    // Not static, so a cancelled listener can schedule its own expiry
+    private class Entry {
+        final String path;
+        final DatabaseReference ref;
+        DataSnapshot snapshot;
+        long loadedAt;
+        // Parsed forms of the current snapshot, keyed by parser
+        final Map<Parser<?>, Object> parsedValues = new IdentityHashMap<>();
+        boolean readInFlight = false;
+        // Longest TTL any get() has asked for; the snapshot is kept at least that long
+        long ttlMs = 0;
+        final List<Waiter<?>> waiters = new ArrayList<>();
+        final List<Waiter<?>> observers = new ArrayList<>();
+        ValueEventListener liveListener;
+
+        Entry(String path, DatabaseReference ref) {
+            this.path = path;
+            this.ref = ref;
+        }
+
+        boolean isLive() {
+            return liveListener != null;
+        }
+
+        long ageMs() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+
+        void update(DataSnapshot newSnapshot) {
+            snapshot = newSnapshot;
+            loadedAt = System.currentTimeMillis();
+            parsedValues.clear();
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T parsed(Parser<T> parser) {
+            if (parsedValues.containsKey(parser)) {
+                return (T) parsedValues.get(parser);
+            }
+            T value = parser.parse(snapshot);
+            parsedValues.put(parser, value);
+            return value;
+        }
+
+        void deliverToWaiters() {
+            List<Waiter<?>> pending = new ArrayList<>(waiters);
+            waiters.clear();
+            for (Waiter<?> waiter : pending) waiter.deliver(this);
+        }
+
+        void failWaiters(String message) {
+            List<Waiter<?>> pending = new ArrayList<>(waiters);
+            waiters.clear();
+            for (Waiter<?> waiter : pending) waiter.callback.onError(message);
+        }
+
+        void attach() {
+            liveListener = new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot newSnapshot) {
+                    update(newSnapshot);
+                    for (Waiter<?> observer : new ArrayList<>(observers)) observer.deliver(Entry.this);
+                    // A one-off read may be waiting on the same path
+                    deliverToWaiters();
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    Log.e(TAG, "❌ Listener on " + path + " cancelled: " + error.getMessage());
+                    liveListener = null;
+                    ListenerRegistry.getInstance().onDetached(path);
+                    // Observers are dropped; observing the path again re-attaches
+                    List<Waiter<?>> cancelled = new ArrayList<>(observers);
+                    observers.clear();
+                    for (Waiter<?> observer : cancelled) observer.callback.onError(error.getMessage());
+                    failWaiters(error.getMessage());
+                    scheduleExpiry(Entry.this);
+                }
+            };
+            ref.addValueEventListener(liveListener);
+            ListenerRegistry.getInstance().onAttached(path);
+        }
+
+        void detach() {
+            if (liveListener == null) return;
+            ref.removeEventListener(liveListener);
+            liveListener = null;
+            ListenerRegistry.getInstance().onDetached(path);
+            // The snapshot stays cached; it now ages like a one-off read
+            loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static class Waiter<T> {
+        final Parser<T> parser;
+        final Callback<T> callback;
+
+        Waiter(Parser<T> parser, Callback<T> callback) {
+            this.parser = parser;
+            this.callback = callback;
+        }
+
+        void deliver(Entry entry) {
+            callback.onLoaded(entry.parsed(parser));
+        }
+    }
+
+    public interface Parser<T> {
+        T parse(DataSnapshot snapshot);
+    }
+
+    public interface Callback<T> {
+        void onLoaded(T value);
+        void onError(String message);
+    }
+
+    public interface Subscription {
+        void remove();
+    }
+}
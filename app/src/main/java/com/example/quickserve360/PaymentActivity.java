@@ -23,14 +23,24 @@ public class PaymentActivity extends AppCompatActivity {
     private double totalAmount;
     private int cartItemsCount;
 
-    private DatabaseReference cartRef, ordersRef;
+    private static final String STATE_ORDER_ID = "checkoutOrderId";
+
+    private String cartUserId;
     private List<CartItem> cartItems = new ArrayList<>();
+    // One per checkout, so retries after a failure reuse the same order ID
+    private CheckoutPipeline checkoutPipeline;
+    private String restoredOrderId;
+    private final PaymentProcessor paymentProcessor = new PaymentProcessor(PaymentGateway.fromBuildConfig());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_payment);
 
+        if (savedInstanceState != null) {
+            restoredOrderId = savedInstanceState.getString(STATE_ORDER_ID);
+        }
+
         try {
             initializeViews();
             initializeFirebase();
@@ -42,6 +52,14 @@ public class PaymentActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (checkoutPipeline != null) {
+            outState.putString(STATE_ORDER_ID, checkoutPipeline.getOrderId());
+        }
+    }
+
     private void initializeViews() {
         try {
             billItemsContainer = findViewById(R.id.billItemsContainer);
@@ -68,9 +86,7 @@ public class PaymentActivity extends AppCompatActivity {
 
     private void initializeFirebase() {
         try {
-            String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-            cartRef = FirebaseDatabase.getInstance().getReference("users").child(userId).child("cart");
-            ordersRef = FirebaseDatabase.getInstance().getReference("orders");
+            cartUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
         } catch (Exception e) {
             Toast.makeText(this, "Firebase initialization failed", Toast.LENGTH_SHORT).show();
         }
@@ -78,16 +94,16 @@ public class PaymentActivity extends AppCompatActivity {
 
     private void loadCartItems() {
         try {
-            cartRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            OrderRepository.getInstance().getCart(cartUserId, new PathCache.Callback<List<CartItem>>() {
                 @Override
-                public void onDataChange(DataSnapshot snapshot) {
+                public void onLoaded(List<CartItem> items) {
                     try {
                         cartItems.clear();
                         billItemsContainer.removeAllViews();
 
-                        for (DataSnapshot ds : snapshot.getChildren()) {
-                            CartItem item = ds.getValue(CartItem.class);
-                            if (item != null) addBillItem(item);
+                        for (CartItem item : items) {
+                            cartItems.add(item);
+                            addBillItem(item);
                         }
                     } catch (Exception e) {
                         Toast.makeText(PaymentActivity.this, "Error displaying cart items", Toast.LENGTH_SHORT).show();
@@ -95,7 +111,7 @@ public class PaymentActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(DatabaseError error) {
+                public void onError(String message) {
                     Toast.makeText(PaymentActivity.this, "Failed to load cart items", Toast.LENGTH_SHORT).show();
                 }
             });
@@ -233,23 +249,54 @@ public class PaymentActivity extends AppCompatActivity {
 
     private void processOnlinePayment(String paymentMethod) {
         try {
-            new android.os.Handler().postDelayed(() -> {
-                try {
-                    completeOrder(paymentMethod);
-                } catch (Exception e) {
-                    Toast.makeText(this, "Order completion failed", Toast.LENGTH_SHORT).show();
+            // The order ID is the payment's idempotency key, so a retried payment is never charged twice
+            String orderId = getCheckoutPipeline().getOrderId();
+            PaymentGateway.PaymentRequest request =
+                    new PaymentGateway.PaymentRequest(orderId, totalAmount, paymentMethod);
+
+            paymentProcessor.pay(request, new PaymentProcessor.PaymentCallback() {
+                @Override
+                public void onPaymentSucceeded(String transactionId) {
+                    try {
+                        completeOrder(paymentMethod);
+                    } catch (Exception e) {
+                        Toast.makeText(PaymentActivity.this, "Order completion failed", Toast.LENGTH_SHORT).show();
+                    }
                 }
-            }, 2000);
+
+                @Override
+                public void onPaymentFailed(String message) {
+                    Toast.makeText(PaymentActivity.this, "Payment failed: " + message, Toast.LENGTH_SHORT).show();
+                    btnConfirmPayment.setEnabled(true);
+                    btnConfirmPayment.setText("Confirm Payment");
+                }
+            });
         } catch (Exception e) {
-            Toast.makeText(this, "Payment simulation failed", Toast.LENGTH_SHORT).show();
+            Toast.makeText(this, "Payment processing failed", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private CheckoutPipeline getCheckoutPipeline() {
+        if (checkoutPipeline == null) {
+            String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
+            String orderId = restoredOrderId != null ? restoredOrderId : generateOrderId();
+            checkoutPipeline = new CheckoutPipeline(userId, orderId, restoredOrderId != null);
         }
+        return checkoutPipeline;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        paymentProcessor.cancel();
     }
 
     private void completeOrder(String paymentMethod) {
         try {
-            String orderId = generateOrderId();
             String userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
+            String orderId = getCheckoutPipeline().getOrderId();
             String deliveryAddress = getDeliveryAddressString();
+            long timestamp = getCheckoutPipeline().getTimestamp();
 
             Order order = new Order(
                     orderId,
@@ -258,26 +305,31 @@ public class PaymentActivity extends AppCompatActivity {
                     totalAmount,
                     paymentMethod,
                     "Pending",
-                    new SimpleDateFormat("dd-MM-yyyy HH:mm", Locale.getDefault()).format(new Date()),
+                    new SimpleDateFormat("dd-MM-yyyy HH:mm", Locale.getDefault()).format(new Date(timestamp)),
                     deliveryAddress
             );
+            order.setTimestamp(timestamp);
 
-            ordersRef.child(userId).child(orderId).setValue(order)
-                    .addOnSuccessListener(aVoid -> {
-                        clearCart();
-                        Intent intent = new Intent(PaymentActivity.this, OrderConfirmationActivity.class);
-                        intent.putExtra("ORDER_ID", orderId);
-                        intent.putExtra("TOTAL_AMOUNT", totalAmount);
-                        intent.putExtra("PAYMENT_METHOD", paymentMethod);
-                        intent.putExtra("DELIVERY_ADDRESS", deliveryAddress);
-                        startActivity(intent);
-                        finish();
-                    })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(this, "Order failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        btnConfirmPayment.setEnabled(true);
-                        btnConfirmPayment.setText("Confirm Payment");
-                    });
+            // Order, index entries, statistics and cart clear commit together or not at all
+            checkoutPipeline.commit(order, new CheckoutPipeline.CheckoutCallback() {
+                @Override
+                public void onCheckoutComplete(String placedOrderId) {
+                    Intent intent = new Intent(PaymentActivity.this, OrderConfirmationActivity.class);
+                    intent.putExtra("ORDER_ID", placedOrderId);
+                    intent.putExtra("TOTAL_AMOUNT", totalAmount);
+                    intent.putExtra("PAYMENT_METHOD", paymentMethod);
+                    intent.putExtra("DELIVERY_ADDRESS", deliveryAddress);
+                    startActivity(intent);
+                    finish();
+                }
+
+                @Override
+                public void onCheckoutFailed(String message) {
+                    Toast.makeText(PaymentActivity.this, "Order failed: " + message, Toast.LENGTH_SHORT).show();
+                    btnConfirmPayment.setEnabled(true);
+                    btnConfirmPayment.setText("Confirm Payment");
+                }
+            });
         } catch (Exception e) {
             Toast.makeText(this, "Error creating order", Toast.LENGTH_SHORT).show();
         }
@@ -295,23 +347,7 @@ public class PaymentActivity extends AppCompatActivity {
     }
 
     private String generateOrderId() {
-        try {
-            return "ORD" + System.currentTimeMillis();
-        } catch (Exception e) {
-            Toast.makeText(this, "Error generating order ID", Toast.LENGTH_SHORT).show();
-            return "ORD_ERROR";
-        }
-    }
-
-    private void clearCart() {
-        try {
-            cartRef.removeValue()
-                    .addOnSuccessListener(aVoid -> { })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(this, "Note: Cart not cleared automatically", Toast.LENGTH_SHORT).show();
-                    });
-        } catch (Exception e) {
-            Toast.makeText(this, "Error clearing cart", Toast.LENGTH_SHORT).show();
-        }
+        // Unique across devices and ordered by time, so orders can be range-scanned by key
+        return OrderIdGenerator.next();
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.quickserve360;
+
+/**
+ * Asynchronous payment provider used for online (UPI/Card) checkouts.
+ *
+ * A payment is authorized first and then captured. Implementations must call
+ * back exactly once per request, on the main thread, and must treat the
+ * request's idempotency key as identifying the payment, so a retried
+ * authorization never charges twice.
+ */
+public interface PaymentGateway {
+
+    /**
+     * The gateway this build is configured for, from the paymentGateway and
+     * paymentGatewayLatencyMs Gradle properties.
+     */
+    static PaymentGateway fromBuildConfig() {
+        switch (BuildConfig.PAYMENT_GATEWAY) {
+            case "local":
+                return new LocalPaymentGateway(BuildConfig.PAYMENT_GATEWAY_LATENCY_MS);
+            default:
+                throw new IllegalStateException("Unknown payment gateway: " + BuildConfig.PAYMENT_GATEWAY);
+        }
+    }
+
+    void authorize(PaymentRequest request, GatewayCallback callback);
+
+    void capture(String authorizationId, PaymentRequest request, GatewayCallback callback);
+
+    interface GatewayCallback {
+        // reference is the authorization ID for authorize, the transaction ID for capture
+        void onSuccess(String reference);
+
+        /**
+         * @param retryable true for transient problems such as network errors;
+         *                  false when the payment was declined
+         */
+        void onFailure(String message, boolean retryable);
+    }
+
+    class PaymentRequest {
+        public final String idempotencyKey;
+        public final double amount;
+        public final String method;
+
+        public PaymentRequest(String idempotencyKey, double amount, String method) {
+            this.idempotencyKey = idempotencyKey;
+            this.amount = amount;
+            this.method = method;
+        }
+    }
+}
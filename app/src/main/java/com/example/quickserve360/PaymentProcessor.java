@@ -0,0 +1,135 @@
+package com.example.quickserve360;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Runs a payment through a {@link PaymentGateway}: authorize, then capture.
+ *
+ * Each gateway call gets a timeout, and calls that time out or fail with a
+ * retryable error are retried with exponential backoff. A response arriving
+ * after its call timed out is ignored. Retries reuse the request's
+ * idempotency key, so the gateway sees them as the same payment.
+ *
+ * Use from the main thread.
+ */
+public class PaymentProcessor {
+    private static final String TAG = "PaymentProcessor";
+    private static final long CALL_TIMEOUT_MS = 15000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MS = 500;
+
+    private final PaymentGateway gateway;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private boolean cancelled = false;
+
+    public PaymentProcessor(PaymentGateway gateway) {
+        this.gateway = gateway;
+    }
+
+    public void pay(PaymentGateway.PaymentRequest request, PaymentCallback callback) {
+        cancelled = false;
+        call("authorize", gatewayCallback -> gateway.authorize(request, gatewayCallback),
+                new Step() {
+                    @Override
+                    public void onSuccess(String authorizationId) {
+                        capture(authorizationId, request, callback);
+                    }
+
+                    @Override
+                    public void onFailure(String message) {
+                        callback.onPaymentFailed(message);
+                    }
+                });
+    }
+
+    /**
+     * Drops any callbacks still to come, e.g. when the screen is closed.
+     */
+    public void cancel() {
+        cancelled = true;
+        handler.removeCallbacksAndMessages(null);
+    }
+
+    private void capture(String authorizationId, PaymentGateway.PaymentRequest request, PaymentCallback callback) {
+        call("capture", gatewayCallback -> gateway.capture(authorizationId, request, gatewayCallback),
+                new Step() {
+                    @Override
+                    public void onSuccess(String transactionId) {
+                        Log.d(TAG, "✅ Payment captured: " + transactionId);
+                        callback.onPaymentSucceeded(transactionId);
+                    }
+
+                    @Override
+                    public void onFailure(String message) {
+                        callback.onPaymentFailed(message);
+                    }
+                });
+    }
+
+    private void call(String name, GatewayCall gatewayCall, Step step) {
+        attempt(name, gatewayCall, step, 1, INITIAL_BACKOFF_MS);
+    }
+
+    private void attempt(String name, GatewayCall gatewayCall, Step step, int attempt, long backoffMs) {
+        if (cancelled) return;
+
+        // Settled by whichever comes first: the gateway's answer or the timeout
+        boolean[] settled = {false};
+        Runnable timeout = () -> {
+            if (settled[0]) return;
+            settled[0] = true;
+            Log.w(TAG, name + " attempt " + attempt + " timed out");
+            retryOrFail(name, gatewayCall, step, attempt, backoffMs, "Payment gateway timed out");
+        };
+        handler.postDelayed(timeout, CALL_TIMEOUT_MS);
+
+        gatewayCall.invoke(new PaymentGateway.GatewayCallback() {
+            @Override
+            public void onSuccess(String reference) {
+                if (settled[0] || cancelled) return;
+                settled[0] = true;
+                handler.removeCallbacks(timeout);
+                step.onSuccess(reference);
+            }
+
+            @Override
+            public void onFailure(String message, boolean retryable) {
+                if (settled[0] || cancelled) return;
+                settled[0] = true;
+                handler.removeCallbacks(timeout);
+                Log.w(TAG, name + " attempt " + attempt + " failed: " + message);
+                if (retryable) {
+                    retryOrFail(name, gatewayCall, step, attempt, backoffMs, message);
+                } else {
+                    step.onFailure(message);
+                }
+            }
+        });
+    }
+
+    private void retryOrFail(String name, GatewayCall gatewayCall, Step step,
+                             int attempt, long backoffMs, String message) {
+        if (attempt >= MAX_ATTEMPTS) {
+            Log.e(TAG, "❌ " + name + " failed after " + attempt + " attempts: " + message);
+            step.onFailure(message);
+            return;
+        }
+        handler.postDelayed(() -> attempt(name, gatewayCall, step, attempt + 1, backoffMs * 2), backoffMs);
+    }
+
+    private interface GatewayCall {
+        void invoke(PaymentGateway.GatewayCallback callback);
+    }
+
+    private interface Step {
+        void onSuccess(String reference);
+        void onFailure(String message);
+    }
+
+    public interface PaymentCallback {
+        void onPaymentSucceeded(String transactionId);
+        void onPaymentFailed(String message);
+    }
+}
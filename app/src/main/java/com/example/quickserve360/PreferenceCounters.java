@@ -0,0 +1,178 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts how many users prefer each cuisine and food type, under
+ * PreferenceCounters/{dimension}/{value}/{shard}, so the admin charts never
+ * have to walk UserPreferences.
+ *
+ * Each counter is split into SHARDS children and a user always counts in the
+ * shard picked by their ID, so saves from many users spread over several
+ * nodes instead of all incrementing one. A value's count is the sum of its
+ * shards.
+ */
+public class PreferenceCounters {
+    private static final String TAG = "PreferenceCounters";
+    static final String NODE = "PreferenceCounters";
+    static final String CUISINE = "cuisine";
+    static final String FOOD_TYPE = "foodType";
+    static final int SHARDS = 8;
+
+    private FirebaseDatabase database;
+
+    public PreferenceCounters() {
+        this.database = FirebaseDatabase.getInstance();
+    }
+
+    /**
+     * Adds the counter adjustments for a user's preferences changing from
+     * before to after (either may be null) to a multi-path update.
+     */
+    public static void addChangeIncrements(Map<String, Object> updates, String userId,
+                                           UserRepository.Preferences before,
+                                           UserRepository.Preferences after) {
+        addChange(updates, userId, CUISINE,
+                before != null ? before.cuisine : null, after != null ? after.cuisine : null);
+        addChange(updates, userId, FOOD_TYPE,
+                before != null ? before.foodType : null, after != null ? after.foodType : null);
+    }
+
+    private static void addChange(Map<String, Object> updates, String userId, String dimension,
+                                  String oldValue, String newValue) {
+        if (oldValue == null ? newValue == null : oldValue.equals(newValue)) return;
+
+        if (oldValue != null) {
+            updates.put(shardPath(dimension, oldValue, userId), ServerValue.increment(-1));
+        }
+        if (newValue != null) {
+            updates.put(shardPath(dimension, newValue, userId), ServerValue.increment(1));
+        }
+    }
+
+    /**
+     * Loads the user count for every value of a dimension (CUISINE or
+     * FOOD_TYPE), summed over shards. Values nobody prefers are left out.
+     */
+    public void loadCounts(String dimension, CountsCallback callback) {
+        database.getReference(NODE).child(dimension).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Integer> counts = new HashMap<>();
+                for (DataSnapshot valueSnapshot : snapshot.getChildren()) {
+                    int total = 0;
+                    for (DataSnapshot shard : valueSnapshot.getChildren()) {
+                        Long count = shard.getValue(Long.class);
+                        if (count != null) total += count;
+                    }
+                    if (total > 0) {
+                        counts.put(StatsRollupManager.decodeKey(valueSnapshot.getKey()), total);
+                    }
+                }
+                callback.onCountsLoaded(counts);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to load " + dimension + " counters: " + error.getMessage());
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Regenerates every counter from UserPreferences.
+     * Maintenance tool for backfilling or repairing counters; preferences saved
+     * while it runs may need another rebuild.
+     */
+    public void rebuildFromPreferences(UpdateCallback callback) {
+        database.getReference("UserPreferences").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                // Laid out like the counters node: dimension -> value -> shard -> count
+                Map<String, Map<String, Map<String, Long>>> counters = new HashMap<>();
+                int users = 0;
+
+                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
+                    try {
+                        UserRepository.Preferences preferences = userSnapshot.getValue(UserRepository.Preferences.class);
+                        if (preferences == null) continue;
+                        String shard = shardKey(userSnapshot.getKey());
+                        count(counters, CUISINE, preferences.cuisine, shard);
+                        count(counters, FOOD_TYPE, preferences.foodType, shard);
+                        users++;
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error processing preferences: " + e.getMessage());
+                    }
+                }
+
+                final int processed = users;
+                database.getReference(NODE).setValue(counters)
+                        .addOnSuccessListener(aVoid -> {
+                            Log.d(TAG, "✅ Rebuilt preference counters from " + processed + " users");
+                            callback.onComplete(true, "Rebuilt preference counters from " + processed + " users");
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "❌ Failed to write preference counters: " + e.getMessage());
+                            callback.onComplete(false, e.getMessage());
+                        });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to fetch preferences: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
+    }
+
+    private static void count(Map<String, Map<String, Map<String, Long>>> counters,
+                              String dimension, String value, String shard) {
+        if (value == null) return;
+
+        Map<String, Map<String, Long>> values = counters.get(dimension);
+        if (values == null) {
+            values = new HashMap<>();
+            counters.put(dimension, values);
+        }
+        String valueKey = StatsRollupManager.encodeKey(value);
+        Map<String, Long> shards = values.get(valueKey);
+        if (shards == null) {
+            shards = new HashMap<>();
+            values.put(valueKey, shards);
+        }
+        Long current = shards.get(shard);
+        shards.put(shard, (current == null ? 0 : current) + 1);
+    }
+
+    private static String shardPath(String dimension, String value, String userId) {
+        return NODE + "/" + dimension + "/" + StatsRollupManager.encodeKey(value) + "/" + shardKey(userId);
+    }
+
+    // Fixed per user, so a user's decrement always lands on the shard holding their increment.
+    // Prefixed so Firebase doesn't read the shards back as an array.
+    static String shardKey(String userId) {
+        return "s" + (userId.hashCode() & 0x7fffffff) % SHARDS;
+    }
+
+    // Callback interfaces
+    public interface CountsCallback {
+        void onCountsLoaded(Map<String, Integer> counts);
+        void onError(String message);
+    }
+
+    public interface UpdateCallback {
+        void onComplete(boolean success, String message);
+    }
+}
@@ -17,14 +17,10 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PreferencesActivity extends AppCompatActivity {
@@ -35,7 +31,6 @@ public class PreferencesActivity extends AppCompatActivity {
     private Button saveButton;
     private ImageView ivBack;
 
-    private DatabaseReference databaseReference;
     private String userId;
 
     private ArrayList<String> cuisineList = new ArrayList<>();  // list for spinner
@@ -53,9 +48,7 @@ public class PreferencesActivity extends AppCompatActivity {
             return insets;
         });
 
-        // Firebase references
         userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        databaseReference = FirebaseDatabase.getInstance().getReference();
 
         // Initialize UI
         ivBack = findViewById(R.id.ivBack);
@@ -75,20 +68,12 @@ public class PreferencesActivity extends AppCompatActivity {
     }
 
     private void loadCuisinesFromFirebase() {
-        DatabaseReference cuisinesRef = databaseReference.child("Cuisines");
-
-        cuisinesRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        RestaurantRepository.getInstance().getCuisineNames(new PathCache.Callback<List<String>>() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
+            public void onLoaded(List<String> cuisineNames) {
                 cuisineList.clear();
                 cuisineList.add("Select Cuisine"); // default option
-
-                for (DataSnapshot cuisineSnap : snapshot.getChildren()) {
-                    String cuisineName = cuisineSnap.child("name").getValue(String.class);
-                    if (cuisineName != null) {
-                        cuisineList.add(cuisineName);
-                    }
-                }
+                cuisineList.addAll(cuisineNames);
 
                 // Set the adapter after loading data
                 ArrayAdapter<String> adapter = new ArrayAdapter<>(
@@ -101,7 +86,7 @@ public class PreferencesActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(DatabaseError error) {
+            public void onError(String message) {
                 Toast.makeText(PreferencesActivity.this, "Failed to load cuisines", Toast.LENGTH_SHORT).show();
             }
         });
@@ -124,7 +109,7 @@ public class PreferencesActivity extends AppCompatActivity {
         preferences.put("budget", budget);
         preferences.put("foodType", foodType);
 
-        databaseReference.child("UserPreferences").child(userId).setValue(preferences)
+        UserRepository.getInstance().savePreferences(userId, preferences)
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(this, "Preferences Saved!", Toast.LENGTH_SHORT).show();
 
@@ -13,18 +13,12 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
 
 public class PreferencesRestaurantsActivity extends AppCompatActivity {
 
     private ListView restaurantsListView;
-    private DatabaseReference dbRef;
     private String userId;
     private ImageView ivBack;
 
@@ -52,9 +46,7 @@ public class PreferencesRestaurantsActivity extends AppCompatActivity {
         // Back button functionality
         ivBack.setOnClickListener(v -> finish());
 
-        // Firebase references
         userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
-        dbRef = FirebaseDatabase.getInstance().getReference();
 
         // Set click listener to open dishes page
         restaurantsListView.setOnItemClickListener((parent, view, position, id) -> {
@@ -70,92 +62,69 @@ public class PreferencesRestaurantsActivity extends AppCompatActivity {
     }
 
     private void loadRestaurantsMatchingPreferences() {
-        dbRef.child("users").child(userId).child("selectedCity")
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot citySnapshot) {
-                        final String selectedCity = citySnapshot.getValue(String.class);
+        // Both usually come from memory: the home screen and preferences screen just read them
+        UserRepository users = UserRepository.getInstance();
+        users.getSelectedCity(userId, new PathCache.Callback<String>() {
+            @Override
+            public void onLoaded(String selectedCity) {
+                if (selectedCity == null || selectedCity.isEmpty()) {
+                    Toast.makeText(PreferencesRestaurantsActivity.this, "No city selected", Toast.LENGTH_SHORT).show();
+                    return;
+                }
 
-                        if (selectedCity == null || selectedCity.isEmpty()) {
-                            Toast.makeText(PreferencesRestaurantsActivity.this, "No city selected", Toast.LENGTH_SHORT).show();
+                users.getPreferences(userId, new PathCache.Callback<UserRepository.Preferences>() {
+                    @Override
+                    public void onLoaded(UserRepository.Preferences preferences) {
+                        if (preferences == null) {
+                            Toast.makeText(PreferencesRestaurantsActivity.this, "No preferences found", Toast.LENGTH_SHORT).show();
                             return;
                         }
 
-                        dbRef.child("UserPreferences").child(userId)
-                                .addListenerForSingleValueEvent(new ValueEventListener() {
-                                    @Override
-                                    public void onDataChange(DataSnapshot prefsSnapshot) {
-                                        if (!prefsSnapshot.exists()) {
-                                            Toast.makeText(PreferencesRestaurantsActivity.this, "No preferences found", Toast.LENGTH_SHORT).show();
-                                            return;
-                                        }
-
-                                        final String preferredCuisine = prefsSnapshot.child("cuisine").getValue(String.class);
-                                        final String preferredFoodType = prefsSnapshot.child("foodType").getValue(String.class);
-                                        String budgetStr = prefsSnapshot.child("budget").getValue(String.class);
-
-                                        double preferredBudget = Double.MAX_VALUE;
-                                        if (budgetStr != null) {
-                                            try {
-                                                preferredBudget = Double.parseDouble(budgetStr);
-                                            } catch (NumberFormatException e) {
-                                                preferredBudget = Double.MAX_VALUE;
-                                            }
-                                        }
-
-                                        fetchRestaurants(selectedCity, preferredCuisine, preferredFoodType, preferredBudget);
-                                    }
-
-                                    @Override
-                                    public void onCancelled(DatabaseError error) {
-                                        Toast.makeText(PreferencesRestaurantsActivity.this, "Error loading preferences", Toast.LENGTH_SHORT).show();
-                                    }
-                                });
+                        double preferredBudget = Double.MAX_VALUE;
+                        if (preferences.budget != null) {
+                            try {
+                                preferredBudget = Double.parseDouble(preferences.budget);
+                            } catch (NumberFormatException e) {
+                                preferredBudget = Double.MAX_VALUE;
+                            }
+                        }
+
+                        fetchRestaurants(selectedCity, preferences.cuisine, preferences.foodType, preferredBudget);
                     }
 
                     @Override
-                    public void onCancelled(DatabaseError error) {
-                        Toast.makeText(PreferencesRestaurantsActivity.this, "Error loading city", Toast.LENGTH_SHORT).show();
+                    public void onError(String message) {
+                        Toast.makeText(PreferencesRestaurantsActivity.this, "Error loading preferences", Toast.LENGTH_SHORT).show();
                     }
                 });
-    }
+            }
 
-    private void fetchRestaurants(final String city, final String cuisine, final String foodType, final double budget) {
-        dbRef.child("Restaurants").addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
-            public void onDataChange(DataSnapshot snapshot) {
-                restaurantList.clear();
-
-                for (DataSnapshot restSnap : snapshot.getChildren()) {
-                    Restaurant r = restSnap.getValue(Restaurant.class);
-
-                    if (r != null) {
-                        boolean matchesCity = r.getLocation() != null && r.getLocation().equalsIgnoreCase(city);
-                        boolean matchesCuisine = r.getCuisine() != null && r.getCuisine().equalsIgnoreCase(cuisine);
-                        boolean matchesBudget = r.getBudget() <= budget;
-
-                        boolean matchesFoodType = true;
-                        if (foodType != null) {
-                            if (foodType.equalsIgnoreCase("Veg")) matchesFoodType = r.isVeg();
-                            else if (foodType.equalsIgnoreCase("Non-Veg")) matchesFoodType = !r.isVeg();
-                        }
-
-                        if (matchesCity && matchesCuisine && matchesBudget && matchesFoodType) {
-                            restaurantList.add(r);
-                        }
-                    }
-                }
-
-                restaurantAdapter.notifyDataSetChanged();
-
-                if (restaurantList.isEmpty()) {
-                    Toast.makeText(PreferencesRestaurantsActivity.this, "No restaurants match your preferences", Toast.LENGTH_SHORT).show();
-                }
+            public void onError(String message) {
+                Toast.makeText(PreferencesRestaurantsActivity.this, "Error loading city", Toast.LENGTH_SHORT).show();
             }
+        });
+    }
 
-            @Override
-            public void onCancelled(DatabaseError error) {
-                Toast.makeText(PreferencesRestaurantsActivity.this, "Failed to load restaurants", Toast.LENGTH_SHORT).show();
+    private void fetchRestaurants(final String city, final String cuisine, final String foodType, final double budget) {
+        RestaurantCatalog.RestaurantQuery query = new RestaurantCatalog.RestaurantQuery()
+                .location(city)
+                .cuisine(cuisine);
+        if (budget != Double.MAX_VALUE) {
+            query.maxBudget(budget);
+        }
+        if (foodType != null) {
+            if (foodType.equalsIgnoreCase("Veg")) query.isVeg(true);
+            else if (foodType.equalsIgnoreCase("Non-Veg")) query.isVeg(false);
+        }
+
+        RestaurantCatalog.getInstance(this).query(query, restaurants -> {
+            restaurantList.clear();
+            restaurantList.addAll(restaurants);
+            restaurantAdapter.notifyDataSetChanged();
+
+            if (restaurantList.isEmpty()) {
+                Toast.makeText(PreferencesRestaurantsActivity.this, "No restaurants match your preferences", Toast.LENGTH_SHORT).show();
             }
         });
     }
@@ -0,0 +1,51 @@
+package com.example.quickserve360;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * App-wide Glide setup, the one image pipeline every screen loads through
+ * (see {@link ImageLoader}).
+ *
+ * Memory cache and bitmap pool are sized from the screen, a couple of
+ * screens' worth of bitmaps each, and the disk cache has a fixed budget.
+ * Every image is a list thumbnail, so decodes default to RGB_565; Glide
+ * still uses hardware bitmaps where the device supports them.
+ */
+@GlideModule
+public final class QuickServeGlideModule extends AppGlideModule {
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    private static final String DISK_CACHE_DIR = "images";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(2)
+                .setBitmapPoolScreens(3)
+                .build();
+
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    // No Glide modules are declared in the manifest; skip looking for them
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
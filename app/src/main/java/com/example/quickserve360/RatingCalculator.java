@@ -3,11 +3,17 @@ package com.example.quickserve360;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.example.quickserve360.analytics.ReviewEvent;
+import com.example.quickserve360.analytics.ReviewStats;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
 
 import java.util.HashMap;
@@ -15,6 +21,8 @@ import java.util.Map;
 
 public class RatingCalculator {
     private static final String TAG = "RatingCalculator";
+    // Per-restaurant ReviewStats.RatingTotals, updated review by review
+    private static final String AGGREGATES_NODE = "RatingAggregates";
     private FirebaseDatabase database;
 
     public RatingCalculator() {
@@ -22,61 +30,134 @@ public class RatingCalculator {
     }
 
     /**
-     * Updates restaurant rating based on all reviews
-     * Called after a new review is submitted
+     * Folds a newly submitted review into the restaurant's running aggregate
+     * and updates the restaurant rating from it.
+     * Called after a new review is submitted; cost does not grow with the
+     * number of reviews the restaurant already has.
      */
-    public void updateRestaurantRating(String restaurantId, UpdateCallback callback) {
-        DatabaseReference reviewsRef = database.getReference("Reviews");
+    public void updateRestaurantRating(Review review, UpdateCallback callback) {
+        String restaurantId = review.restaurantId;
+        double rating = convertSentimentToRating(review.sentimentScore);
+        String sentimentLabel = review.sentimentLabel;
 
-        // Query all reviews for this restaurant
-        reviewsRef.orderByChild("restaurantId").equalTo(restaurantId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
+        Log.d(TAG, "Review sentiment: " + review.sentimentScore + " -> rating: " + rating);
+
+        DatabaseReference aggregateRef = database.getReference(AGGREGATES_NODE).child(restaurantId);
+        aggregateRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                ReviewStats.RatingTotals aggregate = currentData.getValue(ReviewStats.RatingTotals.class);
+                if (aggregate == null) {
+                    aggregate = new ReviewStats.RatingTotals();
+                }
+                aggregate.add(rating, sentimentLabel);
+                currentData.setValue(aggregate);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed,
+                                   @Nullable DataSnapshot currentData) {
+                if (error != null || !committed || currentData == null) {
+                    String message = error != null ? error.getMessage() : "Aggregate update not committed";
+                    Log.e(TAG, "Failed to update rating aggregate: " + message);
+                    callback.onComplete(false, message);
+                    return;
+                }
+
+                ReviewStats.RatingTotals aggregate = currentData.getValue(ReviewStats.RatingTotals.class);
+                if (aggregate == null || aggregate.reviewCount == 0) {
+                    callback.onComplete(false, "No valid reviews");
+                    return;
+                }
+
+                double averageRating = aggregate.averageRating();
+                Log.d(TAG, "Calculated average rating: " + averageRating +
+                        " from " + aggregate.reviewCount + " reviews");
+
+                // Update restaurant rating in Firebase
+                updateRestaurantInDatabase(restaurantId, averageRating, callback);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds every restaurant's aggregate from the Reviews node in a single pass
+     * and rewrites the restaurant ratings and location/rating keys to match.
+     * One-off backfill for data written before aggregates existed, and a repair
+     * path if an aggregate ever drifts from the underlying reviews.
+     */
+    public void rebuildAllAggregates(UpdateCallback callback) {
+        database.getReference("Reviews").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                ReviewStats stats = new ReviewStats();
+                for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
+                    Review review = reviewSnapshot.getValue(Review.class);
+                    if (review == null) continue;
+                    stats.add(new ReviewEvent(review.restaurantId, review.sentimentScore, review.sentimentLabel));
+                }
+
+                Map<String, ReviewStats.RatingTotals> aggregates = stats.restaurants();
+
+                // Restaurant locations are needed for the location/rating keys
+                database.getReference("Restaurants").addListenerForSingleValueEvent(new ValueEventListener() {
                     @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        if (!snapshot.exists()) {
-                            Log.w(TAG, "No reviews found for restaurant: " + restaurantId);
-                            callback.onComplete(false, "No reviews found");
-                            return;
-                        }
-
-                        // Calculate average rating from sentiment scores
-                        double totalRating = 0;
-                        int reviewCount = 0;
-
-                        for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
-                            Review review = reviewSnapshot.getValue(Review.class);
-                            if (review != null) {
-                                // Convert sentiment score (0-1) to rating (1-5)
-                                double rating = convertSentimentToRating(review.sentimentScore);
-                                totalRating += rating;
-                                reviewCount++;
-
-                                Log.d(TAG, "Review sentiment: " + review.sentimentScore +
-                                        " -> rating: " + rating);
-                            }
-                        }
-
-                        if (reviewCount > 0) {
-                            double averageRating = totalRating / reviewCount;
-                            // Round to 1 decimal place
-                            averageRating = Math.round(averageRating * 10.0) / 10.0;
-
-                            Log.d(TAG, "Calculated average rating: " + averageRating +
-                                    " from " + reviewCount + " reviews");
-
-                            // Update restaurant rating in Firebase
-                            updateRestaurantInDatabase(restaurantId, averageRating, callback);
-                        } else {
-                            callback.onComplete(false, "No valid reviews");
-                        }
+                    public void onDataChange(@NonNull DataSnapshot restaurantsSnapshot) {
+                        writeRebuiltRatings(aggregates, restaurantsSnapshot, callback);
                     }
 
                     @Override
                     public void onCancelled(@NonNull DatabaseError error) {
-                        Log.e(TAG, "Failed to fetch reviews: " + error.getMessage());
+                        Log.e(TAG, "Failed to fetch restaurants: " + error.getMessage());
                         callback.onComplete(false, error.getMessage());
                     }
                 });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to fetch reviews: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
+    }
+
+    private void writeRebuiltRatings(Map<String, ReviewStats.RatingTotals> aggregates, DataSnapshot restaurantsSnapshot,
+                                     UpdateCallback callback) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(AGGREGATES_NODE, aggregates);
+
+        // Also backfills the location/rating key for restaurants without reviews
+        for (DataSnapshot restaurantSnapshot : restaurantsSnapshot.getChildren()) {
+            String restaurantId = restaurantSnapshot.getKey();
+            ReviewStats.RatingTotals aggregate = aggregates.get(restaurantId);
+
+            Double storedRating = restaurantSnapshot.child("rating").getValue(Double.class);
+            double rating = aggregate != null ? aggregate.averageRating() : (storedRating != null ? storedRating : 0.0);
+            String location = restaurantSnapshot.child("location").getValue(String.class);
+            String key = RestaurantIndex.locationRatingKey(location, rating);
+
+            boolean ratingChanged = storedRating == null || storedRating != rating;
+            boolean keyChanged = !key.equals(restaurantSnapshot.child(RestaurantIndex.LOCATION_RATING).getValue(String.class));
+            if (!ratingChanged && !keyChanged) continue;
+
+            String base = "Restaurants/" + restaurantId + "/";
+            updates.put(base + "rating", rating);
+            updates.put(base + RestaurantIndex.LOCATION_RATING, key);
+            updates.put(base + "updatedAt", ServerValue.TIMESTAMP);
+        }
+
+        database.getReference().updateChildren(updates)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "✅ Rebuilt rating aggregates for " + aggregates.size() + " restaurants");
+                    callback.onComplete(true, "Rebuilt " + aggregates.size() + " restaurant ratings");
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Failed to rebuild rating aggregates: " + e.getMessage());
+                    callback.onComplete(false, e.getMessage());
+                });
     }
 
     /**
@@ -87,76 +168,74 @@ public class RatingCalculator {
      * 0.6-0.8 -> 4 stars (positive)
      * 0.8-1.0 -> 5 stars (very positive)
      */
-    private double convertSentimentToRating(float sentimentScore) {
-        // Linear mapping: sentiment [0,1] -> rating [1,5]
-        double rating = 1 + (sentimentScore * 4);
-        return Math.max(1.0, Math.min(5.0, rating)); // Clamp between 1 and 5
+    static double convertSentimentToRating(float sentimentScore) {
+        return ReviewEvent.ratingFor(sentimentScore);
     }
 
     /**
-     * Updates the restaurant's rating in Firebase
+     * Updates the restaurant's rating in Firebase, along with its location/rating key
      */
     private void updateRestaurantInDatabase(String restaurantId, double newRating,
                                             UpdateCallback callback) {
         DatabaseReference restaurantRef = database.getReference("Restaurants").child(restaurantId);
 
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("rating", newRating);
+        restaurantRef.child("location").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("rating", newRating);
+                updates.put("updatedAt", ServerValue.TIMESTAMP);
+                updates.put(RestaurantIndex.LOCATION_RATING,
+                        RestaurantIndex.locationRatingKey(snapshot.getValue(String.class), newRating));
 
-        restaurantRef.updateChildren(updates)
-                .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "✅ Restaurant rating updated to: " + newRating);
-                    callback.onComplete(true, "Rating updated successfully");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "❌ Failed to update restaurant rating: " + e.getMessage());
-                    callback.onComplete(false, e.getMessage());
-                });
+                restaurantRef.updateChildren(updates)
+                        .addOnSuccessListener(aVoid -> {
+                            Log.d(TAG, "✅ Restaurant rating updated to: " + newRating);
+                            callback.onComplete(true, "Rating updated successfully");
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "❌ Failed to update restaurant rating: " + e.getMessage());
+                            callback.onComplete(false, e.getMessage());
+                        });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "❌ Failed to read restaurant location: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
     }
 
     /**
-     * Gets current rating statistics for a restaurant
+     * Gets current rating statistics for a restaurant from its running aggregate
      */
     public void getRatingStats(String restaurantId, StatsCallback callback) {
-        DatabaseReference reviewsRef = database.getReference("Reviews");
+        DatabaseReference aggregateRef = database.getReference(AGGREGATES_NODE).child(restaurantId);
 
-        reviewsRef.orderByChild("restaurantId").equalTo(restaurantId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        RatingStats stats = new RatingStats();
-
-                        for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
-                            Review review = reviewSnapshot.getValue(Review.class);
-                            if (review != null) {
-                                stats.totalReviews++;
-                                double rating = convertSentimentToRating(review.sentimentScore);
-                                stats.totalRating += rating;
-
-                                // Count by sentiment
-                                if (review.sentimentLabel.equals("POSITIVE")) {
-                                    stats.positiveCount++;
-                                } else if (review.sentimentLabel.equals("NEGATIVE")) {
-                                    stats.negativeCount++;
-                                } else {
-                                    stats.neutralCount++;
-                                }
-                            }
-                        }
-
-                        if (stats.totalReviews > 0) {
-                            stats.averageRating = stats.totalRating / stats.totalReviews;
-                            stats.averageRating = Math.round(stats.averageRating * 10.0) / 10.0;
-                        }
-
-                        callback.onStatsRetrieved(stats);
-                    }
+        aggregateRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                RatingStats stats = new RatingStats();
+                ReviewStats.RatingTotals aggregate = snapshot.getValue(ReviewStats.RatingTotals.class);
 
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        callback.onStatsRetrieved(new RatingStats());
-                    }
-                });
+                if (aggregate != null) {
+                    stats.totalReviews = (int) aggregate.reviewCount;
+                    stats.totalRating = aggregate.ratingSum;
+                    stats.positiveCount = (int) aggregate.positiveCount;
+                    stats.neutralCount = (int) aggregate.neutralCount;
+                    stats.negativeCount = (int) aggregate.negativeCount;
+                    stats.averageRating = aggregate.averageRating();
+                }
+
+                callback.onStatsRetrieved(stats);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                callback.onStatsRetrieved(new RatingStats());
+            }
+        });
     }
 
     // Callback interfaces
@@ -177,4 +256,4 @@ public class RatingCalculator {
         public int neutralCount = 0;
         public int negativeCount = 0;
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,8 @@ public class Restaurant {
     private String imagePath;
     private boolean isBestRestaurant;
     private double budget;
+    private long updatedAt; // server time of the last write, used for catalog sync
+    private String locationRating; // see RestaurantIndex
 
     // Empty constructor required for Firebase
     public Restaurant() {
@@ -70,6 +72,14 @@ public class Restaurant {
         return budget;
     }
 
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getLocationRating() {
+        return locationRating;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
@@ -114,4 +124,12 @@ public class Restaurant {
     public void setBudget(double budget) {
         this.budget = budget;
     }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public void setLocationRating(String locationRating) {
+        this.locationRating = locationRating;
+    }
 }
\ No newline at end of file
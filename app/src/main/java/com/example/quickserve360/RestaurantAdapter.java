@@ -8,10 +8,11 @@ import android.widget.BaseAdapter;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import com.bumptech.glide.Glide;
 import java.util.ArrayList;
 
 public class RestaurantAdapter extends BaseAdapter {
+    private static final ImageLoader.Thumbnail THUMBNAIL =
+            ImageLoader.thumbnail().placeholder(R.drawable.ic_launcher_background);
 
     private Context context;
     private ArrayList<Restaurant> restaurants;
@@ -33,7 +34,13 @@ public class RestaurantAdapter extends BaseAdapter {
 
     @Override
     public long getItemId(int position) {
-        return position;
+        return StableIds.of(restaurants.get(position).getId());
+    }
+
+    // Lets the ListView keep checked state and scroll position across reloads
+    @Override
+    public boolean hasStableIds() {
+        return true;
     }
 
     @Override
@@ -62,12 +69,7 @@ public class RestaurantAdapter extends BaseAdapter {
         // Display rating value as text (like "4.5 ★")
         holder.ratingText.setText(String.format("%.1f ★", r.getRating()));
 
-        // Load image with Glide
-        Glide.with(context)
-                .load(r.getImagePath() != null ? r.getImagePath() : "")
-                .placeholder(R.drawable.ic_launcher_background)
-                .error(R.drawable.ic_launcher_background)
-                .into(holder.image);
+        THUMBNAIL.into(holder.image, r.getImagePath());
 
         return convertView;
     }
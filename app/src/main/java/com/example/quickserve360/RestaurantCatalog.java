@@ -0,0 +1,506 @@
+package com.example.quickserve360;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * On-device copy of the Restaurants node in SQLite, shared by every screen
+ * that lists restaurants.
+ *
+ * The first sync reads the whole node once. After that only restaurants whose
+ * updatedAt is newer than the stored marker are fetched, and deletions arrive
+ * through RestaurantTombstones. Screens query the local tables and re-query
+ * when notified of a change.
+ */
+public class RestaurantCatalog {
+    private static final String TAG = "RestaurantCatalog";
+    static final String TOMBSTONES_NODE = "RestaurantTombstones";
+
+    private static final String DB_NAME = "restaurant_catalog.db";
+    private static final int DB_VERSION = 1;
+    private static final String TABLE = "restaurants";
+    private static final String SYNC_TABLE = "sync_state";
+    private static final String MARKER_RESTAURANTS = "restaurantsUpdatedAt";
+    private static final String MARKER_TOMBSTONES = "tombstonesDeletedAt";
+    // Initial sync retries back off from the first delay up to the max
+    private static final long FIRST_RETRY_DELAY_MS = 2_000;
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    private static RestaurantCatalog instance;
+
+    private final CatalogDbHelper dbHelper;
+    private final DatabaseReference restaurantsRef;
+    private final DatabaseReference tombstonesRef;
+    // All database work runs here, in order
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean ready = false;
+    private long retryDelayMs = FIRST_RETRY_DELAY_MS;
+
+    public static synchronized RestaurantCatalog getInstance(Context context) {
+        if (instance == null) {
+            instance = new RestaurantCatalog(context.getApplicationContext());
+            instance.startSync();
+        }
+        return instance;
+    }
+
+    private RestaurantCatalog(Context context) {
+        this.dbHelper = new CatalogDbHelper(context);
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        this.restaurantsRef = database.getReference("Restaurants");
+        this.tombstonesRef = database.getReference(TOMBSTONES_NODE);
+    }
+
+    /**
+     * False until the first full sync has been stored, so screens can tell
+     * "no matches" apart from "not downloaded yet".
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Runs a query against the local catalog; results are delivered on the main thread.
+     */
+    public void query(RestaurantQuery query, CatalogCallback callback) {
+        dbExecutor.execute(() -> {
+            List<Restaurant> restaurants = new ArrayList<>();
+            List<String> args = new ArrayList<>();
+            String selection = query.toSelection(args);
+
+            try (Cursor cursor = dbHelper.getReadableDatabase().query(TABLE, null, selection,
+                    args.toArray(new String[0]), null, null, "id")) {
+                while (cursor.moveToNext()) {
+                    restaurants.add(fromCursor(cursor));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Catalog query failed: " + e.getMessage());
+            }
+            mainHandler.post(() -> callback.onRestaurantsLoaded(restaurants));
+        });
+    }
+
+    /**
+     * Loads the distinct restaurant locations, on the main thread.
+     */
+    public void loadLocations(LocationsCallback callback) {
+        dbExecutor.execute(() -> {
+            List<String> locations = new ArrayList<>();
+            try (Cursor cursor = dbHelper.getReadableDatabase().query(true, TABLE, new String[]{"location"},
+                    "location IS NOT NULL AND location != ''", null, null, null, "location", null)) {
+                while (cursor.moveToNext()) {
+                    locations.add(cursor.getString(0));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Location query failed: " + e.getMessage());
+            }
+            mainHandler.post(() -> callback.onLocationsLoaded(locations));
+        });
+    }
+
+    private void startSync() {
+        dbExecutor.execute(() -> {
+            Long restaurantsMarker = readMarker(MARKER_RESTAURANTS);
+            Long tombstonesMarker = readMarker(MARKER_TOMBSTONES);
+            ready = restaurantsMarker != null;
+            mainHandler.post(() -> {
+                if (restaurantsMarker == null) {
+                    initialSync();
+                } else {
+                    listenForChanges(restaurantsMarker);
+                }
+                listenForTombstones(tombstonesMarker != null ? tombstonesMarker : 0L);
+            });
+        });
+    }
+
+    // Full download on first run; also picks up restaurants written before updatedAt existed
+    private void initialSync() {
+        restaurantsRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                retryDelayMs = FIRST_RETRY_DELAY_MS;
+                List<Restaurant> restaurants = new ArrayList<>();
+                long marker = 0;
+                for (DataSnapshot item : snapshot.getChildren()) {
+                    Restaurant restaurant = parse(item);
+                    if (restaurant != null) {
+                        restaurants.add(restaurant);
+                        marker = Math.max(marker, restaurant.getUpdatedAt());
+                    }
+                }
+
+                final long syncedUpTo = marker;
+                dbExecutor.execute(() -> {
+                    SQLiteDatabase db = dbHelper.getWritableDatabase();
+                    db.beginTransaction();
+                    try {
+                        db.delete(TABLE, null, null);
+                        for (Restaurant restaurant : restaurants) {
+                            db.insertWithOnConflict(TABLE, null, toValues(restaurant), SQLiteDatabase.CONFLICT_REPLACE);
+                        }
+                        writeMarker(db, MARKER_RESTAURANTS, syncedUpTo);
+                        db.setTransactionSuccessful();
+                    } finally {
+                        db.endTransaction();
+                    }
+                    ready = true;
+                    Log.d(TAG, "✅ Initial catalog sync stored " + restaurants.size() + " restaurants");
+                    notifyChanged();
+                });
+                listenForChanges(syncedUpTo);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Nothing is stored yet, so screens have nothing to show until a retry succeeds
+                Log.e(TAG, "❌ Initial catalog sync failed, retrying in " + retryDelayMs + " ms: " + error.getMessage());
+                notifyError(error.getMessage());
+                mainHandler.postDelayed(RestaurantCatalog.this::initialSync, retryDelayMs);
+                retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+            }
+        });
+    }
+
+    // Both sync listeners stay attached for the life of the process
+    private void listenForChanges(long sinceUpdatedAt) {
+        ListenerRegistry.getInstance().onAttached("Restaurants (catalog sync)");
+        restaurantsRef.orderByChild("updatedAt").startAfter(sinceUpdatedAt)
+                .addChildEventListener(new ChildEventListener() {
+                    @Override
+                    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                        upsert(parse(snapshot));
+                    }
+
+                    @Override
+                    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                        upsert(parse(snapshot));
+                    }
+
+                    @Override
+                    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                        // updatedAt only grows, so leaving the range means the restaurant was deleted
+                        delete(snapshot.getKey(), Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.e(TAG, "Catalog sync cancelled: " + error.getMessage());
+                    }
+                });
+    }
+
+    // Catches deletions made while this device was not listening
+    private void listenForTombstones(long sinceDeletedAt) {
+        ListenerRegistry.getInstance().onAttached(TOMBSTONES_NODE);
+        tombstonesRef.orderByValue().startAfter(sinceDeletedAt)
+                .addChildEventListener(new ChildEventListener() {
+                    @Override
+                    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                        Long deletedAt = snapshot.getValue(Long.class);
+                        if (deletedAt != null) {
+                            delete(snapshot.getKey(), deletedAt);
+                        }
+                    }
+
+                    @Override
+                    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                        onChildAdded(snapshot, previousChildName);
+                    }
+
+                    @Override
+                    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                        // Tombstone cleared because the ID was reused; the new row arrives as a change
+                    }
+
+                    @Override
+                    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        Log.e(TAG, "Tombstone sync cancelled: " + error.getMessage());
+                    }
+                });
+    }
+
+    private void upsert(Restaurant restaurant) {
+        if (restaurant == null) return;
+        dbExecutor.execute(() -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.insertWithOnConflict(TABLE, null, toValues(restaurant), SQLiteDatabase.CONFLICT_REPLACE);
+                Long marker = readMarker(MARKER_RESTAURANTS);
+                if (marker == null || restaurant.getUpdatedAt() > marker) {
+                    writeMarker(db, MARKER_RESTAURANTS, restaurant.getUpdatedAt());
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            notifyChanged();
+        });
+    }
+
+    // Deletes the row unless it was rewritten after the deletion
+    private void delete(String restaurantId, long deletedAt) {
+        if (restaurantId == null) return;
+        dbExecutor.execute(() -> {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            int removed;
+            try {
+                removed = db.delete(TABLE, "id = ? AND updated_at <= ?",
+                        new String[]{restaurantId, String.valueOf(deletedAt)});
+                if (deletedAt != Long.MAX_VALUE) {
+                    Long marker = readMarker(MARKER_TOMBSTONES);
+                    if (marker == null || deletedAt > marker) {
+                        writeMarker(db, MARKER_TOMBSTONES, deletedAt);
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            if (removed > 0) notifyChanged();
+        });
+    }
+
+    private void notifyChanged() {
+        mainHandler.post(() -> {
+            for (ChangeListener listener : changeListeners) {
+                listener.onCatalogChanged();
+            }
+        });
+    }
+
+    private void notifyError(String message) {
+        mainHandler.post(() -> {
+            for (ChangeListener listener : changeListeners) {
+                listener.onCatalogError(message);
+            }
+        });
+    }
+
+    private Long readMarker(String name) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().query(SYNC_TABLE, new String[]{"value"},
+                "name = ?", new String[]{name}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : null;
+        }
+    }
+
+    private static void writeMarker(SQLiteDatabase db, String name, long value) {
+        ContentValues values = new ContentValues();
+        values.put("name", name);
+        values.put("value", value);
+        db.insertWithOnConflict(SYNC_TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static Restaurant parse(DataSnapshot snapshot) {
+        try {
+            Restaurant restaurant = snapshot.getValue(Restaurant.class);
+            if (restaurant != null) {
+                restaurant.setId(snapshot.getKey());
+            }
+            return restaurant;
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing restaurant: " + snapshot.getKey(), e);
+            return null;
+        }
+    }
+
+    private static ContentValues toValues(Restaurant restaurant) {
+        ContentValues values = new ContentValues();
+        values.put("id", restaurant.getId());
+        values.put("name", restaurant.getName());
+        values.put("description", restaurant.getDescription());
+        values.put("rating", restaurant.getRating());
+        values.put("cuisine", restaurant.getCuisine());
+        values.put("category", restaurant.getCategory());
+        values.put("is_veg", restaurant.isVeg() ? 1 : 0);
+        values.put("location", restaurant.getLocation());
+        values.put("image_path", restaurant.getImagePath());
+        values.put("is_best", restaurant.isBestRestaurant() ? 1 : 0);
+        values.put("budget", restaurant.getBudget());
+        values.put("updated_at", restaurant.getUpdatedAt());
+        return values;
+    }
+
+    private static Restaurant fromCursor(Cursor cursor) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(cursor.getString(cursor.getColumnIndexOrThrow("id")));
+        restaurant.setName(cursor.getString(cursor.getColumnIndexOrThrow("name")));
+        restaurant.setDescription(cursor.getString(cursor.getColumnIndexOrThrow("description")));
+        restaurant.setRating(cursor.getDouble(cursor.getColumnIndexOrThrow("rating")));
+        restaurant.setCuisine(cursor.getString(cursor.getColumnIndexOrThrow("cuisine")));
+        restaurant.setCategory(cursor.getString(cursor.getColumnIndexOrThrow("category")));
+        restaurant.setIsVeg(cursor.getInt(cursor.getColumnIndexOrThrow("is_veg")) == 1);
+        restaurant.setLocation(cursor.getString(cursor.getColumnIndexOrThrow("location")));
+        restaurant.setImagePath(cursor.getString(cursor.getColumnIndexOrThrow("image_path")));
+        restaurant.setIsBestRestaurant(cursor.getInt(cursor.getColumnIndexOrThrow("is_best")) == 1);
+        restaurant.setBudget(cursor.getDouble(cursor.getColumnIndexOrThrow("budget")));
+        restaurant.setUpdatedAt(cursor.getLong(cursor.getColumnIndexOrThrow("updated_at")));
+        return restaurant;
+    }
+
+    // Callback interfaces
+    public interface CatalogCallback {
+        void onRestaurantsLoaded(List<Restaurant> restaurants);
+    }
+
+    public interface LocationsCallback {
+        void onLocationsLoaded(List<String> locations);
+    }
+
+    public interface ChangeListener {
+        void onCatalogChanged();
+        void onCatalogError(String message);
+    }
+
+    /**
+     * Filter over the catalog; unset fields do not constrain the result.
+     * Text fields match case-insensitively.
+     */
+    public static class RestaurantQuery {
+        private String location;
+        private String category;
+        private String cuisine;
+        private Double minRating;
+        private Double maxBudget;
+        private Boolean isVeg;
+
+        public RestaurantQuery location(String location) {
+            this.location = location;
+            return this;
+        }
+
+        public RestaurantQuery category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public RestaurantQuery cuisine(String cuisine) {
+            this.cuisine = cuisine;
+            return this;
+        }
+
+        public RestaurantQuery minRating(double minRating) {
+            this.minRating = minRating;
+            return this;
+        }
+
+        public RestaurantQuery maxBudget(double maxBudget) {
+            this.maxBudget = maxBudget;
+            return this;
+        }
+
+        public RestaurantQuery isVeg(boolean isVeg) {
+            this.isVeg = isVeg;
+            return this;
+        }
+
+        String toSelection(List<String> args) {
+            StringBuilder selection = new StringBuilder("1");
+            if (location != null) {
+                selection.append(" AND location = ?");
+                args.add(location);
+            }
+            if (category != null) {
+                selection.append(" AND category = ?");
+                args.add(category);
+            }
+            if (cuisine != null) {
+                selection.append(" AND cuisine = ?");
+                args.add(cuisine);
+            }
+            if (minRating != null) {
+                selection.append(" AND rating >= ?");
+                args.add(String.valueOf(minRating));
+            }
+            if (maxBudget != null) {
+                selection.append(" AND budget <= ?");
+                args.add(String.valueOf(maxBudget));
+            }
+            if (isVeg != null) {
+                selection.append(" AND is_veg = ?");
+                args.add(isVeg ? "1" : "0");
+            }
+            return selection.toString();
+        }
+    }
+
+    private static class CatalogDbHelper extends SQLiteOpenHelper {
+        CatalogDbHelper(Context context) {
+            super(context, DB_NAME, null, DB_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + " ("
+                    + "id TEXT PRIMARY KEY, "
+                    + "name TEXT, "
+                    + "description TEXT, "
+                    + "rating REAL NOT NULL DEFAULT 0, "
+                    + "cuisine TEXT COLLATE NOCASE, "
+                    + "category TEXT COLLATE NOCASE, "
+                    + "is_veg INTEGER NOT NULL DEFAULT 0, "
+                    + "location TEXT COLLATE NOCASE, "
+                    + "image_path TEXT, "
+                    + "is_best INTEGER NOT NULL DEFAULT 0, "
+                    + "budget REAL NOT NULL DEFAULT 0, "
+                    + "updated_at INTEGER NOT NULL DEFAULT 0)");
+            db.execSQL("CREATE INDEX idx_restaurants_location_rating ON " + TABLE + " (location, rating)");
+            db.execSQL("CREATE INDEX idx_restaurants_location_category ON " + TABLE + " (location, category)");
+            db.execSQL("CREATE INDEX idx_restaurants_location_cuisine ON " + TABLE + " (location, cuisine, budget)");
+            db.execSQL("CREATE INDEX idx_restaurants_rating ON " + TABLE + " (rating)");
+            db.execSQL("CREATE INDEX idx_restaurants_budget ON " + TABLE + " (budget)");
+            db.execSQL("CREATE INDEX idx_restaurants_is_veg ON " + TABLE + " (is_veg)");
+            db.execSQL("CREATE TABLE " + SYNC_TABLE + " (name TEXT PRIMARY KEY, value INTEGER NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // The catalog is a cache: drop it and let the next sync rebuild it
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+            db.execSQL("DROP TABLE IF EXISTS " + SYNC_TABLE);
+            onCreate(db);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.quickserve360;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
+/**
+ * Diff rules shared by the restaurant lists: rows are the same restaurant when
+ * their IDs match, and need rebinding only when a field some row shows changed.
+ */
+public class RestaurantDiffCallback extends DiffUtil.ItemCallback<Restaurant> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Restaurant oldItem, @NonNull Restaurant newItem) {
+        return Objects.equals(oldItem.getId(), newItem.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Restaurant oldItem, @NonNull Restaurant newItem) {
+        return Objects.equals(oldItem.getName(), newItem.getName())
+                && Objects.equals(oldItem.getCuisine(), newItem.getCuisine())
+                && Objects.equals(oldItem.getLocation(), newItem.getLocation())
+                && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                && Objects.equals(oldItem.getImagePath(), newItem.getImagePath())
+                && oldItem.getRating() == newItem.getRating();
+    }
+}
@@ -10,16 +10,12 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.database.*;
-
-import java.util.ArrayList;
+import java.util.List;
 
 public class RestaurantDishesActivity extends AppCompatActivity {
 
     private RecyclerView dishesRecyclerView;
     private DishAdapter dishAdapter;
-    private ArrayList<Dish> dishList = new ArrayList<>();
-    private DatabaseReference dbRef;
     private Button btnViewCart;
     private ImageView ivBack;
 
@@ -28,48 +24,53 @@ public class RestaurantDishesActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_restaurant_dishes);
 
+        String restaurantId = getIntent().getStringExtra("restaurantId");
+
         ivBack = findViewById(R.id.ivBack);
         dishesRecyclerView = findViewById(R.id.dishesRecyclerView);
         dishesRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        dishAdapter = new DishAdapter(this, dishList);
+        dishAdapter = new DishAdapter(this, restaurantId);
         dishesRecyclerView.setAdapter(dishAdapter);
+        ImageLoader.preload(dishesRecyclerView, dishAdapter);
 
         // Back button functionality
         ivBack.setOnClickListener(v -> finish());
 
         btnViewCart = findViewById(R.id.btnViewCart);
         btnViewCart.setOnClickListener(v -> {
+            // The cart should already show dishes added a moment ago
+            CartAdder.getInstance(this).flush();
             startActivity(new Intent(RestaurantDishesActivity.this, CartActivity.class));
         });
 
-        dbRef = FirebaseDatabase.getInstance().getReference();
-        String restaurantId = getIntent().getStringExtra("restaurantId");
         if (restaurantId != null) {
             loadDishes(restaurantId);
         }
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Don't leave cart adds waiting in memory while we're in the background
+        CartAdder.getInstance(this).flush();
+    }
+
     private void loadDishes(String restaurantId) {
-        dbRef.child("Dishes").child(restaurantId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot snapshot) {
-                        dishList.clear();
-                        for (DataSnapshot dishSnap : snapshot.getChildren()) {
-                            Dish dish = dishSnap.getValue(Dish.class);
-                            if (dish != null) dishList.add(dish);
-                        }
-                        dishAdapter.notifyDataSetChanged();
+        // Often already in memory: the home screen's search reads the same dishes
+        RestaurantRepository.getInstance().getDishes(restaurantId, new PathCache.Callback<List<Dish>>() {
+            @Override
+            public void onLoaded(List<Dish> dishes) {
+                dishAdapter.submitList(dishes);
 
-                        if (dishList.isEmpty()) {
-                            Toast.makeText(RestaurantDishesActivity.this, "No dishes found", Toast.LENGTH_SHORT).show();
-                        }
-                    }
+                if (dishes.isEmpty()) {
+                    Toast.makeText(RestaurantDishesActivity.this, "No dishes found", Toast.LENGTH_SHORT).show();
+                }
+            }
 
-                    @Override
-                    public void onCancelled(DatabaseError error) {
-                        Toast.makeText(RestaurantDishesActivity.this, "Failed to load dishes", Toast.LENGTH_SHORT).show();
-                    }
-                });
+            @Override
+            public void onError(String message) {
+                Toast.makeText(RestaurantDishesActivity.this, "Failed to load dishes", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.quickserve360;
+
+import java.util.Locale;
+
+/**
+ * Composite "location|rating" key stored on every restaurant as locationRating,
+ * so a city's restaurants above a rating can be read with one range query.
+ *
+ * The location is lower-cased, so cities match regardless of case as they do
+ * in RestaurantCatalog (COLLATE NOCASE). Ratings are written with two
+ * decimals; they never exceed 5, so the key sorts by location and then by rating.
+ */
+public class RestaurantIndex {
+    static final String LOCATION_RATING = "locationRating";
+    private static final String SEPARATOR = "|";
+
+    private RestaurantIndex() {
+    }
+
+    public static String locationRatingKey(String location, double rating) {
+        return locationPart(location) + SEPARATOR + String.format(Locale.US, "%.2f", rating);
+    }
+
+    // Lowest key for restaurants in the city rated at least minRating
+    static String rangeStart(String location, double minRating) {
+        return locationRatingKey(location, minRating);
+    }
+
+    // Sorts after every rating in the city
+    static String rangeEnd(String location) {
+        return locationPart(location) + SEPARATOR + "\uf8ff";
+    }
+
+    private static String locationPart(String location) {
+        return location != null ? location.toLowerCase(Locale.ROOT) : "";
+    }
+}
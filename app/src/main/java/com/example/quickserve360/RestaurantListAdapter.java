@@ -8,25 +8,26 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+public class RestaurantListAdapter extends ListAdapter<Restaurant, RestaurantListAdapter.ViewHolder>
+        implements ImageLoader.PreloadAdapter {
 
-import java.util.List;
+    private static final ImageLoader.Thumbnail THUMBNAIL =
+            ImageLoader.thumbnail().centerCrop().placeholder(R.drawable.placeholder_image);
 
-public class RestaurantListAdapter extends RecyclerView.Adapter<RestaurantListAdapter.ViewHolder> {
-
-    private List<Restaurant> restaurantList;
     private OnRestaurantClickListener listener;
 
     public interface OnRestaurantClickListener {
         void onRestaurantClick(Restaurant restaurant);
     }
 
-    public RestaurantListAdapter(List<Restaurant> restaurantList, OnRestaurantClickListener listener) {
-        this.restaurantList = restaurantList;
+    // Lists are diffed on a background thread; submit a new list to update
+    public RestaurantListAdapter(OnRestaurantClickListener listener) {
+        super(new RestaurantDiffCallback());
         this.listener = listener;
-        Log.d("RestaurantAdapter", "Adapter created with " + restaurantList.size() + " restaurants");
+        setHasStableIds(true);
         Log.d("RestaurantAdapter", "Listener is null: " + (listener == null));
     }
 
@@ -41,7 +42,7 @@ public class RestaurantListAdapter extends RecyclerView.Adapter<RestaurantListAd
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Restaurant restaurant = restaurantList.get(position);
+        Restaurant restaurant = getItem(position);
 
         Log.d("RestaurantAdapter", "Binding position " + position + ": " + restaurant.getName());
 
@@ -51,25 +52,15 @@ public class RestaurantListAdapter extends RecyclerView.Adapter<RestaurantListAd
         holder.tvLocation.setText(restaurant.getLocation());
         holder.tvRating.setText(String.valueOf(restaurant.getRating()));
 
-        // Load restaurant image using Glide
-        if (restaurant.getImagePath() != null && !restaurant.getImagePath().isEmpty()) {
-            Glide.with(holder.itemView.getContext())
-                    .load(restaurant.getImagePath())
-                    .placeholder(R.drawable.placeholder_image)
-                    .error(R.drawable.placeholder_image)
-                    .centerCrop()
-                    .into(holder.ivRestaurantImage);
-        } else {
-            // If no image path, set placeholder
-            holder.ivRestaurantImage.setImageResource(R.drawable.placeholder_image);
-        }
+        // Restaurants without an image path get the placeholder
+        THUMBNAIL.into(holder.ivRestaurantImage, restaurant.getImagePath());
 
         // Set click listener with logging
         holder.itemView.setOnClickListener(v -> {
             Log.d("RestaurantAdapter", "=== CLICK DETECTED ===");
             Log.d("RestaurantAdapter", "Restaurant clicked: " + restaurant.getName());
             Log.d("RestaurantAdapter", "Restaurant ID: " + restaurant.getId());
-            Log.d("RestaurantAdapter", "Position: " + position);
+            Log.d("RestaurantAdapter", "Position: " + holder.getBindingAdapterPosition());
             Log.d("RestaurantAdapter", "Listener is null: " + (listener == null));
 
             if (listener != null) {
@@ -82,8 +73,23 @@ public class RestaurantListAdapter extends RecyclerView.Adapter<RestaurantListAd
     }
 
     @Override
-    public int getItemCount() {
-        return restaurantList.size();
+    public String getImageUrl(int position) {
+        return getItem(position).getImagePath();
+    }
+
+    @Override
+    public ImageLoader.Thumbnail getThumbnail() {
+        return THUMBNAIL;
+    }
+
+    @Override
+    public int getImageViewId() {
+        return R.id.ivRestaurantImage;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,106 @@
+package com.example.quickserve360;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restaurants, their dishes, and the category and cuisine lists, read through
+ * {@link PathCache}. Customer-facing restaurant lists come from
+ * {@link RestaurantCatalog}; this covers everything else.
+ *
+ * Methods taking a parser let a screen keep its own model. Pass a constant
+ * so every delivery of the same snapshot reuses one parsed value.
+ */
+public class RestaurantRepository {
+    static final String RESTAURANTS_NODE = "Restaurants";
+    private static final long RESTAURANT_TTL_MS = 2 * 60 * 1000;
+    private static final long DISHES_TTL_MS = 5 * 60 * 1000;
+    private static final long REFERENCE_DATA_TTL_MS = 30 * 60 * 1000;
+
+    public static final PathCache.Parser<DataSnapshot> SNAPSHOT_PARSER = snapshot -> snapshot;
+
+    private static final PathCache.Parser<List<Dish>> DISHES_PARSER = snapshot -> {
+        List<Dish> dishes = new ArrayList<>();
+        for (DataSnapshot dishSnapshot : snapshot.getChildren()) {
+            Dish dish = dishSnapshot.getValue(Dish.class);
+            if (dish != null) dishes.add(dish);
+        }
+        return dishes;
+    };
+
+    private static final PathCache.Parser<List<Category>> CATEGORIES_PARSER = snapshot -> {
+        List<Category> categories = new ArrayList<>();
+        for (DataSnapshot item : snapshot.getChildren()) {
+            Category category = item.getValue(Category.class);
+            if (category != null) categories.add(category);
+        }
+        return categories;
+    };
+
+    private static final PathCache.Parser<List<String>> CUISINE_NAMES_PARSER = snapshot -> {
+        List<String> names = new ArrayList<>();
+        for (DataSnapshot cuisineSnap : snapshot.getChildren()) {
+            String name = cuisineSnap.child("name").getValue(String.class);
+            if (name != null) names.add(name);
+        }
+        return names;
+    };
+
+    private static RestaurantRepository instance;
+
+    private final PathCache cache = PathCache.getInstance();
+
+    public static synchronized RestaurantRepository getInstance() {
+        if (instance == null) {
+            instance = new RestaurantRepository();
+        }
+        return instance;
+    }
+
+    private RestaurantRepository() {}
+
+    public <T> void getRestaurants(PathCache.Parser<T> parser, PathCache.Callback<T> callback) {
+        cache.get(RESTAURANTS_NODE, RESTAURANT_TTL_MS, parser, callback);
+    }
+
+    public <T> PathCache.Subscription observeRestaurants(PathCache.Parser<T> parser, PathCache.Callback<T> callback) {
+        return cache.observe(RESTAURANTS_NODE, parser, callback);
+    }
+
+    public void getRestaurant(String restaurantId, PathCache.Callback<DataSnapshot> callback) {
+        cache.get(restaurantPath(restaurantId), RESTAURANT_TTL_MS, SNAPSHOT_PARSER, callback);
+    }
+
+    // Call after writing a restaurant outside a live observer
+    public void invalidateRestaurant(String restaurantId) {
+        cache.invalidate(restaurantPath(restaurantId));
+        cache.invalidate(RESTAURANTS_NODE);
+    }
+
+    public void getDishes(String restaurantId, PathCache.Callback<List<Dish>> callback) {
+        cache.get(dishesPath(restaurantId), DISHES_TTL_MS, DISHES_PARSER, callback);
+    }
+
+    public <T> PathCache.Subscription observeDishes(String restaurantId, PathCache.Parser<T> parser,
+                                                    PathCache.Callback<T> callback) {
+        return cache.observe(dishesPath(restaurantId), parser, callback);
+    }
+
+    public PathCache.Subscription observeCategories(PathCache.Callback<List<Category>> callback) {
+        return cache.observe("Category", CATEGORIES_PARSER, callback);
+    }
+
+    public void getCuisineNames(PathCache.Callback<List<String>> callback) {
+        cache.get("Cuisines", REFERENCE_DATA_TTL_MS, CUISINE_NAMES_PARSER, callback);
+    }
+
+    private static String restaurantPath(String restaurantId) {
+        return RESTAURANTS_NODE + "/" + restaurantId;
+    }
+
+    private static String dishesPath(String restaurantId) {
+        return "Dishes/" + restaurantId;
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.quickserve360;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory search index over a set of restaurants.
+ *
+ * Words from restaurant names and from cuisines and dish names go into two
+ * prefix tries, so typing "piz" finds "Pizza Hut" or a restaurant serving
+ * pizza. A trigram inverted index over the same text answers substring
+ * queries and, when nothing matches exactly, ranks near-misses such as
+ * "piza" by shared trigrams.
+ *
+ * Build it off the main thread; queries are read-only and safe from any thread.
+ */
+public class RestaurantSearchIndex {
+    private static final float MIN_FUZZY_SIMILARITY = 0.4f;
+
+    private static final float SCORE_NAME_STARTS_WITH = 100f;
+    private static final float SCORE_NAME_WORD_PREFIX = 80f;
+    private static final float SCORE_OTHER_WORD_PREFIX = 50f;
+    private static final float SCORE_SUBSTRING = 30f;
+    private static final float SCORE_FUZZY = 20f;
+
+    private final List<Restaurant> restaurants;
+    private final String[] normalizedNames;
+    private final String[] searchText;
+    private final TrieNode nameTrie = new TrieNode();
+    private final TrieNode otherTrie = new TrieNode();
+    private final Map<Long, IntList> trigramPostings = new HashMap<>();
+
+    /**
+     * @param dishNamesByRestaurant dish names keyed by restaurant ID; may be
+     *                              missing entries while dishes are still loading
+     */
+    public RestaurantSearchIndex(List<Restaurant> restaurants, Map<String, List<String>> dishNamesByRestaurant) {
+        this.restaurants = new ArrayList<>(restaurants);
+        int count = this.restaurants.size();
+        normalizedNames = new String[count];
+        searchText = new String[count];
+
+        for (int doc = 0; doc < count; doc++) {
+            Restaurant restaurant = this.restaurants.get(doc);
+            String name = normalize(restaurant.getName());
+            normalizedNames[doc] = name;
+
+            StringBuilder other = new StringBuilder(normalize(restaurant.getCuisine()));
+            List<String> dishNames = dishNamesByRestaurant.get(restaurant.getId());
+            if (dishNames != null) {
+                for (String dishName : dishNames) {
+                    other.append(' ').append(normalize(dishName));
+                }
+            }
+            String otherText = other.toString().trim();
+            searchText[doc] = (name + " " + otherText).trim();
+
+            for (String word : words(name)) nameTrie.insert(word, doc);
+            for (String word : words(otherText)) otherTrie.insert(word, doc);
+            for (String word : words(searchText[doc])) addTrigrams(word, doc);
+        }
+    }
+
+    public int size() {
+        return restaurants.size();
+    }
+
+    /**
+     * Restaurants whose name contains the query, ignoring case, in list order.
+     * What search falls back to while the index is still being built.
+     */
+    public static List<Restaurant> filterByName(List<Restaurant> restaurants, String query) {
+        String lowerCaseQuery = query.toLowerCase().trim();
+        List<Restaurant> results = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant.getName() != null && restaurant.getName().toLowerCase().contains(lowerCaseQuery)) {
+                results.add(restaurant);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns up to limit restaurants matching the query, best matches first
+     * and ties broken by rating. An empty query matches nothing.
+     */
+    public List<Restaurant> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        String[] queryWords = words(normalizedQuery);
+        if (queryWords.length == 0) return Collections.emptyList();
+
+        float[] scores = new float[restaurants.size()];
+        boolean anyMatch = scorePrefixMatches(normalizedQuery, queryWords, scores);
+        if (normalizedQuery.length() >= 3) {
+            anyMatch |= scoreSubstringMatches(normalizedQuery, scores);
+        }
+        if (!anyMatch) {
+            scoreFuzzyMatches(queryWords, scores);
+        }
+        return topResults(scores, limit);
+    }
+
+    // Every query word must prefix-match some word of the restaurant
+    private boolean scorePrefixMatches(String normalizedQuery, String[] queryWords, float[] scores) {
+        int[] nameDocs = null;
+        int[] anyDocs = null;
+        for (String word : queryWords) {
+            int[] nameMatches = nameTrie.docsWithPrefix(word);
+            int[] anyMatches = union(nameMatches, otherTrie.docsWithPrefix(word));
+            nameDocs = nameDocs == null ? nameMatches : intersect(nameDocs, nameMatches);
+            anyDocs = anyDocs == null ? anyMatches : intersect(anyDocs, anyMatches);
+        }
+
+        for (int doc : anyDocs) {
+            scores[doc] = Math.max(scores[doc], SCORE_OTHER_WORD_PREFIX);
+        }
+        for (int doc : nameDocs) {
+            float score = normalizedNames[doc].startsWith(normalizedQuery)
+                    ? SCORE_NAME_STARTS_WITH : SCORE_NAME_WORD_PREFIX;
+            scores[doc] = Math.max(scores[doc], score);
+        }
+        return anyDocs.length > 0;
+    }
+
+    // Candidates must contain every trigram of the query; each is then verified
+    private boolean scoreSubstringMatches(String normalizedQuery, float[] scores) {
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= normalizedQuery.length(); i++) {
+            IntList postings = trigramPostings.get(trigramKey(normalizedQuery, i));
+            if (postings == null) return false;
+            candidates = candidates == null ? postings.toArray() : intersect(candidates, postings.toArray());
+            if (candidates.length == 0) return false;
+        }
+
+        boolean matched = false;
+        for (int doc : candidates) {
+            if (searchText[doc].contains(normalizedQuery)) {
+                scores[doc] = Math.max(scores[doc], SCORE_SUBSTRING);
+                matched = true;
+            }
+        }
+        return matched;
+    }
+
+    // Typo tolerance: share of the query's padded trigrams found in the restaurant
+    private void scoreFuzzyMatches(String[] queryWords, float[] scores) {
+        int[] hits = new int[restaurants.size()];
+        int trigramCount = 0;
+        for (String word : queryWords) {
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigramCount++;
+                IntList postings = trigramPostings.get(trigramKey(padded, i));
+                if (postings == null) continue;
+                for (int j = 0; j < postings.size; j++) {
+                    hits[postings.values[j]]++;
+                }
+            }
+        }
+        if (trigramCount == 0) return;
+
+        for (int doc = 0; doc < hits.length; doc++) {
+            float similarity = (float) hits[doc] / trigramCount;
+            if (similarity >= MIN_FUZZY_SIMILARITY) {
+                scores[doc] = Math.max(scores[doc], SCORE_FUZZY * similarity);
+            }
+        }
+    }
+
+    private List<Restaurant> topResults(float[] scores, int limit) {
+        List<Integer> matches = new ArrayList<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] > 0) matches.add(doc);
+        }
+        Collections.sort(matches, (a, b) -> {
+            int byScore = Float.compare(scores[b], scores[a]);
+            if (byScore != 0) return byScore;
+            return Double.compare(restaurants.get(b).getRating(), restaurants.get(a).getRating());
+        });
+
+        List<Restaurant> results = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            results.add(restaurants.get(matches.get(i)));
+        }
+        return results;
+    }
+
+    private void addTrigrams(String word, int doc) {
+        // Padding gives word starts and ends their own trigrams, which helps fuzzy matching
+        String padded = " " + word + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long key = trigramKey(padded, i);
+            IntList postings = trigramPostings.get(key);
+            if (postings == null) {
+                postings = new IntList();
+                trigramPostings.put(key, postings);
+            }
+            postings.addIfNotLast(doc);
+        }
+    }
+
+    private static long trigramKey(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Lower-cases and turns everything but letters and digits into single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) sb.append(' ');
+                sb.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // Both inputs sorted ascending
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) result[n++] = a[i++];
+            else if (i == a.length || b[j] < a[i]) result[n++] = b[j++];
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    // Each node keeps the sorted IDs of restaurants with a word passing through it
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final IntList docs = new IntList();
+        private int[] docsArray;
+
+        void insert(String word, int doc) {
+            TrieNode node = this;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                TrieNode child = node.children.get(c);
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(c, child);
+                }
+                node = child;
+                // Docs are inserted in increasing order, so this keeps the list sorted and unique
+                node.docs.addIfNotLast(doc);
+            }
+        }
+
+        int[] docsWithPrefix(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) return new int[0];
+            synchronized (node) {
+                if (node.docsArray == null) node.docsArray = node.docs.toArray();
+                return node.docsArray;
+            }
+        }
+    }
+
+    private static class IntList {
+        int[] values = new int[4];
+        int size = 0;
+
+        void addIfNotLast(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
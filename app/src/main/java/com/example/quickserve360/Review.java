@@ -11,6 +11,7 @@ public class Review {
 
     public float sentimentScore;
     public String sentimentLabel;
+    public String modelVersion; // which model produced the sentiment fields
 
     public Review() {} // no-arg constructor for Firebase
 
@@ -0,0 +1,31 @@
+package com.example.quickserve360;
+
+/**
+ * Reviews, read through {@link PathCache}. Pass a constant parser so every
+ * observer of the same snapshot shares one parsed value.
+ */
+public class ReviewRepository {
+    static final String REVIEWS_NODE = "Reviews";
+    private static final long REVIEWS_TTL_MS = 60 * 1000;
+
+    private static ReviewRepository instance;
+
+    private final PathCache cache = PathCache.getInstance();
+
+    public static synchronized ReviewRepository getInstance() {
+        if (instance == null) {
+            instance = new ReviewRepository();
+        }
+        return instance;
+    }
+
+    private ReviewRepository() {}
+
+    public <T> void getReviews(PathCache.Parser<T> parser, PathCache.Callback<T> callback) {
+        cache.get(REVIEWS_NODE, REVIEWS_TTL_MS, parser, callback);
+    }
+
+    public <T> PathCache.Subscription observeReviews(PathCache.Parser<T> parser, PathCache.Callback<T> callback) {
+        return cache.observe(REVIEWS_NODE, parser, callback);
+    }
+}
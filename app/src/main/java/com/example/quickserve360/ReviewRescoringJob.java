@@ -0,0 +1,197 @@
+package com.example.quickserve360;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-scores stored reviews with the currently bundled sentiment model.
+ *
+ * Reviews are read in key order one page at a time; each page's new scores and
+ * the checkpoint cursor are written in one multi-path update, so an interrupted
+ * run resumes after the last committed page. Reviews already tagged with the
+ * current model version are skipped. Restaurant ratings are rebuilt once, after
+ * the last page.
+ */
+public class ReviewRescoringJob {
+    private static final String TAG = "ReviewRescoringJob";
+    private static final String CHECKPOINT_NODE = "Maintenance/reviewRescoring";
+    private static final int PAGE_SIZE = 100;
+
+    private final FirebaseDatabase database;
+    private final SentimentAnalyzer sentimentAnalyzer;
+    private String modelVersion;
+    private ProgressCallback callback;
+    private volatile boolean cancelled = false;
+
+    public ReviewRescoringJob(Context context) {
+        this.database = FirebaseDatabase.getInstance();
+        this.sentimentAnalyzer = new SentimentAnalyzer(context.getApplicationContext());
+    }
+
+    /**
+     * Starts or resumes the job. A checkpoint left by a run with a different model
+     * version is discarded and the job starts again from the first review.
+     */
+    public void start(ProgressCallback callback) {
+        this.callback = callback;
+        sentimentAnalyzer.whenReady(this::resume);
+    }
+
+    private void resume() {
+        if (!sentimentAnalyzer.isModelLoaded()) {
+            finish(false, "Sentiment model not loaded");
+            return;
+        }
+        modelVersion = sentimentAnalyzer.getModelVersion();
+
+        database.getReference(CHECKPOINT_NODE).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Checkpoint checkpoint = snapshot.getValue(Checkpoint.class);
+                if (checkpoint == null || checkpoint.completed
+                        || !modelVersion.equals(checkpoint.modelVersion)) {
+                    checkpoint = new Checkpoint(modelVersion);
+                } else {
+                    Log.d(TAG, "Resuming after review " + checkpoint.lastKey);
+                }
+                loadPage(checkpoint);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                finish(false, error.getMessage());
+            }
+        });
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void loadPage(Checkpoint checkpoint) {
+        if (cancelled) {
+            finish(false, "Re-scoring cancelled after " + checkpoint.processed + " reviews");
+            return;
+        }
+
+        Query page = database.getReference("Reviews").orderByKey();
+        if (checkpoint.lastKey != null) {
+            page = page.startAfter(checkpoint.lastKey);
+        }
+
+        page.limitToFirst(PAGE_SIZE).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<String> reviewIds = new ArrayList<>();
+                List<String> comments = new ArrayList<>();
+                String lastKey = checkpoint.lastKey;
+                int pageCount = 0;
+
+                for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
+                    pageCount++;
+                    lastKey = reviewSnapshot.getKey();
+
+                    Review review = reviewSnapshot.getValue(Review.class);
+                    if (review == null || review.comment == null || review.comment.isEmpty()) continue;
+                    if (modelVersion.equals(review.modelVersion)) continue;
+
+                    reviewIds.add(reviewSnapshot.getKey());
+                    comments.add(review.comment);
+                }
+
+                boolean lastPage = pageCount < PAGE_SIZE;
+                Checkpoint next = new Checkpoint(modelVersion);
+                next.lastKey = lastKey;
+                next.processed = checkpoint.processed + pageCount;
+                next.rescored = checkpoint.rescored + reviewIds.size();
+                next.completed = lastPage;
+
+                sentimentAnalyzer.analyzeBatch(comments, results ->
+                        commitPage(reviewIds, results, next));
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                finish(false, error.getMessage());
+            }
+        });
+    }
+
+    private void commitPage(List<String> reviewIds, List<SentimentAnalyzer.SentimentResult> results,
+                            Checkpoint checkpoint) {
+        Map<String, Object> updates = new HashMap<>();
+        for (int i = 0; i < reviewIds.size(); i++) {
+            SentimentAnalyzer.SentimentResult result = results.get(i);
+            String base = "Reviews/" + reviewIds.get(i) + "/";
+            updates.put(base + "sentimentScore", result.score);
+            updates.put(base + "sentimentLabel", result.label);
+            updates.put(base + "modelVersion", result.modelVersion);
+        }
+        updates.put(CHECKPOINT_NODE, checkpoint);
+
+        database.getReference().updateChildren(updates)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "✅ Re-scored " + checkpoint.rescored + " of " + checkpoint.processed + " reviews");
+                    callback.onProgress(checkpoint.processed, checkpoint.rescored);
+
+                    if (checkpoint.completed) {
+                        rebuildRatings(checkpoint);
+                    } else {
+                        loadPage(checkpoint);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "❌ Failed to write re-scored page: " + e.getMessage());
+                    finish(false, e.getMessage());
+                });
+    }
+
+    private void rebuildRatings(Checkpoint checkpoint) {
+        new RatingCalculator().rebuildAllAggregates((success, message) -> {
+            if (success) {
+                finish(true, "Re-scored " + checkpoint.rescored + " of " + checkpoint.processed
+                        + " reviews; " + message);
+            } else {
+                finish(false, "Reviews re-scored but rating rebuild failed: " + message);
+            }
+        });
+    }
+
+    private void finish(boolean success, String message) {
+        sentimentAnalyzer.close();
+        callback.onComplete(success, message);
+    }
+
+    public interface ProgressCallback {
+        void onProgress(long processed, long rescored);
+        void onComplete(boolean success, String message);
+    }
+
+    // Stored under Maintenance/reviewRescoring
+    public static class Checkpoint {
+        public String modelVersion;
+        public String lastKey;
+        public long processed = 0;
+        public long rescored = 0;
+        public boolean completed = false;
+
+        public Checkpoint() {} // no-arg constructor for Firebase
+
+        Checkpoint(String modelVersion) {
+            this.modelVersion = modelVersion;
+        }
+    }
+}
@@ -1,85 +1,290 @@
 package com.example.quickserve360;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import org.tensorflow.lite.support.label.Category;
 import org.tensorflow.lite.task.text.nlclassifier.NLClassifier;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 public class SentimentAnalyzer {
     private static final String TAG = "SentimentAnalyzer";
     private Context context;
-    private NLClassifier classifier;
+    private volatile NLClassifier classifier;
+    private final SentimentCache cache;
+    private final KeywordMatcher keywordMatcher;
+
+    // Compiled once per process and shared; matching is read-only
+    private static KeywordMatcher sharedKeywordMatcher;
+
+    // Guards the classifier against close() while the inference thread is using it
+    private final Object classifierLock = new Object();
+    private boolean closed = false;
 
     private static final String MODEL_FILE = "text_classification.tflite";
+    private static final String LEXICON_FILE = "sentiment_lexicon.txt";
+    // Bump when the lexicon or keyword scoring changes, so cached keyword results are not reused
+    static final String KEYWORD_MODEL_VERSION = "lexicon-1";
+    private volatile String modelVersion = KEYWORD_MODEL_VERSION;
+
+    // Checksum of the bundled model, computed once per process on the inference thread
+    private static String bundledModelVersion;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Main thread only: whether initializeModel has finished, and who is waiting for it
+    private boolean ready = false;
+    private final List<Runnable> readyCallbacks = new ArrayList<>();
+
+    private static final int MAX_BATCH_SIZE = 32;
+    private static final int MAX_QUEUED_TASKS = 64;
+
+    /**
+     * One inference thread shared by every analyzer. An NLClassifier can only
+     * run one classification at a time, so more threads would just queue on it.
+     */
+    private static final ThreadPoolExecutor INFERENCE_EXECUTOR = createInferenceExecutor();
+
+    private static ThreadPoolExecutor createInferenceExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_TASKS), runnable -> {
+                    Thread thread = new Thread(runnable, "sentiment-inference");
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
+    /**
+     * Must be created on the main thread. The model is loaded on the inference
+     * thread, ahead of any review queued there; use whenReady before reading
+     * isModelLoaded or getModelVersion.
+     */
     public SentimentAnalyzer(Context context) {
         this.context = context;
-        initializeModel();
+        this.cache = SentimentCache.getInstance(context, INFERENCE_EXECUTOR);
+        this.keywordMatcher = loadKeywordMatcher(context);
+        try {
+            INFERENCE_EXECUTOR.execute(this::initializeModel);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Inference queue full, using keyword analysis only");
+            ready = true;
+        }
     }
 
+    // Runs on the inference thread
     private void initializeModel() {
         try {
             Log.d(TAG, "Initializing TensorFlow Lite model...");
 
-            // Simple direct initialization
-            classifier = NLClassifier.createFromFile(context, MODEL_FILE);
-            Log.d(TAG, "✅ TensorFlow Lite model loaded SUCCESSFULLY!");
+            String version = bundledModelVersion(context);
+            NLClassifier loaded = NLClassifier.createFromFile(context, MODEL_FILE);
+            synchronized (classifierLock) {
+                if (closed) {
+                    loaded.close();
+                } else {
+                    classifier = loaded;
+                    modelVersion = version;
+                }
+            }
+            Log.d(TAG, "✅ TensorFlow Lite model loaded SUCCESSFULLY! Version: " + version);
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Failed to load TensorFlow model: " + e.getMessage());
             // Don't throw exception - we'll handle it gracefully
         }
+
+        mainHandler.post(() -> {
+            ready = true;
+            for (Runnable callback : readyCallbacks) callback.run();
+            readyCallbacks.clear();
+        });
+    }
+
+    /**
+     * Runs onReady on the main thread once the model has loaded or failed to.
+     */
+    public void whenReady(Runnable onReady) {
+        if (ready) {
+            onReady.run();
+        } else {
+            readyCallbacks.add(onReady);
+        }
+    }
+
+    private static synchronized String bundledModelVersion(Context context) throws IOException {
+        if (bundledModelVersion == null) {
+            bundledModelVersion = computeModelVersion(context);
+        }
+        return bundledModelVersion;
+    }
+
+    // Checksum of the bundled model file, so shipping a new model changes the version
+    private static String computeModelVersion(Context context) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = context.getAssets().open(MODEL_FILE)) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return "tflite-" + Long.toHexString(crc.getValue());
     }
 
     public boolean isModelLoaded() {
         return classifier != null;
     }
 
+    /**
+     * Identifies what produced this analyzer's scores: the loaded model's
+     * checksum, or KEYWORD_MODEL_VERSION when only keyword analysis is available.
+     */
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
     public void analyzeSentiment(String reviewText, SentimentCallback callback) {
         if (reviewText == null || reviewText.isEmpty()) {
             callback.onSentimentAnalyzed(new SentimentResult(0.5f, "NEUTRAL", 0));
             return;
         }
 
-        // If model didn't load, use keyword analysis
-        if (classifier == null) {
-            Log.w(TAG, "Model not loaded, using keyword analysis");
-            SentimentResult result = analyzeWithKeywords(reviewText);
-            callback.onSentimentAnalyzed(result);
+        // While the model loads, the version is unknown; the queued task checks the cache after it
+        if (ready) {
+            // Repeated phrases skip inference entirely
+            SentimentResult cached = cache.get(modelVersion, reviewText);
+            if (cached != null) {
+                callback.onSentimentAnalyzed(cached);
+                return;
+            }
+
+            // If model didn't load, use keyword analysis
+            if (classifier == null) {
+                Log.w(TAG, "Model not loaded, using keyword analysis");
+                SentimentResult result = analyzeWithKeywords(reviewText);
+                cache.put(reviewText, result);
+                callback.onSentimentAnalyzed(result);
+                return;
+            }
+        }
+
+        try {
+            INFERENCE_EXECUTOR.execute(() -> callback.onSentimentAnalyzed(analyzeOne(reviewText)));
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Inference queue full, using keyword analysis");
+            callback.onSentimentAnalyzed(analyzeWithKeywords(reviewText));
+        }
+    }
+
+    /**
+     * Scores many reviews on the inference thread. Texts are classified in
+     * chunks of up to MAX_BATCH_SIZE per task, so a large batch occupies a few
+     * queue slots instead of one per review. Results come back in input order
+     * once every chunk has finished, on the thread that finished last: the
+     * inference thread, or the calling thread if the queue was full and a
+     * chunk fell back to keyword analysis there.
+     */
+    public void analyzeBatch(List<String> reviewTexts, BatchCallback callback) {
+        if (reviewTexts == null || reviewTexts.isEmpty()) {
+            callback.onBatchAnalyzed(Collections.emptyList());
             return;
         }
 
-        new Thread(() -> {
+        SentimentResult[] results = new SentimentResult[reviewTexts.size()];
+        int chunkCount = (reviewTexts.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        AtomicInteger remainingChunks = new AtomicInteger(chunkCount);
+
+        for (int start = 0; start < reviewTexts.size(); start += MAX_BATCH_SIZE) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(start + MAX_BATCH_SIZE, reviewTexts.size());
+
+            Runnable chunk = () -> {
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    results[i] = analyzeOne(reviewTexts.get(i));
+                }
+                completeChunk(remainingChunks, results, callback);
+            };
+
             try {
-                SentimentResult result = analyzeWithTensorFlow(reviewText);
-                callback.onSentimentAnalyzed(result);
-            } catch (Exception e) {
-                Log.e(TAG, "TensorFlow analysis failed, using keywords: " + e.getMessage());
-                SentimentResult result = analyzeWithKeywords(reviewText);
-                callback.onSentimentAnalyzed(result);
+                INFERENCE_EXECUTOR.execute(chunk);
+            } catch (RejectedExecutionException e) {
+                // Queue is full: fall back to the cheap keyword path for this chunk
+                Log.w(TAG, "Inference queue full, using keyword analysis for " + (chunkEnd - chunkStart) + " reviews");
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    String text = reviewTexts.get(i);
+                    results[i] = text == null || text.isEmpty()
+                            ? new SentimentResult(0.5f, "NEUTRAL", 0)
+                            : analyzeWithKeywords(text);
+                }
+                completeChunk(remainingChunks, results, callback);
             }
-        }).start();
+        }
     }
 
-    private SentimentResult analyzeWithTensorFlow(String reviewText) {
+    private static void completeChunk(AtomicInteger remainingChunks, SentimentResult[] results,
+                                      BatchCallback callback) {
+        if (remainingChunks.decrementAndGet() == 0) {
+            List<SentimentResult> ordered = new ArrayList<>(results.length);
+            Collections.addAll(ordered, results);
+            callback.onBatchAnalyzed(ordered);
+        }
+    }
+
+    // Runs on the inference thread
+    private SentimentResult analyzeOne(String reviewText) {
+        if (reviewText == null || reviewText.isEmpty()) {
+            return new SentimentResult(0.5f, "NEUTRAL", 0);
+        }
+
+        SentimentResult cached = cache.get(modelVersion, reviewText);
+        return cached != null ? cached : scoreAndCache(reviewText);
+    }
+
+    // Runs on the inference thread, after a cache miss
+    private SentimentResult scoreAndCache(String reviewText) {
+        SentimentResult result = null;
         try {
-            Log.d(TAG, "Analyzing with TensorFlow: " + reviewText);
+            result = analyzeWithTensorFlow(reviewText);
+        } catch (Exception e) {
+            Log.e(TAG, "TensorFlow analysis failed, using keywords: " + e.getMessage());
+        }
+        if (result == null) {
+            result = analyzeWithKeywords(reviewText);
+        }
+        cache.put(reviewText, result);
+        return result;
+    }
 
-            List<Category> results = classifier.classify(reviewText);
+    // Returns null if the model is not (or no longer) loaded
+    private SentimentResult analyzeWithTensorFlow(String reviewText) {
+        try {
+            List<Category> results;
+            synchronized (classifierLock) {
+                if (classifier == null) return null;
+                results = classifier.classify(reviewText);
+            }
 
             if (results == null || results.isEmpty()) {
                 throw new RuntimeException("No results from model");
             }
 
-            // Debug: log all results
-            for (Category category : results) {
-                Log.d(TAG, "Model output - " + category.getLabel() + ": " + category.getScore());
-            }
-
             float positiveScore = 0f;
             float negativeScore = 0f;
 
@@ -106,41 +311,40 @@ public class SentimentAnalyzer {
             String label = classifySentiment(sentimentScore);
             Log.d(TAG, "✅ TensorFlow Result: " + label + " (" + sentimentScore + ")");
 
-            return new SentimentResult(sentimentScore, label, 1);
+            SentimentResult result = new SentimentResult(sentimentScore, label, 1);
+            result.modelVersion = modelVersion;
+            return result;
 
         } catch (Exception e) {
             throw new RuntimeException("TensorFlow analysis error: " + e.getMessage());
         }
     }
 
-    // Enhanced keyword-based fallback
+    // Lexicon-based fallback: one pass over the text, whole words only, with negation
     private SentimentResult analyzeWithKeywords(String text) {
-        String lowerText = text.toLowerCase();
-        int positive = 0, negative = 0;
+        KeywordMatcher.Score keywordScore = keywordMatcher.score(text);
+        float score = keywordScore.ratio(); // Neutral if no keywords
 
-        String[] positiveWords = {"good", "great", "excellent", "amazing", "awesome", "delicious",
-                "love", "best", "perfect", "wonderful", "nice", "friendly", "fast"};
-        String[] negativeWords = {"bad", "terrible", "horrible", "awful", "disgusting", "worst",
-                "hate", "poor", "slow", "dirty", "rude", "overpriced"};
+        String label = classifySentiment(score);
+        Log.d(TAG, "🔑 Keyword Analysis: " + label + " (" + score + ") - Positive: " + keywordScore.positiveMatches
+                + ", Negative: " + keywordScore.negativeMatches + ", Negated: " + keywordScore.negatedMatches);
 
-        for (String word : positiveWords) {
-            if (lowerText.contains(word)) positive++;
-        }
-        for (String word : negativeWords) {
-            if (lowerText.contains(word)) negative++;
-        }
+        SentimentResult result = new SentimentResult(score, label, 1);
+        result.modelVersion = KEYWORD_MODEL_VERSION;
+        return result;
+    }
 
-        float score;
-        if (positive + negative == 0) {
-            score = 0.5f; // Neutral if no keywords
-        } else {
-            score = (float) positive / (positive + negative);
+    private static synchronized KeywordMatcher loadKeywordMatcher(Context context) {
+        if (sharedKeywordMatcher == null) {
+            try (Reader lexicon = new InputStreamReader(context.getAssets().open(LEXICON_FILE), StandardCharsets.UTF_8)) {
+                sharedKeywordMatcher = KeywordMatcher.fromLexicon(lexicon);
+                Log.d(TAG, "✅ Keyword lexicon loaded");
+            } catch (IOException e) {
+                Log.e(TAG, "❌ Failed to load keyword lexicon, using built-in words: " + e.getMessage());
+                sharedKeywordMatcher = KeywordMatcher.defaultMatcher();
+            }
         }
-
-        String label = classifySentiment(score);
-        Log.d(TAG, "🔑 Keyword Analysis: " + label + " (" + score + ") - Positive: " + positive + ", Negative: " + negative);
-
-        return new SentimentResult(score, label, 1);
+        return sharedKeywordMatcher;
     }
 
     private String classifySentiment(float score) {
@@ -150,18 +354,31 @@ public class SentimentAnalyzer {
     }
 
     public void close() {
-        if (classifier != null) {
-            classifier.close();
+        synchronized (classifierLock) {
+            closed = true;
+            if (classifier != null) {
+                classifier.close();
+                classifier = null;
+            }
         }
+
+        // Persist new cache entries off the calling thread
+        cache.saveAsync();
     }
 
     public interface SentimentCallback {
         void onSentimentAnalyzed(SentimentResult result);
     }
+
+    public interface BatchCallback {
+        void onBatchAnalyzed(List<SentimentResult> results);
+    }
+
     public static class SentimentResult {
         public float score;
         public String label;
         public int status;
+        public String modelVersion = KEYWORD_MODEL_VERSION;
 
         public SentimentResult(float score, String label, int status) {
             this.score = score;
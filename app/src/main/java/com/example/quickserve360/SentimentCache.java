@@ -0,0 +1,229 @@
+package com.example.quickserve360;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide LRU cache of sentiment results, keyed by model version plus a
+ * hash of the normalized review text, and saved to app storage so it survives
+ * restarts. Size is accounted in approximate bytes rather than entry count.
+ *
+ * The file is read and written on the executor passed to getInstance, never
+ * on the caller's thread. Lookups miss until the file has been read, and the
+ * cache is saved every SAVE_AFTER_ENTRIES new results as well as on request.
+ */
+public class SentimentCache {
+    private static final String TAG = "SentimentCache";
+    private static final String CACHE_FILE = "sentiment_cache.bin";
+    // Bumped when the key changes, so entries under the old keys are dropped
+    private static final int FILE_FORMAT = 2;
+    private static final int MAX_BYTES = 256 * 1024;
+    // Object headers, the cached result and the LruCache map entry
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    // New results to collect before saving without being asked
+    private static final int SAVE_AFTER_ENTRIES = 32;
+
+    private static SentimentCache instance;
+
+    private final File cacheFile;
+    private final Executor ioExecutor;
+    private final LruCache<String, SentimentAnalyzer.SentimentResult> entries;
+    private final AtomicInteger unsavedEntries = new AtomicInteger();
+    private volatile boolean dirty = false;
+    private volatile boolean loaded = false;
+
+    public static synchronized SentimentCache getInstance(Context context, Executor ioExecutor) {
+        if (instance == null) {
+            instance = new SentimentCache(new File(context.getApplicationContext().getFilesDir(), CACHE_FILE), ioExecutor);
+            try {
+                ioExecutor.execute(instance::load);
+            } catch (RejectedExecutionException e) {
+                Log.w(TAG, "Executor busy, starting with an empty sentiment cache");
+                instance.loaded = true;
+            }
+        }
+        return instance;
+    }
+
+    private SentimentCache(File cacheFile, Executor ioExecutor) {
+        this.cacheFile = cacheFile;
+        this.ioExecutor = ioExecutor;
+        this.entries = new LruCache<String, SentimentAnalyzer.SentimentResult>(MAX_BYTES) {
+            @Override
+            protected int sizeOf(String key, SentimentAnalyzer.SentimentResult result) {
+                int labelChars = result.label != null ? result.label.length() : 0;
+                return ENTRY_OVERHEAD_BYTES + 2 * (key.length() + labelChars);
+            }
+        };
+    }
+
+    // Misses until the saved results have been read
+    public SentimentAnalyzer.SentimentResult get(String modelVersion, String reviewText) {
+        if (!loaded) return null;
+        return entries.get(key(modelVersion, reviewText));
+    }
+
+    public void put(String reviewText, SentimentAnalyzer.SentimentResult result) {
+        entries.put(key(result.modelVersion, reviewText), result);
+        dirty = true;
+        if (unsavedEntries.incrementAndGet() >= SAVE_AFTER_ENTRIES) {
+            saveAsync();
+        }
+    }
+
+    /**
+     * Saves the cache on the executor, if it changed.
+     */
+    public void saveAsync() {
+        unsavedEntries.set(0);
+        try {
+            ioExecutor.execute(this::save);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Executor busy, sentiment cache not saved");
+        }
+    }
+
+    public int hitCount() {
+        return entries.hitCount();
+    }
+
+    public int missCount() {
+        return entries.missCount();
+    }
+
+    public int sizeBytes() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache to disk if it changed since the last save. Blocking;
+     * call from a background thread.
+     */
+    public synchronized void save() {
+        // Saving before the file is read would drop the results in it
+        if (!dirty || !loaded) return;
+        dirty = false;
+        unsavedEntries.set(0);
+
+        // Snapshot is least recently used first, so reloading in order keeps recency
+        Map<String, SentimentAnalyzer.SentimentResult> snapshot = entries.snapshot();
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(FILE_FORMAT);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, SentimentAnalyzer.SentimentResult> entry : snapshot.entrySet()) {
+                SentimentAnalyzer.SentimentResult result = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeFloat(result.score);
+                out.writeUTF(result.label);
+                out.writeInt(result.status);
+                out.writeUTF(result.modelVersion);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Failed to save sentiment cache: " + e.getMessage());
+            tempFile.delete();
+            return;
+        }
+
+        if (!tempFile.renameTo(cacheFile)) {
+            Log.e(TAG, "❌ Failed to replace sentiment cache file");
+            tempFile.delete();
+            return;
+        }
+        Log.d(TAG, "✅ Saved " + snapshot.size() + " cached results (" + sizeBytes() + " bytes, hits: "
+                + hitCount() + ", misses: " + missCount() + ")");
+    }
+
+    // Entries put while this runs have the same key only if they have the same result
+    private synchronized void load() {
+        try {
+            readFile();
+        } finally {
+            loaded = true;
+        }
+    }
+
+    private void readFile() {
+        if (!cacheFile.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != FILE_FORMAT) {
+                Log.w(TAG, "Ignoring sentiment cache in an old format");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                SentimentAnalyzer.SentimentResult result = new SentimentAnalyzer.SentimentResult(
+                        in.readFloat(), in.readUTF(), in.readInt());
+                result.modelVersion = in.readUTF();
+                entries.put(key, result);
+            }
+            Log.d(TAG, "✅ Loaded " + count + " cached sentiment results");
+        } catch (IOException e) {
+            Log.e(TAG, "❌ Failed to load sentiment cache: " + e.getMessage());
+            entries.evictAll();
+        }
+    }
+
+    private static String key(String modelVersion, String reviewText) {
+        return modelVersion + ":" + Long.toHexString(hash(normalize(reviewText)));
+    }
+
+    /**
+     * Lower-cases the text and reduces each gap between words to one space, or
+     * to one '.' if it holds a clause break, so "Good food!!" and "good  food"
+     * share an entry but "not, good" and "not good" (which score differently)
+     * don't. Words and clause breaks are those of {@link KeywordMatcher}.
+     */
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+        boolean pendingBreak = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (KeywordMatcher.isWordChar(c)) {
+                if (sb.length() > 0) {
+                    if (pendingBreak) sb.append('.');
+                    else if (pendingSpace) sb.append(' ');
+                }
+                sb.append(c);
+                pendingSpace = false;
+                pendingBreak = false;
+            } else {
+                pendingSpace = true;
+                pendingBreak |= KeywordMatcher.isClauseBreak(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // 64-bit FNV-1a
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
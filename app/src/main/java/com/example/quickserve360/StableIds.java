@@ -0,0 +1,22 @@
+package com.example.quickserve360;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Maps the string keys Firebase gives our records to the long IDs
+ * RecyclerView uses for stable IDs.
+ */
+public final class StableIds {
+    private StableIds() {}
+
+    // 64-bit FNV-1a of the key; a missing key has no stable ID
+    public static long of(String key) {
+        if (key == null) return RecyclerView.NO_ID;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.quickserve360.analytics.DayKeys;
+import com.example.quickserve360.analytics.OrderEvent;
+import com.example.quickserve360.analytics.OrderStats;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Maintains per-day statistics buckets under StatsRollups/daily/{yyyy-MM-dd}
+ * so the admin charts never have to walk the raw orders tree.
+ */
+public class StatsRollupManager {
+    private static final String TAG = "StatsRollupManager";
+    static final String DAILY_NODE = "StatsRollups/daily";
+    private FirebaseDatabase database;
+
+    public StatsRollupManager() {
+        this.database = FirebaseDatabase.getInstance();
+    }
+
+    /**
+     * Adds the bucket increments for a newly placed order to a multi-path update,
+     * so the rollup is committed atomically with the order itself.
+     */
+    public static void addOrderIncrements(Map<String, Object> updates, Order order) {
+        long epochDay = orderDay(order.getOrderDate(), order.getTimestamp());
+        if (epochDay == DayKeys.NO_DAY) return;
+
+        String base = DAILY_NODE + "/" + DayKeys.dayKey(epochDay);
+        updates.put(base + "/orderCount", ServerValue.increment(1));
+        updates.put(base + "/revenue", ServerValue.increment(order.getTotalAmount()));
+
+        if (order.getPaymentMethod() != null) {
+            updates.put(base + "/paymentMethods/" + encodeKey(order.getPaymentMethod()), ServerValue.increment(1));
+        }
+        if (order.getStatus() != null) {
+            updates.put(base + "/statuses/" + encodeKey(order.getStatus()), ServerValue.increment(1));
+        }
+    }
+
+    /**
+     * Adds the status counter adjustments for an order moving between statuses.
+     */
+    public static void addStatusChange(Map<String, Object> updates, String orderDate, long timestamp,
+                                       String oldStatus, String newStatus) {
+        // Same day the order was counted on at checkout
+        long epochDay = orderDay(orderDate, timestamp);
+        if (epochDay == DayKeys.NO_DAY || newStatus.equals(oldStatus)) return;
+
+        String base = DAILY_NODE + "/" + DayKeys.dayKey(epochDay) + "/statuses/";
+        if (oldStatus != null) {
+            updates.put(base + encodeKey(oldStatus), ServerValue.increment(-1));
+        }
+        updates.put(base + encodeKey(newStatus), ServerValue.increment(1));
+    }
+
+    /**
+     * Loads the daily buckets between two yyyy-MM-dd keys (inclusive), in date order.
+     * Either bound may be null to leave that end of the range open.
+     */
+    public void loadDailyRollups(String startDayKey, String endDayKey, RollupCallback callback) {
+        Query query = database.getReference(DAILY_NODE).orderByKey();
+        if (startDayKey != null) query = query.startAt(startDayKey);
+        if (endDayKey != null) query = query.endAt(endDayKey);
+
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Map<String, DailyRollup> rollups = new LinkedHashMap<>();
+                for (DataSnapshot daySnapshot : snapshot.getChildren()) {
+                    DailyRollup rollup = daySnapshot.getValue(DailyRollup.class);
+                    if (rollup != null) {
+                        rollups.put(daySnapshot.getKey(), rollup);
+                    }
+                }
+                callback.onRollupsLoaded(rollups);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to load rollups: " + error.getMessage());
+                callback.onError(error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Regenerates every daily bucket from the raw orders tree.
+     * Maintenance tool for backfilling or repairing rollups; orders placed while
+     * it runs may need another rebuild.
+     */
+    public void rebuildFromOrders(UpdateCallback callback) {
+        database.getReference("orders").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                OrderStats stats = new OrderStats();
+                int totalOrdersProcessed = 0;
+
+                for (DataSnapshot userSnapshot : snapshot.getChildren()) {
+                    for (DataSnapshot orderSnapshot : userSnapshot.getChildren()) {
+                        try {
+                            if (stats.add(toOrderEvent(orderSnapshot))) {
+                                totalOrdersProcessed++;
+                            }
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error processing order: " + e.getMessage());
+                        }
+                    }
+                }
+
+                Map<String, DailyRollup> rollups = new HashMap<>();
+                stats.daily().forEachDay((epochDay, orderCount, revenue) -> rollups.put(DayKeys.dayKey(epochDay),
+                        DailyRollup.from(orderCount, revenue, stats.countsFor(epochDay))));
+
+                final int processed = totalOrdersProcessed;
+                database.getReference(DAILY_NODE).setValue(rollups)
+                        .addOnSuccessListener(aVoid -> {
+                            Log.d(TAG, "✅ Rebuilt " + rollups.size() + " daily rollups from " + processed + " orders");
+                            callback.onComplete(true, "Rebuilt statistics from " + processed + " orders");
+                        })
+                        .addOnFailureListener(e -> {
+                            Log.e(TAG, "❌ Failed to write rollups: " + e.getMessage());
+                            callback.onComplete(false, e.getMessage());
+                        });
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Failed to fetch orders: " + error.getMessage());
+                callback.onComplete(false, error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reads an order for the statistics field by field, so one malformed
+     * field doesn't lose the whole order.
+     */
+    static OrderEvent toOrderEvent(DataSnapshot orderSnapshot) {
+        Object amountObj = orderSnapshot.child("totalAmount").getValue();
+        double totalAmount = amountObj instanceof Number ? ((Number) amountObj).doubleValue() : 0.0;
+
+        Long timestamp = orderSnapshot.child("timestamp").getValue(Long.class);
+        return new OrderEvent(
+                orderDay(orderSnapshot.child("orderDate").getValue(String.class), timestamp != null ? timestamp : 0),
+                totalAmount,
+                orderSnapshot.child("paymentMethod").getValue(String.class),
+                orderSnapshot.child("status").getValue(String.class));
+    }
+
+    /**
+     * The epoch day an order is counted on: the date the customer saw
+     * (orderDate, local to their device), or for orders without one, the
+     * day of its timestamp here. Parsed once per order, without a date
+     * formatter.
+     */
+    static long orderDay(String orderDate, long timestamp) {
+        long epochDay = DayKeys.epochDay(orderDate);
+        if (epochDay == DayKeys.NO_DAY && timestamp > 0) {
+            epochDay = DayKeys.epochDayOfMillis(timestamp, TimeZone.getDefault());
+        }
+        return epochDay;
+    }
+
+    /**
+     * Escapes characters Firebase does not allow in keys (. $ # [ ] /).
+     */
+    static String encodeKey(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '.' || c == '$' || c == '#' || c == '[' || c == ']' || c == '/') {
+                sb.append('%').append(String.format("%02X", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String decodeKey(String key) {
+        if (key.indexOf('%') < 0) return key;
+        StringBuilder sb = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '%' && i + 2 < key.length()) {
+                sb.append((char) Integer.parseInt(key.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Callback interfaces
+    public interface RollupCallback {
+        void onRollupsLoaded(Map<String, DailyRollup> rollupsByDay);
+        void onError(String message);
+    }
+
+    public interface UpdateCallback {
+        void onComplete(boolean success, String message);
+    }
+
+    // One day's bucket; map keys are escaped with encodeKey. Dish counts live in DishPopularityTracker
+    public static class DailyRollup {
+        public long orderCount = 0;
+        public double revenue = 0.0;
+        public Map<String, Long> paymentMethods = new HashMap<>();
+        public Map<String, Long> statuses = new HashMap<>();
+
+        public DailyRollup() {} // no-arg constructor for Firebase
+
+        static DailyRollup from(long orderCount, double revenue, OrderStats.DayCounts counts) {
+            DailyRollup rollup = new DailyRollup();
+            rollup.orderCount = orderCount;
+            rollup.revenue = revenue;
+            for (Map.Entry<String, Long> entry : counts.paymentMethods.entrySet()) {
+                rollup.paymentMethods.put(encodeKey(entry.getKey()), entry.getValue());
+            }
+            for (Map.Entry<String, Long> entry : counts.statuses.entrySet()) {
+                rollup.statuses.put(encodeKey(entry.getKey()), entry.getValue());
+            }
+            return rollup;
+        }
+
+        // Decodes the keys, for adding to an OrderStats
+        void addTo(OrderStats stats, long epochDay) {
+            stats.addDay(epochDay, orderCount, revenue, decodeKeys(paymentMethods), decodeKeys(statuses));
+        }
+
+        private static Map<String, Long> decodeKeys(Map<String, Long> counts) {
+            Map<String, Long> decoded = new HashMap<>();
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                decoded.put(decodeKey(entry.getKey()), entry.getValue());
+            }
+            return decoded;
+        }
+    }
+}
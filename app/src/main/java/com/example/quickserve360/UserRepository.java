@@ -0,0 +1,127 @@
+package com.example.quickserve360;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-user settings: the selected city and the saved food preferences.
+ * Reads go through {@link PathCache}; writes invalidate the cached value.
+ */
+public class UserRepository {
+    private static final String TAG = "UserRepository";
+    private static final long USER_DATA_TTL_MS = 10 * 60 * 1000;
+
+    private static final PathCache.Parser<String> STRING_PARSER = snapshot -> snapshot.getValue(String.class);
+    private static final PathCache.Parser<Preferences> PREFERENCES_PARSER =
+            snapshot -> snapshot.exists() ? snapshot.getValue(Preferences.class) : null;
+
+    private static UserRepository instance;
+
+    private final PathCache cache = PathCache.getInstance();
+    private final FirebaseDatabase database = FirebaseDatabase.getInstance();
+
+    public static synchronized UserRepository getInstance() {
+        if (instance == null) {
+            instance = new UserRepository();
+        }
+        return instance;
+    }
+
+    private UserRepository() {}
+
+    // Delivers null when the user hasn't picked a city
+    public void getSelectedCity(String userId, PathCache.Callback<String> callback) {
+        cache.get(selectedCityPath(userId), USER_DATA_TTL_MS, STRING_PARSER, callback);
+    }
+
+    public Task<Void> setSelectedCity(String userId, String city) {
+        Task<Void> task = database.getReference(selectedCityPath(userId)).setValue(city);
+        cache.invalidate(selectedCityPath(userId));
+        return task;
+    }
+
+    public Task<Void> clearSelectedCity(String userId) {
+        return setSelectedCity(userId, null);
+    }
+
+    // Delivers null when the user hasn't saved preferences
+    public void getPreferences(String userId, PathCache.Callback<Preferences> callback) {
+        cache.get(preferencesPath(userId), USER_DATA_TTL_MS, PREFERENCES_PARSER, callback);
+    }
+
+    /**
+     * Replaces the user's preferences, then moves them between the
+     * {@link PreferenceCounters}. The save runs as a transaction so the
+     * preferences it replaced, and so the counters to decrement, are known
+     * exactly. The task completes once the preferences are stored; a failed
+     * counter update is only logged and fixed by rebuilding the counters.
+     */
+    public Task<Void> savePreferences(String userId, Map<String, Object> preferences) {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        // What the committed run of the transaction replaced
+        AtomicReference<Preferences> replaced = new AtomicReference<>();
+
+        database.getReference(preferencesPath(userId)).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                replaced.set(currentData.getValue(Preferences.class));
+                currentData.setValue(preferences);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot snapshot) {
+                cache.invalidate(preferencesPath(userId));
+                if (error != null) {
+                    result.setException(error.toException());
+                    return;
+                }
+                if (!committed) {
+                    result.setException(new IllegalStateException("Preferences were not saved"));
+                    return;
+                }
+                result.setResult(null);
+
+                Map<String, Object> updates = new HashMap<>();
+                PreferenceCounters.addChangeIncrements(updates, userId, replaced.get(),
+                        snapshot.getValue(Preferences.class));
+                if (updates.isEmpty()) return;
+                database.getReference().updateChildren(updates)
+                        .addOnFailureListener(e ->
+                                Log.e(TAG, "❌ Failed to update preference counters: " + e.getMessage()));
+            }
+        });
+        return result.getTask();
+    }
+
+    private static String selectedCityPath(String userId) {
+        return "users/" + userId + "/selectedCity";
+    }
+
+    private static String preferencesPath(String userId) {
+        return "UserPreferences/" + userId;
+    }
+
+    // Stored under UserPreferences/{userId}
+    public static class Preferences {
+        public String cuisine;
+        public String foodType;
+        public String budget;
+
+        public Preferences() {} // no-arg constructor for Firebase
+    }
+}
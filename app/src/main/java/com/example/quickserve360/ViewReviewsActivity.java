@@ -11,44 +11,61 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class ViewReviewsActivity extends AppCompatActivity {
 
     private RecyclerView reviewsRecyclerView;
-    private DatabaseReference reviewsReference;
     private ReviewAdapter adapter;
-    private List<ReviewInfo> reviewList;
     private ImageButton btnBackArrow;
+    private LifecycleSubscriptions subscriptions;
+
+    private static final PathCache.Parser<List<ReviewInfo>> REVIEWS_PARSER = snapshot -> {
+        List<ReviewInfo> reviewList = new ArrayList<>();
+
+        for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
+            ReviewInfo review = new ReviewInfo();
+            review.reviewId = reviewSnapshot.getKey();
+            review.restaurantId = reviewSnapshot.child("restaurantId").getValue(String.class);
+            review.restaurantName = reviewSnapshot.child("restaurantName").getValue(String.class);
+            review.userName = reviewSnapshot.child("userName").getValue(String.class);
+            review.rating = reviewSnapshot.child("rating").getValue(Integer.class);
+            review.comment = reviewSnapshot.child("comment").getValue(String.class);
+            review.timestamp = reviewSnapshot.child("timestamp").getValue(Long.class);
+
+            if (review.restaurantName != null) {
+                reviewList.add(review);
+            }
+        }
+        return reviewList;
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         getSupportActionBar().hide();
         setContentView(R.layout.activity_view_reviews);
+        subscriptions = new LifecycleSubscriptions(this);
 
         // Initialize back button
         btnBackArrow = findViewById(R.id.btnBackArrow);
         btnBackArrow.setOnClickListener(v -> finish());
 
         reviewsRecyclerView = findViewById(R.id.reviews_recycler_view);
-        reviewsReference = FirebaseDatabase.getInstance().getReference("Reviews");
 
-        reviewList = new ArrayList<>();
-        adapter = new ReviewAdapter(reviewList);
+        adapter = new ReviewAdapter();
 
         reviewsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         reviewsRecyclerView.setAdapter(adapter);
@@ -56,34 +73,20 @@ public class ViewReviewsActivity extends AppCompatActivity {
         loadReviews();
     }
     private void loadReviews() {
-        reviewsReference.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                reviewList.clear();
-
-                for (DataSnapshot reviewSnapshot : snapshot.getChildren()) {
-                    ReviewInfo review = new ReviewInfo();
-                    review.reviewId = reviewSnapshot.child("id").getValue(String.class);
-                    review.restaurantId = reviewSnapshot.child("restaurantId").getValue(String.class);
-                    review.restaurantName = reviewSnapshot.child("restaurantName").getValue(String.class);
-                    review.userName = reviewSnapshot.child("userName").getValue(String.class);
-                    review.rating = reviewSnapshot.child("rating").getValue(Integer.class);
-                    review.comment = reviewSnapshot.child("comment").getValue(String.class);
-                    review.timestamp = reviewSnapshot.child("timestamp").getValue(Long.class);
-
-                    if (review.restaurantName != null) {
-                        reviewList.add(review);
+        subscriptions.add(() -> ReviewRepository.getInstance().observeReviews(REVIEWS_PARSER,
+                new PathCache.Callback<List<ReviewInfo>>() {
+                    @Override
+                    public void onLoaded(List<ReviewInfo> reviewList) {
+                        // The parsed list is shared, so hand the adapter its own copy
+                        adapter.submitList(new ArrayList<>(reviewList));
                     }
-                }
-                adapter.notifyDataSetChanged();
-            }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Toast.makeText(ViewReviewsActivity.this,
-                        "Failed to load reviews", Toast.LENGTH_SHORT).show();
-            }
-        });
+                    @Override
+                    public void onError(String message) {
+                        Toast.makeText(ViewReviewsActivity.this,
+                                "Failed to load reviews", Toast.LENGTH_SHORT).show();
+                    }
+                }));
     }
 
     @Override
@@ -104,12 +107,25 @@ public class ViewReviewsActivity extends AppCompatActivity {
     }
 
     // Adapter Class
-    class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ViewHolder> {
+    class ReviewAdapter extends ListAdapter<ReviewInfo, ReviewAdapter.ViewHolder> {
 
-        private List<ReviewInfo> reviews;
+        public ReviewAdapter() {
+            super(new DiffUtil.ItemCallback<ReviewInfo>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ReviewInfo oldItem, @NonNull ReviewInfo newItem) {
+                    return Objects.equals(oldItem.reviewId, newItem.reviewId);
+                }
 
-        public ReviewAdapter(List<ReviewInfo> reviews) {
-            this.reviews = reviews;
+                @Override
+                public boolean areContentsTheSame(@NonNull ReviewInfo oldItem, @NonNull ReviewInfo newItem) {
+                    return Objects.equals(oldItem.restaurantName, newItem.restaurantName)
+                            && Objects.equals(oldItem.userName, newItem.userName)
+                            && Objects.equals(oldItem.rating, newItem.rating)
+                            && Objects.equals(oldItem.comment, newItem.comment)
+                            && Objects.equals(oldItem.timestamp, newItem.timestamp);
+                }
+            });
+            setHasStableIds(true);
         }
 
         @NonNull
@@ -122,7 +138,7 @@ public class ViewReviewsActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            ReviewInfo review = reviews.get(position);
+            ReviewInfo review = getItem(position);
 
             holder.restaurantNameText.setText(review.restaurantName);
             holder.userNameText.setText("By: " + review.userName);
@@ -141,8 +157,8 @@ public class ViewReviewsActivity extends AppCompatActivity {
         }
 
         @Override
-        public int getItemCount() {
-            return reviews.size();
+        public long getItemId(int position) {
+            return StableIds.of(getItem(position).reviewId);
         }
 
         class ViewHolder extends RecyclerView.ViewHolder {
@@ -110,6 +110,7 @@ public class WriteReviewActivity extends AppCompatActivity {
         Review review = new Review(reviewId, userId, restaurantId, restaurantName, userName, comment, timestamp);
         review.setSentimentScore(sentiment.score);
         review.setSentimentLabel(sentiment.label);
+        review.modelVersion = sentiment.modelVersion;
 
         DatabaseReference reviewsRef = database.getReference("Reviews").child(reviewId);
         reviewsRef.setValue(review)
@@ -118,7 +119,7 @@ public class WriteReviewActivity extends AppCompatActivity {
                     tvAnalysisStatus.setText("Updating restaurant rating...");
 
                     // Update restaurant rating after review is saved
-                    updateRestaurantRating(sentiment);
+                    updateRestaurantRating(review, sentiment);
                 })
                 .addOnFailureListener(e -> {
                     setUIState(false);
@@ -127,8 +128,8 @@ public class WriteReviewActivity extends AppCompatActivity {
                 });
     }
 
-    private void updateRestaurantRating(SentimentAnalyzer.SentimentResult sentiment) {
-        ratingCalculator.updateRestaurantRating(restaurantId, (success, message) -> {
+    private void updateRestaurantRating(Review review, SentimentAnalyzer.SentimentResult sentiment) {
+        ratingCalculator.updateRestaurantRating(review, (success, message) -> {
             runOnUiThread(() -> {
                 setUIState(false);
 
@@ -0,0 +1,47 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH benchmarks for the app's hot paths, run on a desktop JVM:
+//   ./gradlew :benchmarks:jmh
+// Results are written to build/results/jmh/results.json.
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            // :app is an Android module and can't be a JVM dependency, so its
+            // plain-Java classes are compiled in directly. Keep this list free
+            // of anything that imports android.* or Firebase.
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/quickserve360/CartItem.java",
+                "com/example/quickserve360/CartTotal.java",
+                "com/example/quickserve360/KeywordMatcher.java",
+                "com/example/quickserve360/Restaurant.java",
+                "com/example/quickserve360/RestaurantSearchIndex.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation(project(":analytics-core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Throughput, plus per-call latency percentiles from sampling
+    benchmarkMode.set(listOf("thrpt", "sample"))
+    // Allocation rate per benchmark
+    profilers.set(listOf("gc"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    jvmArgsAppend.add("-Dquickserve.lexicon=" + file("../app/src/main/assets/sentiment_lexicon.txt").absolutePath)
+}
@@ -0,0 +1,55 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.CartItem;
+import com.example.quickserve360.CartTotal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart totals as CartStore keeps them: a CartTotal built up item by item on
+ * load, and moved by one quantity change per tap.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CartTotalBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int items;
+
+    private List<CartItem> cart;
+    private CartTotal total;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cart = Datasets.cartItems(items);
+        total = loadCart();
+    }
+
+    @Benchmark
+    public CartTotal loadCart() {
+        CartTotal loaded = new CartTotal();
+        for (CartItem item : cart) {
+            loaded.add(item);
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public double changeQuantity() {
+        CartItem item = cart.get(next);
+        next = (next + 1) % cart.size();
+        int newQuantity = item.getQuantity() % 5 + 1;
+        total.changeQuantity(item, newQuantity);
+        item.setQuantity(newQuantity);
+        return total.get();
+    }
+}
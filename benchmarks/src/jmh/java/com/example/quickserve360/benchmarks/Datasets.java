@@ -0,0 +1,135 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.CartItem;
+import com.example.quickserve360.Restaurant;
+import com.example.quickserve360.analytics.DayKeys;
+import com.example.quickserve360.analytics.OrderEvent;
+import com.example.quickserve360.analytics.ReviewEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic data shaped like the app's, generated from a fixed seed so every
+ * run of a benchmark sees the same records.
+ */
+final class Datasets {
+    private static final long SEED = 360L;
+
+    private static final String[] CUISINES = {"Indian", "Chinese", "Italian", "Mexican", "Thai",
+            "Japanese", "Continental", "South Indian", "Fast Food", "Desserts"};
+    private static final String[] CITIES = {"Mumbai", "Delhi", "Bengaluru", "Pune", "Chennai",
+            "Hyderabad", "Kolkata", "Ahmedabad"};
+    private static final String[] NAME_WORDS = {"Spice", "Garden", "Royal", "Dragon", "Pizza", "Curry",
+            "House", "Kitchen", "Palace", "Express", "Tandoor", "Wok", "Bistro", "Cafe", "Grill", "Dhaba"};
+    private static final String[] DISHES = {"Paneer Tikka", "Butter Chicken", "Masala Dosa", "Hakka Noodles",
+            "Margherita Pizza", "Veg Biryani", "Chicken Biryani", "Pad Thai", "Sushi Platter", "Tacos",
+            "Gulab Jamun", "Chole Bhature", "Manchurian", "Pasta Alfredo", "Burger", "Brownie"};
+    private static final String[] PAYMENT_METHODS = {"Cash on Delivery", "UPI", "Card", "Net Banking"};
+    private static final String[] STATUSES = {"Pending", "Preparing", "Delivered", "Cancelled"};
+
+    private static final String[] REVIEW_PHRASES = {"the food was delicious", "service was terrible",
+            "not good at all", "amazing biryani and friendly staff", "delivery was slow and the food cold",
+            "great value for money", "would not recommend", "portions were small but tasty",
+            "absolutely loved the desserts", "it was okay, nothing special", "worst experience ever",
+            "fresh ingredients, quick delivery"};
+
+    private Datasets() {}
+
+    static List<Restaurant> restaurants(int count) {
+        Random random = new Random(SEED);
+        List<Restaurant> restaurants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("r" + i);
+            restaurant.setName(pick(random, NAME_WORDS) + " " + pick(random, NAME_WORDS) + " " + i);
+            restaurant.setCuisine(pick(random, CUISINES));
+            restaurant.setLocation(pick(random, CITIES));
+            restaurant.setRating(1 + random.nextInt(41) / 10.0);
+            restaurant.setBudget(100 + random.nextInt(20) * 50);
+            restaurant.setIsVeg(random.nextBoolean());
+            restaurants.add(restaurant);
+        }
+        return restaurants;
+    }
+
+    // A few dish names per restaurant, as the search index gets them
+    static Map<String, List<String>> dishNamesByRestaurant(List<Restaurant> restaurants) {
+        Random random = new Random(SEED);
+        Map<String, List<String>> dishNames = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            List<String> names = new ArrayList<>(3);
+            for (int i = 0; i < 3; i++) names.add(pick(random, DISHES));
+            dishNames.put(restaurant.getId(), names);
+        }
+        return dishNames;
+    }
+
+    static List<CartItem> cartItems(int count) {
+        Random random = new Random(SEED);
+        List<CartItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CartItem item = new CartItem("d" + i, pick(random, DISHES), 50 + random.nextInt(450),
+                    null, null, 1 + random.nextInt(4));
+            item.setRestaurantId("r" + random.nextInt(500));
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Orders spread over about three years of days, in random order, each
+     * totalling one to four items.
+     */
+    static List<OrderEvent> orders(int count) {
+        Random random = new Random(SEED);
+        List<OrderEvent> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String orderDate = String.format(Locale.US, "%02d-%02d-%04d %02d:%02d",
+                    1 + random.nextInt(28), 1 + random.nextInt(12), 2023 + random.nextInt(3),
+                    random.nextInt(24), random.nextInt(60));
+
+            int itemCount = 1 + random.nextInt(4);
+            double total = 0;
+            for (int j = 0; j < itemCount; j++) {
+                total += (1 + random.nextInt(3)) * (50 + random.nextInt(450));
+            }
+
+            orders.add(new OrderEvent(DayKeys.epochDay(orderDate), total, pick(random, PAYMENT_METHODS),
+                    pick(random, STATUSES)));
+        }
+        return orders;
+    }
+
+    static List<ReviewEvent> reviews(int count) {
+        Random random = new Random(SEED);
+        String[] labels = {ReviewEvent.POSITIVE, ReviewEvent.NEUTRAL, ReviewEvent.NEGATIVE};
+        List<ReviewEvent> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(new ReviewEvent("r" + random.nextInt(500), random.nextFloat(), pick(random, labels)));
+        }
+        return reviews;
+    }
+
+    // Review texts of one to three phrases
+    static List<String> reviewTexts(int count) {
+        Random random = new Random(SEED);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder(pick(random, REVIEW_PHRASES));
+            int extra = random.nextInt(3);
+            for (int j = 0; j < extra; j++) text.append(". ").append(pick(random, REVIEW_PHRASES));
+            texts.add(text.toString());
+        }
+        return Collections.unmodifiableList(texts);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.analytics.DayKeys;
+import com.example.quickserve360.analytics.OrderEvent;
+import com.example.quickserve360.analytics.OrderStats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin statistics: aggregating orders into day totals (the rollup
+ * rebuild) and reading the date-ordered series and totals (the charts).
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderStatsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int orders;
+
+    private List<OrderEvent> events;
+    private OrderStats aggregated;
+
+    @Setup
+    public void setUp() {
+        events = Datasets.orders(orders);
+        aggregated = aggregate(events);
+    }
+
+    @Benchmark
+    public OrderStats aggregateOrders() {
+        return aggregate(events);
+    }
+
+    @Benchmark
+    public void chartSeries(Blackhole blackhole) {
+        aggregated.daily().forEachDay((epochDay, orderCount, revenue) -> {
+            blackhole.consume(DayKeys.dayLabel(epochDay));
+            blackhole.consume(orderCount);
+            blackhole.consume(revenue);
+        });
+        blackhole.consume(aggregated.paymentCounts());
+        blackhole.consume(aggregated.statusCounts());
+    }
+
+    private static OrderStats aggregate(List<OrderEvent> events) {
+        OrderStats stats = new OrderStats();
+        for (OrderEvent event : events) {
+            stats.add(event);
+        }
+        return stats;
+    }
+}
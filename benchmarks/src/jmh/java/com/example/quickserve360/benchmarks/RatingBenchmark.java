@@ -0,0 +1,54 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.analytics.ReviewEvent;
+import com.example.quickserve360.analytics.ReviewStats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentiment-to-rating conversion and per-restaurant rating aggregation, as in
+ * RatingCalculator's aggregate rebuild.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RatingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int reviews;
+
+    private List<ReviewEvent> events;
+
+    @Setup
+    public void setUp() {
+        events = Datasets.reviews(reviews);
+    }
+
+    @Benchmark
+    public double convertRatings() {
+        double sum = 0;
+        for (ReviewEvent event : events) {
+            sum += ReviewEvent.ratingFor(event.sentimentScore);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void aggregateRatings(Blackhole blackhole) {
+        ReviewStats stats = new ReviewStats();
+        for (ReviewEvent event : events) {
+            stats.add(event);
+        }
+        for (ReviewStats.RatingTotals totals : stats.restaurants().values()) {
+            blackhole.consume(totals.averageRating());
+        }
+    }
+}
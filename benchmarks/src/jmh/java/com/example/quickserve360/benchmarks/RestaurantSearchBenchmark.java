@@ -0,0 +1,64 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.Restaurant;
+import com.example.quickserve360.RestaurantSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restaurant search from MainActivity.filterRestaurants: the index it builds
+ * in the background, queries against it, and the linear name filter it falls
+ * back to while the index is building.
+ *
+ * The preference filter in PreferencesRestaurantsActivity runs as a SQLite
+ * query in RestaurantCatalog, so it isn't covered here.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RestaurantSearchBenchmark {
+    // Same cap as MainActivity
+    private static final int MAX_RESULTS = 50;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int restaurants;
+
+    // A name word, a dish prefix and a typo that needs the fuzzy match
+    @Param({"spice", "biry", "piza"})
+    public String query;
+
+    private List<Restaurant> restaurantList;
+    private Map<String, List<String>> dishNames;
+    private RestaurantSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        restaurantList = Datasets.restaurants(restaurants);
+        dishNames = Datasets.dishNamesByRestaurant(restaurantList);
+        index = new RestaurantSearchIndex(restaurantList, dishNames);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RestaurantSearchIndex buildIndex() {
+        return new RestaurantSearchIndex(restaurantList, dishNames);
+    }
+
+    @Benchmark
+    public List<Restaurant> indexedSearch() {
+        return index.search(query, MAX_RESULTS);
+    }
+
+    @Benchmark
+    public List<Restaurant> nameFilterFallback() {
+        return RestaurantSearchIndex.filterByName(restaurantList, query);
+    }
+}
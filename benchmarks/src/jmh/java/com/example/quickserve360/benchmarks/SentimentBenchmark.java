@@ -0,0 +1,57 @@
+package com.example.quickserve360.benchmarks;
+
+import com.example.quickserve360.KeywordMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword sentiment scoring, the path SentimentAnalyzer.analyzeWithKeywords
+ * takes when the model is unavailable or the inference queue is full.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SentimentBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int reviews;
+
+    private KeywordMatcher matcher;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The app's lexicon when run through Gradle, the built-in words otherwise
+        String lexiconPath = System.getProperty("quickserve.lexicon");
+        Path lexicon = lexiconPath != null ? Paths.get(lexiconPath) : null;
+        if (lexicon != null && Files.exists(lexicon)) {
+            try (Reader reader = Files.newBufferedReader(lexicon, StandardCharsets.UTF_8)) {
+                matcher = KeywordMatcher.fromLexicon(reader);
+            }
+        } else {
+            matcher = KeywordMatcher.defaultMatcher();
+        }
+        texts = Datasets.reviewTexts(reviews);
+    }
+
+    @Benchmark
+    public void scoreReviews(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(matcher.score(text).ratio());
+        }
+    }
+}
@@ -22,4 +22,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "QuickServe360"
 include(":app")
+include(":analytics-core")
+include(":benchmarks")
  
\ No newline at end of file